@@ -2,7 +2,9 @@ package com.celebrationpoint.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication(scanBasePackages = "com.celebrationpoint.backend")
 public class CelebrationpointBackendApplication {
 
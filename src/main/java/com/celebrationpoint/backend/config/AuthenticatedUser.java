@@ -0,0 +1,60 @@
+package com.celebrationpoint.backend.config;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal built from verified JWT claims, so secured endpoints know
+ * who is calling without reading the users table.
+ *
+ * getName() is the email, which keeps authentication.getName() working
+ * everywhere it was used before.
+ */
+public class AuthenticatedUser implements Principal {
+
+    private final Long userId;
+    private final String email;
+    private final List<String> roles;
+
+    public AuthenticatedUser(Long userId, String email, List<String> roles) {
+        this.userId = userId;
+        this.email = email;
+        this.roles = List.copyOf(roles);
+    }
+
+    // 🔒 Id of the caller on an authenticated request
+    public static Long userId(Authentication authentication) {
+        return ((AuthenticatedUser) authentication.getPrincipal()).getUserId();
+    }
+
+    public List<SimpleGrantedAuthority> getAuthorities() {
+        return roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+}
@@ -0,0 +1,52 @@
+package com.celebrationpoint.backend.config;
+
+import com.celebrationpoint.backend.service.catalog.CatalogVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Conditional GET for the public catalog endpoints.
+ *
+ * The ETag is the catalog and stock versions plus a hash of the request URI and
+ * query, so the same URL at the same version always carries the same tag.
+ * A matching If-None-Match (or If-Modified-Since) is answered with 304
+ * here, before the controller runs: no repository, cache or Jackson work.
+ *
+ * The version is read before the handler runs. A write racing with the
+ * request can only make the tag older than the body, which costs one
+ * extra 200 later and never serves stale data.
+ */
+@Component
+public class CatalogConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersionService catalogVersionService;
+
+    public CatalogConditionalGetInterceptor(CatalogVersionService catalogVersionService) {
+        this.catalogVersionService = catalogVersionService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        String resource = request.getRequestURI()
+                + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+
+        String etag = "\"" + catalogVersionService.getResponseTag()
+                + "-" + Integer.toHexString(resource.hashCode()) + "\"";
+
+        // Browsers must revalidate, but may keep the body
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        return !webRequest.checkNotModified(etag, catalogVersionService.getResponseLastModified());
+    }
+}
@@ -1,6 +1,6 @@
 package com.celebrationpoint.backend.config;
 
-import com.celebrationpoint.backend.service.auth.CustomUserDetailsService;
+import com.celebrationpoint.backend.repository.UserRepository;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -8,7 +8,6 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -21,15 +20,15 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final CustomUserDetailsService userDetailsService;
+    private final UserRepository userRepository;
 
     // ✅ MANUAL CONSTRUCTOR (NO AUTOWIRED FIELD)
     public JwtAuthenticationFilter(
             JwtService jwtService,
-            CustomUserDetailsService userDetailsService
+            UserRepository userRepository
     ) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
     }
 
     @Override
@@ -49,27 +48,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
 
-            // 🔐 VALID EMAIL + NO EXISTING AUTH
-            if (userEmail != null &&
-                    SecurityContextHolder.getContext().getAuthentication() == null) {
-
-                // 🔍 VERIFY TOKEN EXPIRY
-                if (jwtService.isTokenValid(jwt)) {
-                    var userDetails =
-                            userDetailsService.loadUserByUsername(userEmail);
+            // 🔐 SIGNATURE + EXPIRY VERIFIED, NO EXISTING AUTH
+            AuthenticatedUser principal = jwtService.parseToken(jwt);
 
-                    String role = jwtService.extractRole(jwt);
+            if (principal != null && principal.getName() != null &&
+                    SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    List<SimpleGrantedAuthority> authorities =
-                            List.of(new SimpleGrantedAuthority(role));
+                // Tokens from before the uid claim: resolve the id once
+                if (principal.getUserId() == null) {
+                    List<String> roles = principal.getRoles();
+                    principal = userRepository.findByEmail(principal.getName())
+                            .map(user -> new AuthenticatedUser(
+                                    user.getId(),
+                                    user.getEmail(),
+                                    roles))
+                            .orElse(null);
+                }
 
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(
-                                    userDetails,
+                                    principal,
                                     null,
-                                    authorities
+                                    principal.getAuthorities()
                             );
 
                     authToken.setDetails(
@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -45,6 +46,7 @@ public class JwtService {
                 .orElse("ROLE_USER");
 
         claims.put("role", role);
+        claims.put("uid", user.getId());
 
         return Jwts.builder()
                 .setClaims(claims)
@@ -77,6 +79,25 @@ public class JwtService {
         }
     }
 
+    // 🔍 VERIFIED CLAIMS → PRINCIPAL (one parse; null if invalid or expired)
+    // Tokens issued before the uid claim existed come back with a null userId
+    public AuthenticatedUser parseToken(String token) {
+        try {
+            Claims claims = extractAllClaims(token);
+            String role = claims.get("role", String.class);
+            Number uid = claims.get("uid", Number.class);
+
+            return new AuthenticatedUser(
+                    uid != null ? uid.longValue() : null,
+                    claims.getSubject(),
+                    role != null ? List.of(role) : List.of()
+            );
+        } catch (Exception e) {
+            // 🔥 MALFORMED, BAD SIGNATURE or EXPIRED
+            return null;
+        }
+    }
+
     // 🔐 VALIDATE TOKEN
     public boolean isTokenValid(String token) {
         try {
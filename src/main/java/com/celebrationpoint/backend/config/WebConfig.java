@@ -0,0 +1,28 @@
+package com.celebrationpoint.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogConditionalGetInterceptor catalogConditionalGetInterceptor;
+
+    public WebConfig(CatalogConditionalGetInterceptor catalogConditionalGetInterceptor) {
+        this.catalogConditionalGetInterceptor = catalogConditionalGetInterceptor;
+    }
+
+    // 🏷 ETAG / 304 FOR PUBLIC CATALOG READS
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogConditionalGetInterceptor)
+                .addPathPatterns("/api/products", "/api/products/**", "/api/categories", "/api/categories/**")
+                // Versioned image URLs are immutable, no revalidation needed
+                .excludePathPatterns("/api/products/images/**")
+                // Rankings and co-purchases move with orders, not with catalog edits
+                .excludePathPatterns("/api/products/best-sellers", "/api/products/*/related")
+                // Carries its own ETag (snapshot version, shared by both encodings)
+                .excludePathPatterns("/api/products/snapshot");
+    }
+}
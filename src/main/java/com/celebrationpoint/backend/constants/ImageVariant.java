@@ -0,0 +1,65 @@
+package com.celebrationpoint.backend.constants;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resized variants generated for every uploaded product image.
+ * size = longest edge in pixels (images are never upscaled).
+ */
+public enum ImageVariant {
+
+    THUMBNAIL(150),
+    LISTING(400),
+    DETAIL(1000);
+
+    // Served by ProductImageController: <prefix><productId>/<version>/<variant>.jpg
+    public static final String URL_PREFIX = "/api/products/images/";
+
+    private final int size;
+
+    ImageVariant(int size) {
+        this.size = size;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // File / URL name, e.g. "listing"
+    public String fileName() {
+        return name().toLowerCase();
+    }
+
+    public String url(Long productId, String version) {
+        return URL_PREFIX + productId + "/" + version + "/" + fileName() + ".jpg";
+    }
+
+    /**
+     * All variant URLs for an imageUrl that points at one of our
+     * generated variants, or null for external / legacy URLs.
+     */
+    public static Map<String, String> urlsFor(String imageUrl) {
+
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+            return null;
+        }
+
+        String base = imageUrl.substring(0, imageUrl.lastIndexOf('/') + 1);
+
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (ImageVariant variant : values()) {
+            urls.put(variant.fileName(), base + variant.fileName() + ".jpg");
+        }
+        return urls;
+    }
+
+    public static ImageVariant fromFileName(String value) {
+        for (ImageVariant variant : values()) {
+            if (variant.fileName().equals(value)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+}
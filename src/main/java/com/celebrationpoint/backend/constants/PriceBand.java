@@ -0,0 +1,57 @@
+package com.celebrationpoint.backend.constants;
+
+import java.math.BigDecimal;
+
+/**
+ * Price bands offered as a listing facet.
+ * Lower bound inclusive, upper bound exclusive (null = open ended).
+ */
+public enum PriceBand {
+
+    UNDER_500("Under ₹500", null, new BigDecimal("500")),
+    FROM_500_TO_999("₹500 - ₹999", new BigDecimal("500"), new BigDecimal("1000")),
+    FROM_1000_TO_2499("₹1000 - ₹2499", new BigDecimal("1000"), new BigDecimal("2500")),
+    FROM_2500_TO_4999("₹2500 - ₹4999", new BigDecimal("2500"), new BigDecimal("5000")),
+    ABOVE_5000("₹5000 & above", new BigDecimal("5000"), null);
+
+    private final String label;
+    private final BigDecimal min;
+    private final BigDecimal max;
+
+    PriceBand(String label, BigDecimal min, BigDecimal max) {
+        this.label = label;
+        this.min = min;
+        this.max = max;
+    }
+
+    public static PriceBand of(BigDecimal price) {
+
+        for (PriceBand band : values()) {
+            if ((band.min == null || price.compareTo(band.min) >= 0)
+                    && (band.max == null || price.compareTo(band.max) < 0)) {
+                return band;
+            }
+        }
+        return ABOVE_5000;
+    }
+
+    public static PriceBand from(String value) {
+        try {
+            return PriceBand.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown price band: " + value);
+        }
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    public BigDecimal getMax() {
+        return max;
+    }
+}
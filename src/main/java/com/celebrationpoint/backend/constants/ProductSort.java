@@ -0,0 +1,26 @@
+package com.celebrationpoint.backend.constants;
+
+/**
+ * Sort orders supported by the paginated product listing.
+ * Every order ends with the product id so the keyset is unique.
+ */
+public enum ProductSort {
+
+    NEWEST,       // id DESC
+    PRICE_ASC,    // price ASC, id ASC
+    PRICE_DESC,   // price DESC, id DESC
+    NAME_ASC;     // name ASC, id ASC
+
+    public static ProductSort from(String value) {
+
+        if (value == null || value.isBlank()) {
+            return NEWEST;
+        }
+
+        try {
+            return ProductSort.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + value);
+        }
+    }
+}
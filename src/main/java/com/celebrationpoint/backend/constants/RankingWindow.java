@@ -0,0 +1,35 @@
+package com.celebrationpoint.backend.constants;
+
+/**
+ * Time windows for best-seller rankings (units sold within the window).
+ */
+public enum RankingWindow {
+
+    ALL_TIME(0),
+    WEEK(168),
+    DAY(24);
+
+    // Sliding window length in hours (0 = unbounded)
+    private final int hours;
+
+    RankingWindow(int hours) {
+        this.hours = hours;
+    }
+
+    public int getHours() {
+        return hours;
+    }
+
+    public static RankingWindow from(String value) {
+
+        if (value == null || value.isBlank()) {
+            return ALL_TIME;
+        }
+
+        try {
+            return RankingWindow.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown ranking window: " + value);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.celebrationpoint.backend.controller.admin;
+
+import com.celebrationpoint.backend.service.cart.AbandonedCartSweeper;
+import com.celebrationpoint.backend.service.cart.CartPricingService;
+import com.celebrationpoint.backend.service.cart.CartWriteBehindStore;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/carts")
+@CrossOrigin
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCartController {
+
+    private final CartWriteBehindStore cartWriteBehindStore;
+    private final CartPricingService cartPricingService;
+    private final AbandonedCartSweeper abandonedCartSweeper;
+
+    public AdminCartController(
+            CartWriteBehindStore cartWriteBehindStore,
+            CartPricingService cartPricingService,
+            AbandonedCartSweeper abandonedCartSweeper
+    ) {
+        this.cartWriteBehindStore = cartWriteBehindStore;
+        this.cartPricingService = cartPricingService;
+        this.abandonedCartSweeper = abandonedCartSweeper;
+    }
+
+    // =================================================
+    // 📊 WRITE-BEHIND QUEUE DEPTH / FLUSH LAG
+    // =================================================
+    @GetMapping("/write-behind-stats")
+    public ResponseEntity<?> getWriteBehindStats() {
+        return ResponseEntity.ok(cartWriteBehindStore.getStats());
+    }
+
+    // =================================================
+    // 📊 CART QUOTE CACHE HIT / MISS
+    // =================================================
+    @GetMapping("/quote-cache-stats")
+    public ResponseEntity<?> getQuoteCacheStats() {
+        return ResponseEntity.ok(cartPricingService.getStats());
+    }
+
+    // =================================================
+    // 🧹 ABANDONED CART SWEEP (RUN NOW / LAST RUN)
+    // =================================================
+    @PostMapping("/sweep")
+    public ResponseEntity<?> sweep() {
+        return ResponseEntity.ok(abandonedCartSweeper.sweep());
+    }
+
+    @GetMapping("/sweep")
+    public ResponseEntity<?> getLastSweep() {
+        return ResponseEntity.ok(abandonedCartSweeper.getLastRun());
+    }
+}
@@ -0,0 +1,28 @@
+package com.celebrationpoint.backend.controller.admin;
+
+import com.celebrationpoint.backend.service.catalog.CatalogCacheService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+@CrossOrigin
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCatalogController {
+
+    private final CatalogCacheService catalogCacheService;
+
+    public AdminCatalogController(CatalogCacheService catalogCacheService) {
+        this.catalogCacheService = catalogCacheService;
+    }
+
+    // =================================================
+    // 📊 CATALOG CACHE HIT / MISS / EVICTION COUNTERS
+    // =================================================
+    @GetMapping("/cache-stats")
+    public ResponseEntity<?> getCacheStats() {
+        return ResponseEntity.ok(catalogCacheService.getStats());
+    }
+}
@@ -3,6 +3,7 @@ package com.celebrationpoint.backend.controller.admin;
 import com.celebrationpoint.backend.entity.Category;
 import com.celebrationpoint.backend.exception.ResourceNotFoundException;
 import com.celebrationpoint.backend.repository.CategoryRepository;
+import com.celebrationpoint.backend.service.product.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +21,9 @@ public class AdminCategoryController {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductService productService;
+
     // =================================================
     // 📄 GET ALL CATEGORIES (ADMIN)
     // =================================================
@@ -53,6 +57,7 @@ public class AdminCategoryController {
         category.setActive(true);
 
         categoryRepository.save(category);
+        productService.onCategoryChanged(category.getId());
 
         return ResponseEntity.ok(
                 Map.of("message", "Category added successfully")
@@ -85,6 +90,7 @@ public class AdminCategoryController {
         }
 
         categoryRepository.save(category);
+        productService.onCategoryChanged(id);
 
         return ResponseEntity.ok(
                 Map.of("message", "Category updated successfully")
@@ -107,6 +113,7 @@ public class AdminCategoryController {
 
         category.setActive(active);
         categoryRepository.save(category);
+        productService.onCategoryChanged(id);
 
         return ResponseEntity.ok(
                 Map.of(
@@ -128,6 +135,7 @@ public class AdminCategoryController {
                 );
 
         categoryRepository.delete(category);
+        productService.onCategoryChanged(id);
 
         return ResponseEntity.ok(
                 Map.of("message", "Category deleted successfully")
@@ -0,0 +1,56 @@
+package com.celebrationpoint.backend.controller.admin;
+
+import com.celebrationpoint.backend.service.inventory.FlashSaleService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/flash-sales")
+@CrossOrigin
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminFlashSaleController {
+
+    private final FlashSaleService flashSaleService;
+
+    public AdminFlashSaleController(FlashSaleService flashSaleService) {
+        this.flashSaleService = flashSaleService;
+    }
+
+    // =================================================
+    // 📋 RECENT FLASH SALES (LIVE STOCK FOR RUNNING ONES)
+    // =================================================
+    @GetMapping
+    public ResponseEntity<?> getRecentSales() {
+        return ResponseEntity.ok(flashSaleService.getRecentSales());
+    }
+
+    // =================================================
+    // ⚡ START: STOCK MOVES TO IN-MEMORY COUNTERS
+    // =================================================
+    @PostMapping("/{productId}/start")
+    public ResponseEntity<?> start(@PathVariable Long productId) {
+        try {
+            return ResponseEntity.ok(flashSaleService.start(productId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // =================================================
+    // 🛑 END: REMAINING STOCK GOES BACK TO THE PRODUCT
+    // =================================================
+    @PostMapping("/{productId}/end")
+    public ResponseEntity<?> end(@PathVariable Long productId) {
+        try {
+            return ResponseEntity.ok(flashSaleService.end(productId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.celebrationpoint.backend.controller.admin;
+
+import com.celebrationpoint.backend.entity.StockMovementType;
+import com.celebrationpoint.backend.service.inventory.StockLedgerService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/inventory")
+@CrossOrigin
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminInventoryController {
+
+    private final StockLedgerService stockLedgerService;
+
+    public AdminInventoryController(StockLedgerService stockLedgerService) {
+        this.stockLedgerService = stockLedgerService;
+    }
+
+    // =================================================
+    // ➕ RECORD A MOVEMENT (RECEIPT / ADJUSTMENT)
+    // =================================================
+    // { "delta": 25, "type": "RECEIPT", "note": "PO 1042" }
+    @PostMapping("/products/{productId}/movements")
+    public ResponseEntity<?> recordMovement(
+            @PathVariable Long productId,
+            @RequestBody Map<String, Object> request,
+            Authentication authentication
+    ) {
+        try {
+            int delta = ((Number) request.get("delta")).intValue();
+            StockMovementType type = StockMovementType.valueOf(
+                    String.valueOf(request.getOrDefault("type", "ADJUSTMENT")));
+            String note = (String) request.get("note");
+
+            return ResponseEntity.ok(
+                    stockLedgerService.adjust(productId, delta, type, note, authentication.getName()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    // =================================================
+    // 📒 LEDGER OF ONE PRODUCT (LATEST MOVEMENTS FIRST)
+    // =================================================
+    @GetMapping("/products/{productId}/ledger")
+    public ResponseEntity<?> getLedger(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return ResponseEntity.ok(stockLedgerService.getLedger(productId, limit));
+    }
+
+    // =================================================
+    // 🗜 COMPACT NOW (ALSO RUNS NIGHTLY)
+    // =================================================
+    @PostMapping("/ledger/compact")
+    public ResponseEntity<?> compact() {
+        stockLedgerService.compact();
+        return ResponseEntity.ok(Map.of("message", "Stock ledger compacted"));
+    }
+
+    // =================================================
+    // 🔁 REBUILD STOCK FROM THE LEDGER
+    // =================================================
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<?> rebuild() {
+        return ResponseEntity.ok(Map.of("corrected", stockLedgerService.rebuild()));
+    }
+}
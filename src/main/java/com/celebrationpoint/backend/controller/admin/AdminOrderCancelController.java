@@ -8,6 +8,7 @@ import com.celebrationpoint.backend.exception.ResourceNotFoundException;
 import com.celebrationpoint.backend.repository.OrderRepository;
 import com.celebrationpoint.backend.repository.PaymentRepository;
 import com.celebrationpoint.backend.service.audit.AuditLogService;
+import com.celebrationpoint.backend.service.inventory.StockReservationService;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -25,15 +26,18 @@ public class AdminOrderCancelController {
     private final OrderRepository orderRepository;
     private final PaymentRepository paymentRepository;
     private final AuditLogService auditLogService;
+    private final StockReservationService stockReservationService;
 
     public AdminOrderCancelController(
             OrderRepository orderRepository,
             PaymentRepository paymentRepository,
-            AuditLogService auditLogService
+            AuditLogService auditLogService,
+            StockReservationService stockReservationService
     ) {
         this.orderRepository = orderRepository;
         this.paymentRepository = paymentRepository;
         this.auditLogService = auditLogService;
+        this.stockReservationService = stockReservationService;
     }
 
     // ===============================
@@ -65,10 +69,17 @@ public class AdminOrderCancelController {
             );
         }
 
+        boolean restock = order.getStatus().isBeforeShipment();
+
         // 🔄 UPDATE ORDER STATUS
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
 
+        // 📦 GIVE THE RESERVED STOCK BACK (not once it has shipped)
+        if (restock) {
+            stockReservationService.release(order.getId());
+        }
+
         // 💵 HANDLE PAYMENT REFUND
         paymentRepository.findByOrder(order).ifPresent(payment -> {
 
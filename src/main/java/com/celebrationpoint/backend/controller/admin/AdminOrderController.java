@@ -8,6 +8,7 @@ import com.celebrationpoint.backend.exception.ResourceNotFoundException;
 import com.celebrationpoint.backend.repository.OrderRepository;
 import com.celebrationpoint.backend.repository.OrderItemRepository;
 import com.celebrationpoint.backend.repository.PaymentRepository;
+import com.celebrationpoint.backend.service.inventory.StockReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +32,9 @@ public class AdminOrderController {
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     // ==========================================
     // 📦 GET ALL ORDERS (ADMIN)
     // ==========================================
@@ -86,9 +90,16 @@ public class AdminOrderController {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
+        OrderStatus previous = order.getStatus();
+
         order.setStatus(newStatus);
         orderRepository.save(order);
 
+        // Shipped units are gone; only a pre-shipment cancel restocks
+        if (newStatus == OrderStatus.CANCELLED && previous.isBeforeShipment()) {
+            stockReservationService.release(order.getId());
+        }
+
         // ===============================
         // 💵 COD → MARK PAID ON DELIVERY
         // ===============================
@@ -1,13 +1,22 @@
 package com.celebrationpoint.backend.controller.admin;
 
+import com.celebrationpoint.backend.dto.ProductBulkUpdateItem;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
 import com.celebrationpoint.backend.entity.Category;
 import com.celebrationpoint.backend.entity.Product;
 import com.celebrationpoint.backend.repository.CategoryRepository;
 import com.celebrationpoint.backend.repository.ProductRepository;
+import com.celebrationpoint.backend.service.image.ProductImageService;
+import com.celebrationpoint.backend.service.inventory.StockLedgerService;
+import com.celebrationpoint.backend.service.product.ProductBulkUpdateService;
+import com.celebrationpoint.backend.service.product.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 import java.util.Map;
@@ -24,13 +33,25 @@ public class AdminProductController {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductBulkUpdateService productBulkUpdateService;
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
     // ===============================
     // ✅ GET ALL PRODUCTS (ADMIN)
     // ===============================
     @GetMapping
     public ResponseEntity<?> getAllProducts() {
         try {
-            List<Product> products = productRepository.findAll();
+            List<ProductDetailResponse> products = productRepository.findAllDetails();
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -81,7 +102,7 @@ public class AdminProductController {
             product.setImageUrl(imageUrl != null ? imageUrl.trim() : "");
             product.setActive(true);
 
-            Product savedProduct = productRepository.save(product);
+            ProductDetailResponse savedProduct = productService.saveProduct(product, null);
 
             return ResponseEntity.ok(Map.of(
                     "message", "Product created successfully",
@@ -99,11 +120,14 @@ public class AdminProductController {
     @PutMapping("/{id}")
     public ResponseEntity<?> updateProduct(
             @PathVariable Long id,
-            @RequestBody Map<String, Object> request) {
+            @RequestBody Map<String, Object> request,
+            Authentication authentication) {
         try {
             Product product = productRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Product not found"));
 
+            Long previousCategoryId = product.getCategory().getId();
+
             // Update fields
             if (request.containsKey("name")) {
                 String name = (String) request.get("name");
@@ -124,10 +148,15 @@ public class AdminProductController {
                 }
             }
 
+            // Stock goes through the ledger (locked row, recorded as an ADJUSTMENT)
             if (request.containsKey("stockQuantity")) {
                 Integer stockQuantity = ((Number) request.get("stockQuantity")).intValue();
                 if (stockQuantity >= 0) {
-                    product.setStockQuantity(stockQuantity);
+                    ProductDetailResponse adjusted = stockLedgerService.setStock(
+                            id, stockQuantity, "Product edit", authentication.getName());
+                    if (adjusted != null) {
+                        product.setStockQuantity(adjusted.getStockQuantity());
+                    }
                 }
             }
 
@@ -148,7 +177,7 @@ public class AdminProductController {
                 product.setActive(active != null ? active : true);
             }
 
-            Product updatedProduct = productRepository.save(product);
+            ProductDetailResponse updatedProduct = productService.saveProduct(product, previousCategoryId);
 
             return ResponseEntity.ok(Map.of(
                     "message", "Product updated successfully",
@@ -160,6 +189,50 @@ public class AdminProductController {
         }
     }
 
+    // ===============================
+    // ✅ BULK PRICE / STOCK UPDATE
+    // ===============================
+    // [{ "productId": 1, "price": 249.00, "stockQuantity": 40 }, ...]
+    @PatchMapping("/bulk")
+    public ResponseEntity<?> bulkUpdate(@RequestBody List<ProductBulkUpdateItem> items) {
+        try {
+            return ResponseEntity.ok(productBulkUpdateService.apply(items));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // ===============================
+    // ✅ UPLOAD PRODUCT IMAGE (ASYNC RESIZE)
+    // ===============================
+    // multipart "file"; variants are generated in the background → poll /image/status
+    @PostMapping("/{id}/image")
+    public ResponseEntity<?> uploadImage(
+            @PathVariable Long id,
+            @RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(productImageService.accept(id, file));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/image/status")
+    public ResponseEntity<?> getImageStatus(@PathVariable Long id) {
+        Map<String, Object> status = productImageService.getStatus(id);
+        if (status == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "No image upload for this product"));
+        }
+        return ResponseEntity.ok(status);
+    }
+
     // ===============================
     // ✅ DELETE PRODUCT
     // ===============================
@@ -169,7 +242,7 @@ public class AdminProductController {
             Product product = productRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Product not found"));
 
-            productRepository.delete(product);
+            productService.deleteProduct(product);
 
             return ResponseEntity.ok(Map.of("message", "Product deleted successfully"));
         } catch (Exception e) {
@@ -190,7 +263,7 @@ public class AdminProductController {
                     .orElseThrow(() -> new RuntimeException("Product not found"));
 
             product.setActive(active);
-            productRepository.save(product);
+            productService.saveProduct(product, product.getCategory().getId());
 
             return ResponseEntity.ok(Map.of(
                     "message", active ? "Product activated" : "Product deactivated"
@@ -207,7 +280,7 @@ public class AdminProductController {
     @GetMapping("/{id}")
     public ResponseEntity<?> getProductById(@PathVariable Long id) {
         try {
-            Product product = productRepository.findById(id)
+            ProductDetailResponse product = productRepository.findDetailById(id)
                     .orElseThrow(() -> new RuntimeException("Product not found"));
 
             return ResponseEntity.ok(product);
@@ -0,0 +1,78 @@
+package com.celebrationpoint.backend.controller.admin;
+
+import com.celebrationpoint.backend.service.product.ProductImportJob;
+import com.celebrationpoint.backend.service.product.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/products/import")
+@CrossOrigin
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminProductImportController {
+
+    private final ProductImportService productImportService;
+
+    public AdminProductImportController(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    // ===============================
+    // 🚚 BULK IMPORT (CSV / NDJSON REQUEST BODY, STREAMED)
+    // ===============================
+    // curl -H "Content-Type: text/csv" --data-binary @products.csv .../api/admin/products/import
+    // ?format=csv|ndjson overrides the Content-Type guess
+    @PostMapping
+    public ResponseEntity<?> importProducts(
+            HttpServletRequest request,
+            @RequestParam(required = false) String format
+    ) {
+        try {
+            ProductImportJob job = productImportService.importProducts(
+                    request.getInputStream(),
+                    resolveFormat(format, request.getContentType()),
+                    request.getContentLengthLong()
+            );
+            return ResponseEntity.ok(job);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Could not read upload: " + e.getMessage()));
+        }
+    }
+
+    // ===============================
+    // 📊 PROGRESS / REPORT
+    // ===============================
+    @GetMapping
+    public ResponseEntity<?> getRecentJobs() {
+        return ResponseEntity.ok(productImportService.getRecentJobs());
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+
+        ProductImportJob job = productImportService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "Import job not found"));
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    private String resolveFormat(String format, String contentType) {
+
+        if (format != null && !format.isBlank()) {
+            String value = format.trim().toLowerCase();
+            if (!value.equals("csv") && !value.equals("ndjson")) {
+                throw new IllegalArgumentException("Unknown import format: " + format);
+            }
+            return value;
+        }
+
+        return contentType != null && contentType.contains("json") ? "ndjson" : "csv";
+    }
+}
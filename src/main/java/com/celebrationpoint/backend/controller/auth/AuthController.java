@@ -40,7 +40,8 @@ public class AuthController {
             authService.register(
                     request.getFullName(),
                     request.getEmail(),
-                    request.getPassword()
+                    request.getPassword(),
+                    request.getGuestCart()
             );
 
             return ResponseEntity.ok(
@@ -60,7 +61,7 @@ public class AuthController {
             String email = request.get("email");
             String password = request.get("password");
 
-            String token = authService.login(email, password);
+            String token = authService.login(email, password, request.get("guestCart"));
             
             // Get user to extract role
             User user = userRepository.findByEmail(email)
@@ -1,6 +1,9 @@
 package com.celebrationpoint.backend.controller.cart;
 
+import com.celebrationpoint.backend.config.AuthenticatedUser;
 import com.celebrationpoint.backend.dto.AddToCartRequest;
+import com.celebrationpoint.backend.dto.CartOperation;
+import com.celebrationpoint.backend.service.cart.CartPricingService;
 import com.celebrationpoint.backend.service.cart.CartService;
 
 import org.springframework.http.ResponseEntity;
@@ -8,6 +11,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,9 +21,11 @@ import java.util.Map;
 public class CartController {
 
     private final CartService cartService;
+    private final CartPricingService cartPricingService;
 
-    public CartController(CartService cartService) {
+    public CartController(CartService cartService, CartPricingService cartPricingService) {
         this.cartService = cartService;
+        this.cartPricingService = cartPricingService;
     }
 
     // ===============================
@@ -30,10 +36,10 @@ public class CartController {
             Authentication authentication,
             @RequestBody AddToCartRequest request
     ) {
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.userId(authentication);
 
         cartService.addToCart(
-                email,
+                userId,
                 request.getProductId(),
                 request.getQuantity()
         );
@@ -49,10 +55,38 @@ public class CartController {
     @GetMapping
     public ResponseEntity<?> viewCart(Authentication authentication) {
 
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.userId(authentication);
 
         return ResponseEntity.ok(
-                cartService.getCartItems(email)
+                cartService.getCartItems(userId)
+        );
+    }
+
+    // ===============================
+    // 💰 QUOTE (CURRENT PRICES, DRIFT + UNAVAILABLE ITEMS FLAGGED)
+    // ===============================
+    @GetMapping("/quote")
+    public ResponseEntity<?> quote(Authentication authentication) {
+
+        Long userId = AuthenticatedUser.userId(authentication);
+
+        return ResponseEntity.ok(
+                cartPricingService.quote(userId)
+        );
+    }
+
+    // ===============================
+    // 📦 BATCH UPDATE (ADD / SET / REMOVE, RETURNS NEW CART)
+    // ===============================
+    @PatchMapping
+    public ResponseEntity<?> applyOperations(
+            Authentication authentication,
+            @RequestBody List<CartOperation> operations
+    ) {
+        Long userId = AuthenticatedUser.userId(authentication);
+
+        return ResponseEntity.ok(
+                cartService.applyOperations(userId, operations)
         );
     }
 
@@ -92,9 +126,9 @@ public class CartController {
     @DeleteMapping("/clear")
     public ResponseEntity<?> clearCart(Authentication authentication) {
 
-        String email = authentication.getName();
+        Long userId = AuthenticatedUser.userId(authentication);
 
-        cartService.clearCart(email);
+        cartService.clearCart(userId);
 
         return ResponseEntity.ok(
                 Map.of("message", "Cart cleared successfully")
@@ -0,0 +1,48 @@
+package com.celebrationpoint.backend.controller.cart;
+
+import com.celebrationpoint.backend.dto.CartOperation;
+import com.celebrationpoint.backend.service.cart.GuestCartService;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Cart for visitors who are not signed in. The whole cart travels in the
+ * X-Guest-Cart header; every response carries the new token to keep.
+ */
+@RestController
+@RequestMapping("/api/guest-cart")
+@CrossOrigin
+public class GuestCartController {
+
+    public static final String TOKEN_HEADER = "X-Guest-Cart";
+
+    private final GuestCartService guestCartService;
+
+    public GuestCartController(GuestCartService guestCartService) {
+        this.guestCartService = guestCartService;
+    }
+
+    // ===============================
+    // 👀 VIEW GUEST CART
+    // ===============================
+    @GetMapping
+    public ResponseEntity<?> viewCart(
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token
+    ) {
+        return ResponseEntity.ok(guestCartService.view(token));
+    }
+
+    // ===============================
+    // 📦 CHANGE GUEST CART (ADD / SET / REMOVE)
+    // ===============================
+    @PatchMapping
+    public ResponseEntity<?> applyOperations(
+            @RequestHeader(value = TOKEN_HEADER, required = false) String token,
+            @RequestBody List<CartOperation> operations
+    ) {
+        return ResponseEntity.ok(guestCartService.applyOperations(token, operations));
+    }
+}
@@ -1,7 +1,8 @@
 package com.celebrationpoint.backend.controller.category;
 
+import com.celebrationpoint.backend.dto.CategorySummaryResponse;
 import com.celebrationpoint.backend.entity.Category;
-import com.celebrationpoint.backend.repository.CategoryRepository;
+import com.celebrationpoint.backend.service.product.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -14,16 +15,17 @@ import java.util.List;
 public class CategoryController {
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private ProductService productService;
 
     // ✅ GET ALL ACTIVE CATEGORIES
     @GetMapping
     public ResponseEntity<List<Category>> getAllCategories() {
-        return ResponseEntity.ok(
-                categoryRepository.findAll()
-                        .stream()
-                        .filter(Category::isActive)
-                        .toList()
-        );
+        return ResponseEntity.ok(productService.getActiveCategories());
+    }
+
+    // ✅ ACTIVE CATEGORIES WITH ACTIVE PRODUCT COUNTS
+    @GetMapping("/summary")
+    public ResponseEntity<List<CategorySummaryResponse>> getCategorySummaries() {
+        return ResponseEntity.ok(productService.getCategorySummaries());
     }
 }
@@ -1,7 +1,7 @@
 package com.celebrationpoint.backend.controller.order;
 
+import com.celebrationpoint.backend.config.AuthenticatedUser;
 import com.celebrationpoint.backend.entity.Order;
-import com.celebrationpoint.backend.repository.UserRepository;
 import com.celebrationpoint.backend.service.order.OrderService;
 import com.celebrationpoint.backend.service.payment.PaymentService;
 
@@ -25,9 +25,6 @@ public class CheckoutController {
         @Autowired
         private OrderService orderService;
 
-        @Autowired
-        private UserRepository userRepository;
-
         // ✅ PLACE ORDER (FROM CART)
        
         @PostMapping
@@ -41,6 +38,7 @@ public class CheckoutController {
 
                 Order order = orderService.placeOrder(
                                 userId,
+                                authentication.getName(),
                                 request.get("fullName"),
                                 request.get("phone"),
                                 request.get("addressLine"),
@@ -54,7 +52,7 @@ public class CheckoutController {
                 // ===============================
                 if ("COD".equalsIgnoreCase(paymentMethod)) {
 
-                        paymentService.createCodPayment(order);
+                        paymentService.createCodPayment(order, authentication.getName());
 
                         return ResponseEntity.ok(
                                         Map.of(
@@ -80,11 +78,7 @@ public class CheckoutController {
         // ===============================
         private Long getUserId(Authentication authentication) {
 
-                String email = authentication.getName();
-
-                return userRepository.findByEmail(email)
-                                .orElseThrow(() -> new RuntimeException("User not found"))
-                                .getId();
+                        return AuthenticatedUser.userId(authentication);
         }
 
 }
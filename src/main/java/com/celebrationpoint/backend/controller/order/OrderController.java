@@ -1,18 +1,15 @@
 package com.celebrationpoint.backend.controller.order;
 
+import com.celebrationpoint.backend.config.AuthenticatedUser;
 import com.celebrationpoint.backend.entity.Order;
-import com.celebrationpoint.backend.entity.User;
 import com.celebrationpoint.backend.repository.OrderItemRepository;
-import com.celebrationpoint.backend.repository.UserRepository;
 import com.celebrationpoint.backend.service.order.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 
@@ -25,9 +22,6 @@ public class OrderController {
         @Autowired
         private OrderService orderService;
 
-        @Autowired
-        private UserRepository userRepository;
-
         @Autowired
         private OrderItemRepository orderItemRepository;
 
@@ -36,13 +30,8 @@ public class OrderController {
         // ===============================
         private Long getUserId(Authentication authentication) {
 
-                String email = authentication.getName();
-
-                return userRepository.findByEmail(email)
-                                .map(User::getId)
-                                .orElseThrow(() -> new ResponseStatusException(
-                                                HttpStatus.UNAUTHORIZED,
-                                                "Invalid authentication token"));
+                // Carried by the JWT principal, no user lookup
+                return AuthenticatedUser.userId(authentication);
         }
 
         // ===============================
@@ -1,6 +1,6 @@
 package com.celebrationpoint.backend.controller.order;
 
-import com.celebrationpoint.backend.repository.UserRepository;
+import com.celebrationpoint.backend.config.AuthenticatedUser;
 import com.celebrationpoint.backend.service.order.OrderCancelService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -19,9 +19,6 @@ public class UserOrderCancelController {
     @Autowired
     private OrderCancelService orderCancelService;
 
-    @Autowired
-    private UserRepository userRepository;
-
     // ===============================
     // ❌ USER CANCEL ORDER
     // ===============================
@@ -45,10 +42,6 @@ public class UserOrderCancelController {
     // ===============================
     private Long getUserId(Authentication authentication) {
 
-        String email = authentication.getName();
-
-        return userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"))
-                .getId();
+        return AuthenticatedUser.userId(authentication);
     }
 }
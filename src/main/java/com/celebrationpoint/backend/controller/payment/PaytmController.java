@@ -6,10 +6,9 @@ import com.celebrationpoint.backend.dto.PaytmInitiateRequest;
 import com.celebrationpoint.backend.dto.PaytmInitiateResponse;
 import com.celebrationpoint.backend.entity.Order;
 import com.celebrationpoint.backend.entity.Payment;
-import com.celebrationpoint.backend.entity.User;
 import com.celebrationpoint.backend.repository.OrderRepository;
 import com.celebrationpoint.backend.repository.PaymentRepository;
-import com.celebrationpoint.backend.repository.UserRepository;
+import com.celebrationpoint.backend.service.inventory.StockReservationService;
 import com.celebrationpoint.backend.service.payment.PaytmService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -45,15 +44,15 @@ public class PaytmController {
     @Autowired
     private PaymentRepository paymentRepository;
 
-    @Autowired
-    private UserRepository userRepository;
-
     @Autowired
     private PaytmConfig paytmConfig;
 
     @Autowired
     private FrontendConfig frontendConfig;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     // =================================================
     // ðŸ'�ðŸ» INITIATE PAYTM PAYMENT
     // =================================================
@@ -94,10 +93,6 @@ public class PaytmController {
             Order order = orderRepository.findById(orderId)
                     .orElseThrow(() -> new RuntimeException("Order not found"));
 
-            // Find user for phone
-            User user = userRepository.findByEmail(userEmail)
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
             // Create payment record
             Payment payment = new Payment();
             payment.setOrder(order);
@@ -114,7 +109,7 @@ public class PaytmController {
                     orderId,
                     order.getTotalAmount().toPlainString(),
                     userEmail,
-                    user.getPhoneNumber() != null ? user.getPhoneNumber() : "9999999999"
+                    order.getPhone() != null ? order.getPhone() : "9999999999"
             );
 
             // Build response
@@ -214,6 +209,8 @@ public class PaytmController {
                 order.setStatus(com.celebrationpoint.backend.entity.OrderStatus.PAID);
                 orderRepository.save(order);
 
+                stockReservationService.commit(order.getId());
+
                 // Redirect to orders page using centralized frontend URL
                 response.sendRedirect(frontendConfig.getCallbackUrl("/paytm-callback?status=SUCCESS&orderId=" + orderId));
                 return ResponseEntity.ok(Map.of("status", "redirected"));
@@ -223,6 +220,8 @@ public class PaytmController {
                 payment.setTransactionId(txnId);
                 paymentRepository.save(payment);
 
+                stockReservationService.release(order.getId());
+
                 response.sendRedirect(frontendConfig.getCallbackUrl("/paytm-callback?status=FAILED&orderId=" + orderId));
                 return ResponseEntity.ok(Map.of("status", "redirected"));
             }
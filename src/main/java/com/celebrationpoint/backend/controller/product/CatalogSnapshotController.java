@@ -0,0 +1,81 @@
+package com.celebrationpoint.backend.controller.product;
+
+import com.celebrationpoint.backend.service.catalog.CatalogSnapshotService;
+import com.celebrationpoint.backend.service.storage.FileStreamingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/products/snapshot")
+@CrossOrigin
+public class CatalogSnapshotController {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private FileStreamingService fileStreamingService;
+
+    // ✅ WHOLE ACTIVE CATALOG AS ONE STATIC FILE (GZIP WHEN ACCEPTED)
+    // { version, generatedAt, categories: [...], products: [...] }
+    @GetMapping
+    public void getSnapshot(HttpServletRequest request, HttpServletResponse response) throws IOException {
+
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.getCurrent();
+        if (snapshot == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "5");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Catalog snapshot is not ready yet");
+            return;
+        }
+
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        // Same tag for both encodings (weak: the bytes differ)
+        String etag = "W/\"snapshot-" + snapshot.tag() + "\"";
+        if (new ServletWebRequest(request, response).checkNotModified(etag, snapshot.lastModified())) {
+            return;
+        }
+
+        boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+        fileStreamingService.send(
+                gzip ? snapshot.gzip() : snapshot.json(),
+                MediaType.APPLICATION_JSON_VALUE,
+                gzip ? "gzip" : null,
+                "no-cache",
+                request,
+                response
+        );
+    }
+
+    // "gzip" listed without q=0
+    private boolean acceptsGzip(String acceptEncoding) {
+
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (!tokens[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim().replace(" ", "");
+                if (param.equals("q=0") || param.matches("q=0\\.0*")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
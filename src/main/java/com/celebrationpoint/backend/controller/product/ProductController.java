@@ -1,6 +1,13 @@
 package com.celebrationpoint.backend.controller.product;
 
-import com.celebrationpoint.backend.entity.Product;
+import com.celebrationpoint.backend.constants.ProductSort;
+import com.celebrationpoint.backend.constants.RankingWindow;
+import com.celebrationpoint.backend.dto.CursorPageResponse;
+import com.celebrationpoint.backend.dto.FacetCountsResponse;
+import com.celebrationpoint.backend.dto.ProductBatchResponse;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.dto.ProductSummaryResponse;
+import com.celebrationpoint.backend.service.facet.ProductFilter;
 import com.celebrationpoint.backend.service.product.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -16,23 +23,108 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
-    // ✅ GET ALL ACTIVE PRODUCTS
+    // ✅ GET ACTIVE PRODUCTS (CURSOR PAGINATED, FACET FILTERED)
+    // ?sort=NEWEST|PRICE_ASC|PRICE_DESC|NAME_ASC&limit=24&cursor=<nextCursor>
+    // &category=1,4&price=UNDER_500,FROM_500_TO_999&inStock=true
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllActiveProducts());
+    public ResponseEntity<CursorPageResponse<ProductSummaryResponse>> getAllProducts(
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "24") int limit,
+            @RequestParam(required = false) List<Long> category,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) Boolean inStock
+    ) {
+        return ResponseEntity.ok(
+                productService.getActiveProducts(
+                        ProductFilter.of(category, price, inStock),
+                        ProductSort.from(sort),
+                        cursor,
+                        limit
+                )
+        );
+    }
+
+    // ✅ FACET COUNTS FOR THE CURRENT FILTER (same params as the listing)
+    @GetMapping("/facets")
+    public ResponseEntity<FacetCountsResponse> getFacets(
+            @RequestParam(required = false) List<Long> category,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) Boolean inStock
+    ) {
+        return ResponseEntity.ok(
+                productService.getFacetCounts(ProductFilter.of(category, price, inStock))
+        );
+    }
+
+    // ✅ BEST SELLERS ("Best sellers" = ALL_TIME, "Trending this week" = WEEK)
+    // ?window=ALL_TIME|WEEK|DAY&category=3&limit=10
+    @GetMapping("/best-sellers")
+    public ResponseEntity<List<ProductSummaryResponse>> getBestSellers(
+            @RequestParam(required = false) String window,
+            @RequestParam(required = false) Long category,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(
+                productService.getBestSellers(RankingWindow.from(window), category, limit)
+        );
+    }
+
+    // ✅ CUSTOMERS ALSO BOUGHT
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<ProductSummaryResponse>> getRelatedProducts(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(productService.getRelatedProducts(id, limit));
+    }
+
+    // ✅ SEARCH PRODUCTS (RANKED, PREFIX + TYPO TOLERANT)
+    // ?q=birthday ballo&limit=20
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSummaryResponse>> searchProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(productService.searchProducts(q, limit));
+    }
+
+    // ✅ AUTOCOMPLETE SUGGESTIONS
+    @GetMapping("/search/suggest")
+    public ResponseEntity<List<String>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(productService.suggestSearchTerms(q, limit));
+    }
+
+    // ✅ GET SEVERAL PRODUCTS BY ID (CART / WISHLIST / ORDER HYDRATION)
+    // ?ids=12,7,93 → products in that order + missingIds
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchResponse> getProductsByIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
     }
 
     // ✅ GET PRODUCT BY ID
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDetailResponse> getProductById(@PathVariable Long id) {
         return ResponseEntity.ok(productService.getProductById(id));
     }
 
-    // ✅ GET PRODUCTS BY CATEGORY
+    // ✅ GET PRODUCTS BY CATEGORY (CURSOR PAGINATED)
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Product>> getProductsByCategory(
-            @PathVariable Long categoryId
+    public ResponseEntity<CursorPageResponse<ProductSummaryResponse>> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "24") int limit,
+            @RequestParam(required = false) List<String> price,
+            @RequestParam(required = false) Boolean inStock
     ) {
-        return ResponseEntity.ok(productService.getProductsByCategory(categoryId));
+        ProductFilter filter = ProductFilter.of(null, price, inStock).withCategory(categoryId);
+
+        return ResponseEntity.ok(
+                productService.getActiveProducts(filter, ProductSort.from(sort), cursor, limit)
+        );
     }
 }
@@ -0,0 +1,56 @@
+package com.celebrationpoint.backend.controller.product;
+
+import com.celebrationpoint.backend.constants.ImageVariant;
+import com.celebrationpoint.backend.service.image.ProductImageService;
+import com.celebrationpoint.backend.service.storage.FileStreamingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/products/images")
+@CrossOrigin
+public class ProductImageController {
+
+    // Version is part of the URL, so a variant's bytes never change
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private FileStreamingService fileStreamingService;
+
+    // ✅ SERVE AN IMAGE VARIANT (ZERO-COPY FROM DISK)
+    // /api/products/images/42/m1x2y3z/listing.jpg
+    @GetMapping("/{productId}/{version}/{variant}.jpg")
+    public void getImage(
+            @PathVariable Long productId,
+            @PathVariable String version,
+            @PathVariable String variant,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+
+        ImageVariant imageVariant = ImageVariant.fromFileName(variant);
+        if (imageVariant == null || !version.matches("[a-z0-9]{1,16}")) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        Path file = productImageService.resolveVariant(productId, version, imageVariant);
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        fileStreamingService.send(file, MediaType.IMAGE_JPEG_VALUE, null, IMMUTABLE, request, response);
+    }
+}
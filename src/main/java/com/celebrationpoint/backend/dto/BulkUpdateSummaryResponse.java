@@ -0,0 +1,74 @@
+package com.celebrationpoint.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk update.
+ * applied = rows changed, skipped = unknown ids / no-op / superseded
+ * duplicates, failed = rejected by validation or by a failed batch.
+ * Id lists are capped; the counts are always exact.
+ */
+public class BulkUpdateSummaryResponse {
+
+    private int received;
+    private int applied;
+    private int skipped;
+    private int failed;
+    private int batches;
+    private long durationMs;
+    private List<Long> skippedProductIds;
+    private List<Map<String, Object>> failures;
+
+    public BulkUpdateSummaryResponse(
+            int received,
+            int applied,
+            int skipped,
+            int failed,
+            int batches,
+            long durationMs,
+            List<Long> skippedProductIds,
+            List<Map<String, Object>> failures
+    ) {
+        this.received = received;
+        this.applied = applied;
+        this.skipped = skipped;
+        this.failed = failed;
+        this.batches = batches;
+        this.durationMs = durationMs;
+        this.skippedProductIds = skippedProductIds;
+        this.failures = failures;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public int getBatches() {
+        return batches;
+    }
+
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    public List<Long> getSkippedProductIds() {
+        return skippedProductIds;
+    }
+
+    public List<Map<String, Object>> getFailures() {
+        return failures;
+    }
+}
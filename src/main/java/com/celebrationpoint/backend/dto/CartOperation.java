@@ -0,0 +1,40 @@
+package com.celebrationpoint.backend.dto;
+
+/**
+ * One step of a batch cart update (PATCH /api/cart).
+ *
+ * ADD increments the line (creating it), SET replaces the quantity
+ * (0 removes the line) and REMOVE drops it. Steps apply in order.
+ */
+public class CartOperation {
+
+    public enum Type { ADD, SET, REMOVE }
+
+    private Type op;
+    private Long productId;
+    private int quantity;
+
+    public Type getOp() {
+        return op;
+    }
+
+    public void setOp(Type op) {
+        this.op = op;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,74 @@
+package com.celebrationpoint.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A cart priced at current catalog prices (GET /api/cart/quote).
+ *
+ * Valid for exactly one (cartVersion, catalogVersion): any cart edit or
+ * admin product write makes the next request compute a new quote.
+ * subtotal only counts available lines.
+ */
+public class CartQuote {
+
+    private long cartVersion;
+    private long catalogVersion;
+    private List<CartQuoteLine> lines;
+    private BigDecimal subtotal;
+    private boolean priceChanged;
+    private int unavailableCount;
+    private LocalDateTime quotedAt;
+
+    public CartQuote(
+            long cartVersion,
+            long catalogVersion,
+            List<CartQuoteLine> lines,
+            BigDecimal subtotal,
+            boolean priceChanged,
+            int unavailableCount,
+            LocalDateTime quotedAt
+    ) {
+        this.cartVersion = cartVersion;
+        this.catalogVersion = catalogVersion;
+        this.lines = lines;
+        this.subtotal = subtotal;
+        this.priceChanged = priceChanged;
+        this.unavailableCount = unavailableCount;
+        this.quotedAt = quotedAt;
+    }
+
+    public long getCartVersion() {
+        return cartVersion;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    public List<CartQuoteLine> getLines() {
+        return lines;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public boolean isPriceChanged() {
+        return priceChanged;
+    }
+
+    public int getUnavailableCount() {
+        return unavailableCount;
+    }
+
+    // Non-empty and every line still purchasable
+    public boolean isCheckoutReady() {
+        return !lines.isEmpty() && unavailableCount == 0;
+    }
+
+    public LocalDateTime getQuotedAt() {
+        return quotedAt;
+    }
+}
@@ -0,0 +1,82 @@
+package com.celebrationpoint.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One cart line revalidated against the catalog.
+ *
+ * cartPrice is the snapshot taken when the product was added, currentPrice
+ * what it costs now (null when UNAVAILABLE). lineTotal uses currentPrice.
+ */
+public class CartQuoteLine {
+
+    public enum Status { OK, PRICE_CHANGED, UNAVAILABLE }
+
+    private Long cartItemId;
+    private Long productId;
+    private String productName;
+    private Long categoryId;
+    private int quantity;
+    private BigDecimal cartPrice;
+    private BigDecimal currentPrice;
+    private BigDecimal lineTotal;
+    private Status status;
+
+    public CartQuoteLine(
+            Long cartItemId,
+            Long productId,
+            String productName,
+            Long categoryId,
+            int quantity,
+            BigDecimal cartPrice,
+            BigDecimal currentPrice,
+            BigDecimal lineTotal,
+            Status status
+    ) {
+        this.cartItemId = cartItemId;
+        this.productId = productId;
+        this.productName = productName;
+        this.categoryId = categoryId;
+        this.quantity = quantity;
+        this.cartPrice = cartPrice;
+        this.currentPrice = currentPrice;
+        this.lineTotal = lineTotal;
+        this.status = status;
+    }
+
+    public Long getCartItemId() {
+        return cartItemId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getCartPrice() {
+        return cartPrice;
+    }
+
+    public BigDecimal getCurrentPrice() {
+        return currentPrice;
+    }
+
+    public BigDecimal getLineTotal() {
+        return lineTotal;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,35 @@
+package com.celebrationpoint.backend.dto;
+
+/**
+ * Active category with the number of active products in it.
+ */
+public class CategorySummaryResponse {
+
+    private Long id;
+    private String name;
+    private String description;
+    private int productCount;
+
+    public CategorySummaryResponse(Long id, String name, String description, int productCount) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.productCount = productCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public int getProductCount() {
+        return productCount;
+    }
+}
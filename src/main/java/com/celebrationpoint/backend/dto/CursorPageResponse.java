@@ -0,0 +1,32 @@
+package com.celebrationpoint.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ * Pass nextCursor back as ?cursor= to fetch the following page.
+ */
+public class CursorPageResponse<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public CursorPageResponse(List<T> items, String nextCursor, boolean hasMore) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+}
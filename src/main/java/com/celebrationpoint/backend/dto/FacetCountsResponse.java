@@ -0,0 +1,39 @@
+package com.celebrationpoint.backend.dto;
+
+import java.util.List;
+
+public class FacetCountsResponse {
+
+    private int total;
+    private List<FacetOptionResponse> categories;
+    private List<FacetOptionResponse> priceBands;
+    private List<FacetOptionResponse> stock;
+
+    public FacetCountsResponse(
+            int total,
+            List<FacetOptionResponse> categories,
+            List<FacetOptionResponse> priceBands,
+            List<FacetOptionResponse> stock
+    ) {
+        this.total = total;
+        this.categories = categories;
+        this.priceBands = priceBands;
+        this.stock = stock;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public List<FacetOptionResponse> getCategories() {
+        return categories;
+    }
+
+    public List<FacetOptionResponse> getPriceBands() {
+        return priceBands;
+    }
+
+    public List<FacetOptionResponse> getStock() {
+        return stock;
+    }
+}
@@ -0,0 +1,30 @@
+package com.celebrationpoint.backend.dto;
+
+/**
+ * One selectable facet option with its live count, e.g. "Balloons (42)".
+ * value is what the client sends back as a filter parameter.
+ */
+public class FacetOptionResponse {
+
+    private String value;
+    private String label;
+    private int count;
+
+    public FacetOptionResponse(String value, String label, int count) {
+        this.value = value;
+        this.label = label;
+        this.count = count;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
@@ -0,0 +1,63 @@
+package com.celebrationpoint.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flash sale with its live stock (null once the sale has ended).
+ */
+public class FlashSaleResponse {
+
+    private Long id;
+    private Long productId;
+    private int allocatedQuantity;
+    private Long availableQuantity;
+    private String status;
+    private LocalDateTime startedAt;
+    private LocalDateTime endedAt;
+
+    public FlashSaleResponse(
+            Long id,
+            Long productId,
+            int allocatedQuantity,
+            Long availableQuantity,
+            String status,
+            LocalDateTime startedAt,
+            LocalDateTime endedAt
+    ) {
+        this.id = id;
+        this.productId = productId;
+        this.allocatedQuantity = allocatedQuantity;
+        this.availableQuantity = availableQuantity;
+        this.status = status;
+        this.startedAt = startedAt;
+        this.endedAt = endedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getAllocatedQuantity() {
+        return allocatedQuantity;
+    }
+
+    public Long getAvailableQuantity() {
+        return availableQuantity;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getEndedAt() {
+        return endedAt;
+    }
+}
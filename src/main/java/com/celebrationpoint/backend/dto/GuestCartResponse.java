@@ -0,0 +1,26 @@
+package com.celebrationpoint.backend.dto;
+
+import java.util.List;
+
+/**
+ * Guest cart: the signed token the client keeps and sends back, plus
+ * the lines priced at current prices (cartItemId is null for guests).
+ */
+public class GuestCartResponse {
+
+    private String token;
+    private List<CartItemResponse> items;
+
+    public GuestCartResponse(String token, List<CartItemResponse> items) {
+        this.token = token;
+        this.items = items;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public List<CartItemResponse> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,26 @@
+package com.celebrationpoint.backend.dto;
+
+import java.util.List;
+
+/**
+ * Multi-get result: found products in the requested order, plus the
+ * requested ids that don't exist.
+ */
+public class ProductBatchResponse {
+
+    private List<ProductDetailResponse> products;
+    private List<Long> missingIds;
+
+    public ProductBatchResponse(List<ProductDetailResponse> products, List<Long> missingIds) {
+        this.products = products;
+        this.missingIds = missingIds;
+    }
+
+    public List<ProductDetailResponse> getProducts() {
+        return products;
+    }
+
+    public List<Long> getMissingIds() {
+        return missingIds;
+    }
+}
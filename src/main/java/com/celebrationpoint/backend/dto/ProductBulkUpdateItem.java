@@ -0,0 +1,38 @@
+package com.celebrationpoint.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * One (productId, price, stock) tuple of a bulk update.
+ * price / stockQuantity are optional: null leaves the column unchanged.
+ */
+public class ProductBulkUpdateItem {
+
+    private Long productId;
+    private BigDecimal price;
+    private Integer stockQuantity;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public void setStockQuantity(Integer stockQuantity) {
+        this.stockQuantity = stockQuantity;
+    }
+}
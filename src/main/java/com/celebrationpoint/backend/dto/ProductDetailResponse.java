@@ -0,0 +1,66 @@
+package com.celebrationpoint.backend.dto;
+
+import com.celebrationpoint.backend.entity.Product;
+
+import java.math.BigDecimal;
+
+/**
+ * Product page / admin view: the listing fields plus description and status.
+ */
+public class ProductDetailResponse extends ProductSummaryResponse {
+
+    private String description;
+    private boolean active;
+
+    public ProductDetailResponse(
+            Long id,
+            String name,
+            String description,
+            BigDecimal price,
+            Integer stockQuantity,
+            String imageUrl,
+            Boolean active,
+            Long categoryId,
+            String categoryName
+    ) {
+        super(id, name, price, imageUrl, stockQuantity, categoryId, categoryName);
+        this.description = description;
+        this.active = active;
+    }
+
+    // ✅ FROM A JUST-SAVED ENTITY (write paths only)
+    public static ProductDetailResponse from(Product product) {
+        return new ProductDetailResponse(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getImageUrl(),
+                product.isActive(),
+                product.getCategory().getId(),
+                product.getCategory().getName()
+        );
+    }
+
+    // Same product without the detail-only fields, for listings
+    public ProductSummaryResponse toSummary() {
+        return new ProductSummaryResponse(
+                getId(),
+                getName(),
+                getPrice(),
+                getImageUrl(),
+                getStockQuantity(),
+                getCategoryId(),
+                getCategoryName()
+        );
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
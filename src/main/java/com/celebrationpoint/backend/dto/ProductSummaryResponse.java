@@ -0,0 +1,75 @@
+package com.celebrationpoint.backend.dto;
+
+import com.celebrationpoint.backend.constants.ImageVariant;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Listing row: only the columns a product card needs,
+ * with the category flattened in.
+ *
+ * Built directly by JPQL / Criteria constructor expressions,
+ * so no managed entity is ever hydrated for a listing.
+ */
+public class ProductSummaryResponse {
+
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private String imageUrl;
+    private int stockQuantity;
+    private Long categoryId;
+    private String categoryName;
+
+    public ProductSummaryResponse(
+            Long id,
+            String name,
+            BigDecimal price,
+            String imageUrl,
+            Integer stockQuantity,
+            Long categoryId,
+            String categoryName
+    ) {
+        this.id = id;
+        this.name = name;
+        this.price = price;
+        this.imageUrl = imageUrl;
+        this.stockQuantity = stockQuantity;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    // thumbnail / listing / detail URLs when the image was uploaded here
+    public Map<String, String> getImages() {
+        return ImageVariant.urlsFor(imageUrl);
+    }
+
+    public int getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+}
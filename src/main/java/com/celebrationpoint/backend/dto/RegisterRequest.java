@@ -5,6 +5,8 @@ public class RegisterRequest {
     private String fullName;
     private String email;
     private String password;
+    // Optional signed guest cart token, merged into the new account's cart
+    private String guestCart;
 
     public String getFullName() {
         return fullName;
@@ -17,4 +19,8 @@ public class RegisterRequest {
     public String getPassword() {
         return password;
     }
+
+    public String getGuestCart() {
+        return guestCart;
+    }
 }
@@ -0,0 +1,54 @@
+package com.celebrationpoint.backend.dto;
+
+import com.celebrationpoint.backend.entity.StockMovement;
+import com.celebrationpoint.backend.entity.StockSnapshot;
+
+import java.util.List;
+
+/**
+ * A product's stock next to what its ledger says, with the latest
+ * snapshot and movements (newest first). ledgerQuantity is null until
+ * the product has a snapshot.
+ */
+public class StockLedgerResponse {
+
+    private Long productId;
+    private int stockQuantity;
+    private Long ledgerQuantity;
+    private StockSnapshot snapshot;
+    private List<StockMovement> movements;
+
+    public StockLedgerResponse(
+            Long productId,
+            int stockQuantity,
+            Long ledgerQuantity,
+            StockSnapshot snapshot,
+            List<StockMovement> movements
+    ) {
+        this.productId = productId;
+        this.stockQuantity = stockQuantity;
+        this.ledgerQuantity = ledgerQuantity;
+        this.snapshot = snapshot;
+        this.movements = movements;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getStockQuantity() {
+        return stockQuantity;
+    }
+
+    public Long getLedgerQuantity() {
+        return ledgerQuantity;
+    }
+
+    public StockSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public List<StockMovement> getMovements() {
+        return movements;
+    }
+}
@@ -4,8 +4,13 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "carts")
+@Table(name = "carts", indexes = {
+        // Abandoned-cart sweep
+        @Index(name = "idx_carts_updated_at", columnList = "updated_at")
+})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Cart {
 
@@ -13,8 +18,8 @@ public class Cart {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    // ❌ Do NOT serialize user
-    @OneToOne
+    // ❌ Do NOT serialize user (lazy: cart paths only need the id)
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     @JsonIgnore
     private User user;
@@ -22,6 +27,15 @@ public class Cart {
     @Column(nullable = false)
     private boolean active = true;
 
+    // Bumped by every change to the cart's lines; keys the cached pricing quote.
+    // Starts at 1, since 0 means the user has no cart
+    @Column(nullable = false, columnDefinition = "bigint default 1")
+    private long version = 1;
+
+    // Last change to the lines (same writes as version); idle carts are swept
+    @Column(name = "updated_at", nullable = false, columnDefinition = "timestamp default now()")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
     // Constructors
     public Cart() {}
 
@@ -43,6 +57,14 @@ public class Cart {
         return active;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
     public void setId(Long id) {
         this.id = id;
     }
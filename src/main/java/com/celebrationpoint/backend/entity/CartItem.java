@@ -7,7 +7,13 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "cart_items")
+@Table(
+        name = "cart_items",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_cart_items_cart_product",
+                columnNames = {"cart_id", "product_id"}
+        )
+)
 @JsonIgnoreProperties({
         "hibernateLazyInitializer",
         "handler",
@@ -0,0 +1,87 @@
+package com.celebrationpoint.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One flash sale of one product.
+ *
+ * allocatedQuantity is every unit the sale controls: the stock at start
+ * plus the units of the product's open reservations, which the sale
+ * adopts. Units left = allocated - units in its non-released
+ * reservations, so the counters can always be rebuilt from the database.
+ */
+@Entity
+@Table(name = "flash_sales", indexes = {
+        @Index(name = "idx_flash_sales_product_status", columnList = "product_id, status")
+})
+public class FlashSale {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "allocated_quantity", nullable = false)
+    private int allocatedQuantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private FlashSaleStatus status;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "ended_at")
+    private LocalDateTime endedAt;
+
+    // ✅ Constructors
+    public FlashSale() {
+    }
+
+    public FlashSale(Long productId, int allocatedQuantity) {
+        this.productId = productId;
+        this.allocatedQuantity = allocatedQuantity;
+        this.status = FlashSaleStatus.ACTIVE;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    // ✅ Getters & Setters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getAllocatedQuantity() {
+        return allocatedQuantity;
+    }
+
+    public void setAllocatedQuantity(int allocatedQuantity) {
+        this.allocatedQuantity = allocatedQuantity;
+    }
+
+    public FlashSaleStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(FlashSaleStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getEndedAt() {
+        return endedAt;
+    }
+
+    public void setEndedAt(LocalDateTime endedAt) {
+        this.endedAt = endedAt;
+    }
+}
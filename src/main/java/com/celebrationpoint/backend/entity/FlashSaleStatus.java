@@ -0,0 +1,7 @@
+package com.celebrationpoint.backend.entity;
+
+public enum FlashSaleStatus {
+
+    ACTIVE,   // Stock served from in-memory counters
+    ENDED     // Back to row-locked reservations
+}
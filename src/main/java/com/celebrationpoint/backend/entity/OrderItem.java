@@ -6,7 +6,10 @@ import java.math.BigDecimal;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = {
+        // Items of an order; also covers the co-purchase scan by order-id range
+        @Index(name = "idx_order_items_order_product", columnList = "order_id, product_id")
+})
 public class OrderItem {
 
     @Id
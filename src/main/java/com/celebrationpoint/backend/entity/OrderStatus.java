@@ -8,5 +8,10 @@ public enum OrderStatus {
     DELIVERED,      // Delivered to customer
     COMPLETED,      // Closed order
     CANCELLED       // Cancelled before shipping
-, PAID
+, PAID;
+
+    // Stock hasn't left the warehouse: cancelling hands it back
+    public boolean isBeforeShipment() {
+        return this == PENDING || this == CONFIRMED || this == PAID;
+    }
 }
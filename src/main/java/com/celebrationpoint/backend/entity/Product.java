@@ -7,7 +7,15 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination indexes (one per listing sort order)
+        @Index(name = "idx_products_active_id", columnList = "active, id"),
+        @Index(name = "idx_products_active_price_id", columnList = "active, price, id"),
+        @Index(name = "idx_products_active_name_id", columnList = "active, name, id"),
+        @Index(name = "idx_products_category_active_id", columnList = "category_id, active, id"),
+        @Index(name = "idx_products_category_active_price_id", columnList = "category_id, active, price, id"),
+        @Index(name = "idx_products_category_active_name_id", columnList = "category_id, active, name, id")
+})
 public class Product {
 
     @Id
@@ -23,7 +31,8 @@ public class Product {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
-    @Column(nullable = false)
+    // Set on insert only: later changes go through the stock ledger (SQL)
+    @Column(nullable = false, updatable = false)
     private int stockQuantity;
 
     @Column(length = 1000)
@@ -0,0 +1,8 @@
+package com.celebrationpoint.backend.entity;
+
+public enum ReservationStatus {
+
+    HELD,        // Stock taken at checkout, awaiting payment (expires)
+    COMMITTED,   // Order paid / COD confirmed
+    RELEASED     // Cancelled, payment failed or expired: stock given back
+}
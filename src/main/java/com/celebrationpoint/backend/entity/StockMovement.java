@@ -0,0 +1,80 @@
+package com.celebrationpoint.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One change of one product's stock. Append-only: rows are never
+ * updated or deleted.
+ *
+ * Rows are written by the same SQL statement that changes
+ * products.stock_quantity, so the two always agree. Stock =
+ * latest StockSnapshot + the deltas after it.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+        // Tail after a snapshot / latest movements of one product
+        @Index(name = "idx_stock_movements_product", columnList = "product_id, id")
+})
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockMovementType type;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(length = 255)
+    private String note;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // ✅ Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public StockMovementType getType() {
+        return type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getNote() {
+        return note;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,10 @@
+package com.celebrationpoint.backend.entity;
+
+public enum StockMovementType {
+
+    RECEIPT,        // Goods received (admin)
+    ADJUSTMENT,     // Manual correction: stock count, product edit, bulk update
+    RESERVATION,    // Taken at checkout (negative)
+    CANCELLATION,   // Reservation given back: order cancelled or payment failed
+    EXPIRY          // Reservation given back: unpaid past its TTL
+}
@@ -0,0 +1,44 @@
+package com.celebrationpoint.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A product's stock as of one ledger position: quantity after every
+ * movement with id <= lastMovementId. Rolled forward by compaction.
+ */
+@Entity
+@Table(name = "stock_snapshots")
+public class StockSnapshot {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private long lastMovementId;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    // ✅ Getters
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public long getLastMovementId() {
+        return lastMovementId;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+}
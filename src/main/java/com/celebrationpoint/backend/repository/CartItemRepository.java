@@ -1,9 +1,12 @@
 package com.celebrationpoint.backend.repository;
 
+import com.celebrationpoint.backend.dto.CartItemResponse;
 import com.celebrationpoint.backend.entity.Cart;
 import com.celebrationpoint.backend.entity.CartItem;
 import com.celebrationpoint.backend.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -15,4 +18,18 @@ public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     Optional<CartItem> findByCartAndProduct(Cart cart, Product product);
 
     void deleteByCart(Cart cart);
+
+    // ✅ Cart view in one statement: cart → lines → product.
+    // No cart yet comes back as an empty list.
+    @Query("""
+            select new com.celebrationpoint.backend.dto.CartItemResponse(
+                ci.id, p.id, p.name, ci.price, ci.quantity
+            )
+            from CartItem ci
+            join ci.cart c
+            join ci.product p
+            where c.user.id = :userId
+            order by ci.id
+            """)
+    List<CartItemResponse> findCartViewByUserId(@Param("userId") Long userId);
 }
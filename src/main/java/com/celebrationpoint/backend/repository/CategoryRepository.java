@@ -3,6 +3,7 @@ package com.celebrationpoint.backend.repository;
 import com.celebrationpoint.backend.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
@@ -10,4 +11,6 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
 
     boolean existsByName(String name);
+
+    List<Category> findByActiveTrue();
 }
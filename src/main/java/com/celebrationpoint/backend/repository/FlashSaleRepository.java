@@ -0,0 +1,17 @@
+package com.celebrationpoint.backend.repository;
+
+import com.celebrationpoint.backend.entity.FlashSale;
+import com.celebrationpoint.backend.entity.FlashSaleStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface FlashSaleRepository extends JpaRepository<FlashSale, Long> {
+
+    List<FlashSale> findByStatus(FlashSaleStatus status);
+
+    Optional<FlashSale> findByProductIdAndStatus(Long productId, FlashSaleStatus status);
+
+    List<FlashSale> findTop50ByOrderByStartedAtDesc();
+}
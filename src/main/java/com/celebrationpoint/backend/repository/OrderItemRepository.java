@@ -2,9 +2,15 @@ package com.celebrationpoint.backend.repository;
 
 import com.celebrationpoint.backend.entity.Order;
 import com.celebrationpoint.backend.entity.OrderItem;
+import com.celebrationpoint.backend.service.ranking.ProductSale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
@@ -13,4 +19,17 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     // ✅ Delete all items in an order
     void deleteByOrder(Order order);
+
+    // ✅ Every order line, streamed with a server-side cursor (ranking rebuild).
+    // Must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.celebrationpoint.backend.service.ranking.ProductSale(
+                p.id, p.category.id, oi.quantity, o.createdAt
+            )
+            from OrderItem oi
+            join oi.order o
+            join oi.product p
+            """)
+    Stream<ProductSale> streamAllSales();
 }
@@ -1,13 +1,88 @@
 package com.celebrationpoint.backend.repository;
 
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.dto.ProductSummaryResponse;
 import com.celebrationpoint.backend.entity.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     List<Product> findByActiveTrue();
 
     List<Product> findByCategoryIdAndActiveTrue(Long categoryId);
+
+    // ===============================
+    // 📦 DTO PROJECTIONS (NO ENTITY HYDRATION)
+    // ===============================
+
+    @Query("""
+            select new com.celebrationpoint.backend.dto.ProductDetailResponse(
+                p.id, p.name, p.description, p.price, p.stockQuantity,
+                p.imageUrl, p.active, c.id, c.name)
+            from Product p join p.category c
+            where p.id = :id
+            """)
+    Optional<ProductDetailResponse> findDetailById(@Param("id") Long id);
+
+    @Query("""
+            select new com.celebrationpoint.backend.dto.ProductDetailResponse(
+                p.id, p.name, p.description, p.price, p.stockQuantity,
+                p.imageUrl, p.active, c.id, c.name)
+            from Product p join p.category c
+            where p.id in :ids
+            """)
+    List<ProductDetailResponse> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.celebrationpoint.backend.dto.ProductDetailResponse(
+                p.id, p.name, p.description, p.price, p.stockQuantity,
+                p.imageUrl, p.active, c.id, c.name)
+            from Product p join p.category c
+            order by p.id desc
+            """)
+    List<ProductDetailResponse> findAllDetails();
+
+    @Query("""
+            select new com.celebrationpoint.backend.dto.ProductSummaryResponse(
+                p.id, p.name, p.price, p.imageUrl, p.stockQuantity, c.id, c.name)
+            from Product p join p.category c
+            where c.id = :categoryId and p.active = true
+            """)
+    List<ProductSummaryResponse> findActiveSummariesByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query("""
+            select new com.celebrationpoint.backend.dto.ProductDetailResponse(
+                p.id, p.name, p.description, p.price, p.stockQuantity,
+                p.imageUrl, p.active, c.id, c.name)
+            from Product p join p.category c
+            where p.active = true and p.id > :afterId
+            order by p.id
+            """)
+    List<ProductDetailResponse> findActiveDetailsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // ✅ WALK ALL ACTIVE PRODUCTS IN ID-KEYSET CHUNKS (index builds)
+    default void forEachActiveChunk(int chunkSize, Consumer<List<ProductDetailResponse>> consumer) {
+
+        long afterId = 0;
+
+        while (true) {
+            List<ProductDetailResponse> chunk = findActiveDetailsAfter(afterId, Limit.of(chunkSize));
+
+            if (!chunk.isEmpty()) {
+                consumer.accept(chunk);
+            }
+            if (chunk.size() < chunkSize) {
+                return;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.celebrationpoint.backend.repository;
+
+import com.celebrationpoint.backend.constants.ProductSort;
+import com.celebrationpoint.backend.dto.ProductSummaryResponse;
+import com.celebrationpoint.backend.service.facet.ProductFilter;
+import com.celebrationpoint.backend.service.product.ProductCursor;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // ✅ KEYSET PAGE OF ACTIVE PRODUCTS (filter / cursor are optional)
+    List<ProductSummaryResponse> findActivePage(
+            ProductFilter filter,
+            ProductSort sort,
+            ProductCursor after,
+            int limit
+    );
+}
@@ -0,0 +1,186 @@
+package com.celebrationpoint.backend.repository;
+
+import com.celebrationpoint.backend.constants.PriceBand;
+import com.celebrationpoint.backend.constants.ProductSort;
+import com.celebrationpoint.backend.dto.ProductSummaryResponse;
+import com.celebrationpoint.backend.entity.Category;
+import com.celebrationpoint.backend.entity.Product;
+import com.celebrationpoint.backend.service.facet.ProductFilter;
+import com.celebrationpoint.backend.service.product.ProductCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset ("seek") pagination for the storefront listing.
+ *
+ * Each sort order is served by a matching composite index on products
+ * (see Product @Table indexes), and the cursor turns into a range
+ * condition on that index, so page 500 costs the same as page 1.
+ *
+ * Rows are selected straight into ProductSummaryResponse: only the
+ * listing columns are read and nothing enters the persistence context.
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductSummaryResponse> findActivePage(
+            ProductFilter filter,
+            ProductSort sort,
+            ProductCursor after,
+            int limit
+    ) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryResponse> query = cb.createQuery(ProductSummaryResponse.class);
+        Root<Product> product = query.from(Product.class);
+        Join<Product, Category> category = product.join("category");
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.isTrue(product.get("active")));
+
+        if (filter != null) {
+            addFilterPredicates(cb, product, filter, where);
+        }
+
+        if (after != null) {
+            where.add(seekPredicate(cb, product, sort, after));
+        }
+
+        query.select(cb.construct(
+                        ProductSummaryResponse.class,
+                        product.get("id"),
+                        product.get("name"),
+                        product.get("price"),
+                        product.get("imageUrl"),
+                        product.get("stockQuantity"),
+                        category.get("id"),
+                        category.get("name")
+                ))
+                .where(where.toArray(new Predicate[0]))
+                .orderBy(orderBy(cb, product, sort));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // ===============================
+    // 🔧 HELPERS
+    // ===============================
+
+    // Same semantics as the facet bitmaps: OR within a facet, AND across facets
+    private void addFilterPredicates(
+            CriteriaBuilder cb,
+            Root<Product> product,
+            ProductFilter filter,
+            List<Predicate> where
+    ) {
+
+        if (!filter.getCategoryIds().isEmpty()) {
+            where.add(product.get("category").get("id").in(filter.getCategoryIds()));
+        }
+
+        if (!filter.getPriceBands().isEmpty()) {
+            Path<BigDecimal> price = product.get("price");
+            List<Predicate> bands = new ArrayList<>();
+
+            for (PriceBand band : filter.getPriceBands()) {
+                List<Predicate> range = new ArrayList<>();
+                if (band.getMin() != null) {
+                    range.add(cb.greaterThanOrEqualTo(price, band.getMin()));
+                }
+                if (band.getMax() != null) {
+                    range.add(cb.lessThan(price, band.getMax()));
+                }
+                bands.add(cb.and(range.toArray(new Predicate[0])));
+            }
+            where.add(cb.or(bands.toArray(new Predicate[0])));
+        }
+
+        if (filter.getInStock() != null) {
+            Path<Integer> stock = product.get("stockQuantity");
+            where.add(filter.getInStock() ? cb.greaterThan(stock, 0) : cb.lessThanOrEqualTo(stock, 0));
+        }
+    }
+
+    private List<Order> orderBy(CriteriaBuilder cb, Root<Product> product, ProductSort sort) {
+
+        Path<Long> id = product.get("id");
+
+        return switch (sort) {
+            case NEWEST -> List.of(cb.desc(id));
+            case PRICE_ASC -> List.of(cb.asc(product.get("price")), cb.asc(id));
+            case PRICE_DESC -> List.of(cb.desc(product.get("price")), cb.desc(id));
+            case NAME_ASC -> List.of(cb.asc(product.get("name")), cb.asc(id));
+        };
+    }
+
+    /**
+     * (key, id) > (lastKey, lastId) written as
+     * key >= lastKey AND (key > lastKey OR id > lastId)
+     * so the leading column still bounds the index range scan.
+     */
+    private Predicate seekPredicate(
+            CriteriaBuilder cb,
+            Root<Product> product,
+            ProductSort sort,
+            ProductCursor after
+    ) {
+
+        Path<Long> id = product.get("id");
+
+        switch (sort) {
+
+            case PRICE_ASC: {
+                Path<BigDecimal> price = product.get("price");
+                return cb.and(
+                        cb.greaterThanOrEqualTo(price, after.getPrice()),
+                        cb.or(
+                                cb.greaterThan(price, after.getPrice()),
+                                cb.greaterThan(id, after.getId())
+                        )
+                );
+            }
+
+            case PRICE_DESC: {
+                Path<BigDecimal> price = product.get("price");
+                return cb.and(
+                        cb.lessThanOrEqualTo(price, after.getPrice()),
+                        cb.or(
+                                cb.lessThan(price, after.getPrice()),
+                                cb.lessThan(id, after.getId())
+                        )
+                );
+            }
+
+            case NAME_ASC: {
+                Path<String> name = product.get("name");
+                return cb.and(
+                        cb.greaterThanOrEqualTo(name, after.getName()),
+                        cb.or(
+                                cb.greaterThan(name, after.getName()),
+                                cb.greaterThan(id, after.getId())
+                        )
+                );
+            }
+
+            default:
+                return cb.lessThan(id, after.getId());
+        }
+    }
+}
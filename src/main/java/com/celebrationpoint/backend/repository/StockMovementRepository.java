@@ -0,0 +1,12 @@
+package com.celebrationpoint.backend.repository;
+
+import com.celebrationpoint.backend.entity.StockMovement;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    List<StockMovement> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+}
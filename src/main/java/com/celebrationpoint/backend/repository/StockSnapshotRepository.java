@@ -0,0 +1,7 @@
+package com.celebrationpoint.backend.repository;
+
+import com.celebrationpoint.backend.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+}
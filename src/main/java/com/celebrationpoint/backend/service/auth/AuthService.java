@@ -6,6 +6,7 @@ import com.celebrationpoint.backend.entity.User;
 import com.celebrationpoint.backend.repository.RoleRepository;
 import com.celebrationpoint.backend.repository.UserRepository;
 import com.celebrationpoint.backend.config.JwtService;
+import com.celebrationpoint.backend.service.cart.GuestCartService;
 
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -20,6 +21,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final GuestCartService guestCartService;
 
     // ✅ MANUAL CONSTRUCTOR (BEST PRACTICE)
     public AuthService(
@@ -27,17 +29,19 @@ public class AuthService {
             RoleRepository roleRepository,
             PasswordEncoder passwordEncoder,
             AuthenticationManager authenticationManager,
-            JwtService jwtService
+            JwtService jwtService,
+            GuestCartService guestCartService
     ) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
+        this.guestCartService = guestCartService;
     }
 
     // ✅ REGISTER
-    public String register(String fullName, String email, String password) {
+    public String register(String fullName, String email, String password, String guestCart) {
 
         if (userRepository.existsByEmail(email)) {
             throw new RuntimeException("Email already registered");
@@ -57,11 +61,14 @@ public class AuthService {
 
         userRepository.save(user);
 
+        // 🛒 carry over what was carted before signing up
+        guestCartService.mergeInto(user.getId(), guestCart);
+
         return "User registered successfully";
     }
 
     // ✅ LOGIN
-    public String login(String email, String password) {
+    public String login(String email, String password, String guestCart) {
 
         // 🔐 authenticate user
         authenticationManager.authenticate(
@@ -74,6 +81,9 @@ public class AuthService {
                         new RuntimeException("User not found")
                 );
 
+        // 🛒 carry over what was carted before signing in
+        guestCartService.mergeInto(user.getId(), guestCart);
+
         // 🔐 generate JWT (ROLE inside token)
         return jwtService.generateToken(user);
     }
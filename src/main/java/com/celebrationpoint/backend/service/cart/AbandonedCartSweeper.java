@@ -0,0 +1,188 @@
+package com.celebrationpoint.backend.service.cart;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes carts (and their lines) not changed for idle-days.
+ *
+ * Works in chunks of chunk-size carts, each its own short transaction:
+ * lock the next idle carts (SKIP LOCKED, so a cart being edited right
+ * now is simply left for the next run), delete their lines, delete them.
+ * No lock is held longer than one chunk. A swept user just gets a new
+ * cart on the next add.
+ *
+ * A Postgres session advisory lock makes sure only one node sweeps at a
+ * time; the others skip the run. It is released when the run ends or
+ * the node's connection dies.
+ */
+@Service
+public class AbandonedCartSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(AbandonedCartSweeper.class);
+
+    // Advisory lock key for this job ("cartswep" in ASCII)
+    private static final long SWEEP_LOCK_KEY = 0x6361727473776570L;
+
+    // Keyset over ids, so carts skipped as locked are not picked again in this run
+    private static final String LOCK_CHUNK_SQL = """
+            SELECT id, user_id FROM carts
+             WHERE updated_at < ? AND id > ?
+             ORDER BY id
+             LIMIT ?
+             FOR UPDATE SKIP LOCKED
+            """;
+
+    private record Chunk(long lastCartId, List<Long> userIds, int carts, int lines) {
+    }
+
+    private final TransactionTemplate requiresNew;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CartWriteBehindStore cartWriteBehindStore;
+
+    @Value("${app.cart.sweep.idle-days:30}")
+    private int idleDays;
+
+    @Value("${app.cart.sweep.chunk-size:500}")
+    private int chunkSize;
+
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public AbandonedCartSweeper(PlatformTransactionManager transactionManager) {
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // =================================================
+    // 🧹 SWEEP (ONE NODE, CHUNKED)
+    // =================================================
+
+    @Scheduled(cron = "${app.cart.sweep.cron:0 15 4 * * *}")
+    public void scheduledSweep() {
+        sweep();
+    }
+
+    public Map<String, Object> sweep() {
+
+        // The lock belongs to this connection; chunks run on others from the pool
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, Object>>) connection -> {
+
+            if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)")) {
+                log.info("Abandoned cart sweep skipped: running on another node");
+                return Map.of("skipped", true);
+            }
+
+            try {
+                return sweepChunks();
+            } finally {
+                advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+            }
+        });
+    }
+
+    private Map<String, Object> sweepChunks() {
+
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(idleDays);
+
+        long lastId = 0;
+        int carts = 0;
+        int lines = 0;
+        int chunks = 0;
+
+        while (true) {
+            long after = lastId;
+
+            Chunk chunk = requiresNew.execute(status -> {
+
+                List<Long> cartIds = new ArrayList<>();
+                List<Long> userIds = new ArrayList<>();
+                jdbcTemplate.query(LOCK_CHUNK_SQL, rs -> {
+                    cartIds.add(rs.getLong(1));
+                    userIds.add(rs.getLong(2));
+                }, Timestamp.valueOf(cutoff), after, chunkSize);
+
+                if (cartIds.isEmpty()) {
+                    return null;
+                }
+
+                Long[] ids = cartIds.toArray(Long[]::new);
+                int deletedLines = jdbcTemplate.update("DELETE FROM cart_items WHERE cart_id = ANY(?)",
+                        (Object) ids);
+                int deletedCarts = jdbcTemplate.update("DELETE FROM carts WHERE id = ANY(?)",
+                        (Object) ids);
+
+                return new Chunk(cartIds.get(cartIds.size() - 1), userIds, deletedCarts, deletedLines);
+            });
+
+            if (chunk == null) {
+                break;
+            }
+
+            // Only once committed, or a reload could still see the rows
+            cartWriteBehindStore.forget(chunk.userIds());
+
+            lastId = chunk.lastCartId();
+            carts += chunk.carts();
+            lines += chunk.lines();
+            chunks++;
+        }
+
+        long durationMs = System.currentTimeMillis() - start;
+
+        log.info("Abandoned carts swept: {} carts, {} cart lines deleted in {} chunks, {} ms",
+                carts, lines, chunks, durationMs);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("skipped", false);
+        result.put("idleBefore", cutoff);
+        result.put("cartsDeleted", carts);
+        result.put("linesDeleted", lines);
+        result.put("chunks", chunks);
+        result.put("durationMs", durationMs);
+        result.put("finishedAt", LocalDateTime.now());
+        lastRun = result;
+        return result;
+    }
+
+    private boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setLong(1, SWEEP_LOCK_KEY);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    // =================================================
+    // 📊 LAST RUN
+    // =================================================
+
+    public Map<String, Object> getLastRun() {
+        return lastRun;
+    }
+}
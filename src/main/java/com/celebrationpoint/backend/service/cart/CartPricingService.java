@@ -0,0 +1,216 @@
+package com.celebrationpoint.backend.service.cart;
+
+import com.celebrationpoint.backend.dto.CartItemResponse;
+import com.celebrationpoint.backend.dto.CartQuote;
+import com.celebrationpoint.backend.dto.CartQuoteLine;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.exception.ResourceNotFoundException;
+import com.celebrationpoint.backend.repository.CartItemRepository;
+import com.celebrationpoint.backend.service.catalog.CatalogVersionService;
+import com.celebrationpoint.backend.service.product.ProductService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revalidates a whole cart against the current catalog.
+ *
+ * Every product of the cart is fetched in one multi-get through the
+ * catalog cache (misses cost one query). A line is PRICE_CHANGED when its
+ * snapshot price differs from today's price and UNAVAILABLE when the
+ * product was deactivated or deleted; totals use current prices.
+ *
+ * The last quote of each user is cached and served again as long as
+ * neither the cart version nor the catalog version has moved, so a
+ * checkout right after the quote was shown does no pricing work.
+ */
+@Service
+public class CartPricingService {
+
+    private final Cache<Long, CartQuote> quotes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public CartPricingService(
+            @Value("${app.cart.quote.max-entries:10000}") long maxEntries,
+            @Value("${app.cart.quote.ttl-minutes:30}") long ttlMinutes
+    ) {
+        // userId → last quote
+        this.quotes = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .build();
+    }
+
+    // =================================================
+    // 💰 QUOTE (CART PAGE)
+    // =================================================
+
+    public CartQuote quote(Long userId) {
+
+        // Versions before contents: a quote may be newer than its key, never older
+        long catalogVersion = catalogVersionService.getVersion();
+        long cartVersion = cartService.getCartVersion(userId);
+
+        CartQuote cached = cached(userId, cartVersion, catalogVersion);
+        if (cached != null) {
+            return cached;
+        }
+
+        CartService.VersionedCart cart = cartService.getVersionedCart(userId);
+        return store(userId, price(cart.version(), catalogVersion, cart.items()));
+    }
+
+    // =================================================
+    // 🛒 QUOTE (CHECKOUT)
+    // =================================================
+
+    /**
+     * Call inside the checkout transaction: the cart row stays locked
+     * until it ends, so the cart cannot change between quote and order.
+     * Lines are read from the table (write-behind is detached by then).
+     */
+    public CartQuote quoteForCheckout(Long userId) {
+
+        long catalogVersion = catalogVersionService.getVersion();
+
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM carts WHERE user_id = ? FOR UPDATE", Long.class, userId);
+
+        if (versions.isEmpty()) {
+            throw new ResourceNotFoundException("Cart not found");
+        }
+
+        CartQuote cached = cached(userId, versions.get(0), catalogVersion);
+        if (cached != null) {
+            return cached;
+        }
+
+        return store(userId, price(versions.get(0), catalogVersion, cartItemRepository.findCartViewByUserId(userId)));
+    }
+
+    // =================================================
+    // 🧮 PRICING (ONE BATCHED LOOKUP, CACHE FIRST)
+    // =================================================
+
+    private CartQuote price(long cartVersion, long catalogVersion, List<CartItemResponse> items) {
+
+        List<Long> productIds = items.stream().map(CartItemResponse::getProductId).distinct().toList();
+
+        Map<Long, ProductDetailResponse> products = new HashMap<>();
+        for (int from = 0; from < productIds.size(); from += ProductService.MAX_BATCH_IDS) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + ProductService.MAX_BATCH_IDS, productIds.size()));
+            productService.getProductsByIds(chunk).getProducts()
+                    .forEach(product -> products.put(product.getId(), product));
+        }
+
+        List<CartQuoteLine> lines = new ArrayList<>(items.size());
+        BigDecimal subtotal = BigDecimal.ZERO;
+        boolean priceChanged = false;
+        int unavailable = 0;
+
+        for (CartItemResponse item : items) {
+            ProductDetailResponse product = products.get(item.getProductId());
+
+            if (product == null || !product.isActive()) {
+                unavailable++;
+                lines.add(new CartQuoteLine(
+                        item.getCartItemId(),
+                        item.getProductId(),
+                        product != null ? product.getName() : item.getProductName(),
+                        product != null ? product.getCategoryId() : null,
+                        item.getQuantity(),
+                        item.getPrice(),
+                        null,
+                        BigDecimal.ZERO,
+                        CartQuoteLine.Status.UNAVAILABLE
+                ));
+                continue;
+            }
+
+            BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            boolean changed = item.getPrice() == null || product.getPrice().compareTo(item.getPrice()) != 0;
+
+            subtotal = subtotal.add(lineTotal);
+            priceChanged |= changed;
+
+            lines.add(new CartQuoteLine(
+                    item.getCartItemId(),
+                    item.getProductId(),
+                    product.getName(),
+                    product.getCategoryId(),
+                    item.getQuantity(),
+                    item.getPrice(),
+                    product.getPrice(),
+                    lineTotal,
+                    changed ? CartQuoteLine.Status.PRICE_CHANGED : CartQuoteLine.Status.OK
+            ));
+        }
+
+        return new CartQuote(cartVersion, catalogVersion, List.copyOf(lines), subtotal,
+                priceChanged, unavailable, LocalDateTime.now());
+    }
+
+    // =================================================
+    // 🗄 QUOTE CACHE (ONE PER USER, KEYED BY VERSIONS)
+    // =================================================
+
+    private CartQuote cached(Long userId, long cartVersion, long catalogVersion) {
+
+        CartQuote quote = quotes.getIfPresent(userId);
+
+        if (quote != null && quote.getCartVersion() == cartVersion && quote.getCatalogVersion() == catalogVersion) {
+            hits.incrementAndGet();
+            return quote;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    private CartQuote store(Long userId, CartQuote quote) {
+        quotes.put(userId, quote);
+        return quote;
+    }
+
+    public Map<String, Object> getStats() {
+
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", quotes.estimatedSize());
+        stats.put("hits", hitCount);
+        stats.put("misses", total - hitCount);
+        stats.put("hitRate", total == 0 ? 1.0 : (double) hitCount / total);
+        return stats;
+    }
+}
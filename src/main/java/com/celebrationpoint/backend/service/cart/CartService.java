@@ -1,129 +1,334 @@
 package com.celebrationpoint.backend.service.cart;
 
 import com.celebrationpoint.backend.dto.CartItemResponse;
-import com.celebrationpoint.backend.entity.Cart;
+import com.celebrationpoint.backend.dto.CartOperation;
 import com.celebrationpoint.backend.entity.CartItem;
 import com.celebrationpoint.backend.entity.Product;
-import com.celebrationpoint.backend.entity.User;
 import com.celebrationpoint.backend.exception.ResourceNotFoundException;
 import com.celebrationpoint.backend.repository.CartItemRepository;
 import com.celebrationpoint.backend.repository.CartRepository;
 import com.celebrationpoint.backend.repository.ProductRepository;
-import com.celebrationpoint.backend.repository.UserRepository;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class CartService {
 
+    private static final Logger log = LoggerFactory.getLogger(CartService.class);
+
+    public static final int MAX_OPERATIONS = 500;
+
+    // Cart creation is an upsert; an existing cart gets its version bumped (and locked).
+    // New carts start at version 1: 0 stands for "no cart", and a quote of the
+    // empty cart must not match the first real one.
+    private static final String UPSERT_CART_SQL = """
+            INSERT INTO carts (user_id, active, version)
+            VALUES (?, true, 1)
+            ON CONFLICT (user_id) DO UPDATE SET version = carts.version + 1, updated_at = now()
+            RETURNING id
+            """;
+
+    // Cart upsert + line upsert in one statement; an existing line keeps its snapshot price.
+    // No row back means the product does not exist.
+    private static final String ADD_TO_CART_SQL = """
+            WITH c AS (
+                INSERT INTO carts (user_id, active, version)
+                VALUES (?, true, 1)
+                ON CONFLICT (user_id) DO UPDATE SET version = carts.version + 1, updated_at = now()
+                RETURNING id
+            )
+            INSERT INTO cart_items (cart_id, product_id, quantity, price)
+            SELECT c.id, p.id, ?, p.price
+              FROM c, products p
+             WHERE p.id = ?
+            ON CONFLICT (cart_id, product_id)
+            DO UPDATE SET quantity = cart_items.quantity + EXCLUDED.quantity
+            RETURNING id
+            """;
+
+    private static final String INSERT_LINE_SQL = """
+            INSERT INTO cart_items (cart_id, product_id, quantity, price)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (cart_id, product_id) DO UPDATE SET quantity = EXCLUDED.quantity
+            """;
+
+    private static final String BUMP_VERSION_SQL =
+            "UPDATE carts SET version = version + 1, updated_at = now() WHERE id = ?";
+
+    // Folds duplicate (cart, product) lines left from before the unique constraint
+    private static final String MERGE_DUPLICATE_LINES_SQL = """
+            WITH d AS (
+                SELECT id,
+                       SUM(quantity) OVER (PARTITION BY cart_id, product_id) AS total,
+                       ROW_NUMBER() OVER (PARTITION BY cart_id, product_id ORDER BY id) AS rn
+                  FROM cart_items
+            ),
+            keep AS (
+                UPDATE cart_items ci
+                   SET quantity = d.total
+                  FROM d
+                 WHERE ci.id = d.id
+                   AND d.rn = 1
+                   AND ci.quantity <> d.total
+            )
+            DELETE FROM cart_items ci
+             USING d
+             WHERE ci.id = d.id
+               AND d.rn > 1
+            """;
+
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
-    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CartWriteBehindStore writeBehind;
 
     public CartService(
             CartRepository cartRepository,
             CartItemRepository cartItemRepository,
             ProductRepository productRepository,
-            UserRepository userRepository
+            JdbcTemplate jdbcTemplate,
+            CartWriteBehindStore writeBehind
     ) {
         this.cartRepository = cartRepository;
         this.cartItemRepository = cartItemRepository;
         this.productRepository = productRepository;
-        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehind = writeBehind;
     }
 
     // ===============================
-    // 🧠 CORE: GET OR CREATE CART
+    // 🔑 ONE LINE PER (CART, PRODUCT)
     // ===============================
-    private Cart getOrCreateCart(User user) {
-        try {
-            // First try to find existing cart
-            var existingCart = cartRepository.findByUser(user);
-            if (existingCart.isPresent()) {
-                return existingCart.get();
-            }
-            
-            // If cart doesn't exist, create new one
-            Cart newCart = new Cart(user);
-            return cartRepository.save(newCart);
-        } catch (Exception e) {
-            // If creation fails, try to find the cart again (might have been created by another thread)
-            return cartRepository.findByUser(user)
-                    .orElse(null);
+    // Hibernate's schema update skips the unique constraint quietly while
+    // duplicates exist, so merge them once and add it here.
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureUniqueLines() {
+
+        Boolean present = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_cart_items_cart_product')",
+                Boolean.class);
+
+        if (Boolean.TRUE.equals(present)) {
+            return;
         }
+
+        jdbcTemplate.execute("LOCK TABLE cart_items IN SHARE ROW EXCLUSIVE MODE");
+        int merged = jdbcTemplate.update(MERGE_DUPLICATE_LINES_SQL);
+        jdbcTemplate.execute(
+                "ALTER TABLE cart_items ADD CONSTRAINT uk_cart_items_cart_product UNIQUE (cart_id, product_id)");
+
+        log.info("Cart lines made unique per product: {} duplicate lines merged", merged);
+    }
+
+    // ===============================
+    // 🧠 CORE: GET OR CREATE CART (ONE UPSERT)
+    // ===============================
+    private Long getOrCreateCartId(Long userId) {
+        return jdbcTemplate.queryForObject(UPSERT_CART_SQL, Long.class, userId);
     }
 
     // ===============================
     // ➕ ADD PRODUCT TO CART
     // ===============================
-    public void addToCart(String email, Long productId, int quantity) {
+    public void addToCart(Long userId, Long productId, int quantity) {
 
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than zero");
         }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        if (writeBehind.isEnabled()) {
+            writeBehind.add(userId, productId, quantity);
+            return;
+        }
+
+        List<Long> rows = jdbcTemplate.queryForList(ADD_TO_CART_SQL, Long.class, userId, quantity, productId);
+
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+    }
+
+    // ===============================
+    // 📦 BATCH: MANY OPERATIONS, ONE TRANSACTION
+    // ===============================
+    // Operations are folded into the final quantity per product in memory,
+    // then written as one batched UPDATE, one batched INSERT and one DELETE.
+    public List<CartItemResponse> applyOperations(Long userId, List<CartOperation> operations) {
+
+        if (writeBehind.isEnabled()) {
+            return writeBehind.applyOperations(userId, operations);
+        }
+
+        Set<Long> productIds = validateOperations(operations);
+
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (Long productId : productIds) {
+            if (!products.containsKey(productId)) {
+                throw new ResourceNotFoundException("Product not found: " + productId);
+            }
+        }
 
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        Long cartId = getOrCreateCartId(userId);
 
-        Cart cart = getOrCreateCart(user);
-        
-        if (cart == null) {
-            throw new RuntimeException("Failed to create or retrieve cart for user: " + email);
+        // Current lines (product id read from the FK, products stay unloaded)
+        Map<Long, CartItem> lines = new HashMap<>();
+        for (CartItem item : cartItemRepository.findByCart(cartRepository.getReferenceById(cartId))) {
+            lines.putIfAbsent(item.getProduct().getId(), item);
         }
 
-        CartItem cartItem = cartItemRepository
-                .findByCartAndProduct(cart, product)
-                .orElse(null);
+        Map<Long, Integer> target = foldOperations(operations,
+                id -> lines.containsKey(id) ? lines.get(id).getQuantity() : 0);
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+
+        target.forEach((productId, quantity) -> {
+            CartItem line = lines.get(productId);
+
+            if (line == null) {
+                if (quantity > 0) {
+                    // snapshot price, same as addToCart
+                    inserts.add(new Object[]{cartId, productId, quantity,
+                            products.get(productId).getPrice()});
+                }
+            } else if (quantity == 0) {
+                deletes.add(line.getId());
+            } else if (quantity != line.getQuantity()) {
+                updates.add(new Object[]{quantity, line.getId()});
+            }
+        });
 
-        if (cartItem == null) {
-            cartItem = new CartItem(
-                    cart,
-                    product,
-                    quantity,
-                    product.getPrice() // snapshot price
-            );
-        } else {
-            cartItem.setQuantity(cartItem.getQuantity() + quantity);
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE cart_items SET quantity = ? WHERE id = ?", updates);
+        }
+        if (!inserts.isEmpty()) {
+            // A line added concurrently since the read is overwritten, not duplicated
+            jdbcTemplate.batchUpdate(INSERT_LINE_SQL, inserts);
+        }
+        if (!deletes.isEmpty()) {
+            cartItemRepository.deleteAllByIdInBatch(deletes);
         }
 
-        cartItemRepository.save(cartItem);
+        return getCartItems(userId);
+    }
+
+    // ===============================
+    // 🧮 OPERATIONS (SHARED WITH GUEST CARTS)
+    // ===============================
+
+    // Ids of the products an operation list must be able to price
+    static Set<Long> validateOperations(List<CartOperation> operations) {
+
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("No cart operations");
+        }
+        if (operations.size() > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("At most " + MAX_OPERATIONS + " operations per request");
+        }
+
+        Set<Long> productIds = new HashSet<>();
+
+        for (CartOperation operation : operations) {
+            if (operation == null || operation.getOp() == null || operation.getProductId() == null) {
+                throw new IllegalArgumentException("Each operation needs op and productId");
+            }
+            if (operation.getOp() == CartOperation.Type.ADD && operation.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Quantity must be greater than zero");
+            }
+            if (operation.getOp() == CartOperation.Type.SET && operation.getQuantity() < 0) {
+                throw new IllegalArgumentException("Quantity cannot be negative");
+            }
+            if (operation.getOp() != CartOperation.Type.REMOVE) {
+                productIds.add(operation.getProductId());
+            }
+        }
+        return productIds;
+    }
+
+    // Final quantity per touched product (0 = no line), steps applied in order
+    static Map<Long, Integer> foldOperations(
+            List<CartOperation> operations,
+            Function<Long, Integer> currentQuantity
+    ) {
+        Map<Long, Integer> target = new LinkedHashMap<>();
+
+        for (CartOperation operation : operations) {
+            Long productId = operation.getProductId();
+            int current = target.computeIfAbsent(productId, currentQuantity);
+
+            target.put(productId, switch (operation.getOp()) {
+                case ADD -> current + operation.getQuantity();
+                case SET -> operation.getQuantity();
+                case REMOVE -> 0;
+            });
+        }
+        return target;
     }
 
     // ===============================
     // 👀 VIEW CART ITEMS
     // ===============================
     @Transactional(readOnly = true)
-    public List<CartItemResponse> getCartItems(String email) {
-
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
-
-        // Don't auto-create cart on view - just return items from existing cart
-        // Use Optional to avoid creating cart automatically
-        Cart cart = cartRepository.findByUser(user).orElse(null);
-        
-        if (cart == null) {
-            // Return empty list if no cart exists yet
-            return List.of();
-        }
-
-        return cartItemRepository.findByCart(cart).stream()
-                .map(item -> new CartItemResponse(
-                        item.getId(),
-                        item.getProduct().getId(),
-                        item.getProduct().getName(),
-                        item.getPrice(),
-                        item.getQuantity()
-                ))
-                .toList();
+    public List<CartItemResponse> getCartItems(Long userId) {
+
+        if (writeBehind.isEnabled()) {
+            return writeBehind.getItems(userId);
+        }
+
+        // Single query; don't auto-create cart on view, an absent cart is just empty
+        return cartItemRepository.findCartViewByUserId(userId);
+    }
+
+    // ===============================
+    // 🔢 CART VERSION (KEYS THE PRICING QUOTE)
+    // ===============================
+    record VersionedCart(long version, List<CartItemResponse> items) {
+    }
+
+    // 0 while the user has no cart
+    @Transactional(readOnly = true)
+    public long getCartVersion(Long userId) {
+
+        if (writeBehind.isEnabled()) {
+            return writeBehind.getVersion(userId);
+        }
+
+        List<Long> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM carts WHERE user_id = ?", Long.class, userId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    // Version read before the lines: a concurrent edit can only make the lines newer than it
+    @Transactional(readOnly = true)
+    VersionedCart getVersionedCart(Long userId) {
+
+        if (writeBehind.isEnabled()) {
+            return writeBehind.getVersionedItems(userId);
+        }
+
+        long version = getCartVersion(userId);
+        return new VersionedCart(version, cartItemRepository.findCartViewByUserId(userId));
     }
 
     // ===============================
@@ -135,11 +340,15 @@ public class CartService {
             throw new IllegalArgumentException("Quantity must be greater than zero");
         }
 
+        // Edits by row id go to the row; write-behind hands the cart back first
+        writeBehind.detachOwnerOf(cartItemId);
+
         CartItem item = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found"));
 
         item.setQuantity(quantity);
         cartItemRepository.save(item);
+        jdbcTemplate.update(BUMP_VERSION_SQL, item.getCart().getId());
     }
 
     // ===============================
@@ -147,21 +356,26 @@ public class CartService {
     // ===============================
     public void removeItem(Long cartItemId) {
 
+        writeBehind.detachOwnerOf(cartItemId);
+
         CartItem item = cartItemRepository.findById(cartItemId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found"));
 
         cartItemRepository.delete(item);
+        jdbcTemplate.update(BUMP_VERSION_SQL, item.getCart().getId());
     }
 
     // ===============================
     // 🧹 CLEAR CART (AFTER ORDER)
     // ===============================
-    public void clearCart(String email) {
+    public void clearCart(Long userId) {
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        writeBehind.detach(userId);
 
-        Cart cart = getOrCreateCart(user);
-        cartItemRepository.deleteByCart(cart);
+        // No cart yet means nothing to clear; don't create one
+        jdbcTemplate.update("""
+                WITH c AS (UPDATE carts SET version = version + 1, updated_at = now() WHERE user_id = ? RETURNING id)
+                DELETE FROM cart_items WHERE cart_id IN (SELECT id FROM c)""",
+                userId);
     }
 }
@@ -0,0 +1,773 @@
+package com.celebrationpoint.backend.service.cart;
+
+import com.celebrationpoint.backend.dto.CartItemResponse;
+import com.celebrationpoint.backend.dto.CartOperation;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.exception.ResourceNotFoundException;
+import com.celebrationpoint.backend.repository.CartItemRepository;
+import com.celebrationpoint.backend.service.product.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opt-in write-behind for carts (app.cart.write-behind.enabled).
+ *
+ * While enabled, a user's cart is loaded once into memory and every
+ * view and edit is served from there. Changed carts are coalesced and
+ * written to carts / cart_items every flush interval, in batches of
+ * set-based statements (one transaction per batch): only the final
+ * state of a cart is written, however many edits it took.
+ *
+ * Checkout detaches the cart first: it is flushed synchronously and
+ * dropped from memory, so the order is built from durable rows. Edits
+ * by cart item id do the same before touching the row. The cart stays
+ * in memory until the write has succeeded (requests for it wait rather
+ * than load stale rows), and a failed write leaves it there, still dirty.
+ *
+ * Inside a transaction the cart stays pinned until that transaction
+ * completes: other requests for it wait, and a second detach (clearing
+ * the cart after the order) is a no-op. Otherwise a cart reloaded and
+ * edited mid-checkout would be written in a separate transaction that
+ * waits on the cart row the checkout has locked, and the checkout would
+ * wait on that write.
+ *
+ * A batch that fails is retried cart by cart, so one cart that can't be
+ * written doesn't hold back the others; a cart that fails
+ * MAX_FAILED_WRITES flushes in a row is dropped and logged.
+ *
+ * The store holds at most max-carts carts; least recently used clean
+ * carts are evicted, and a full store of dirty carts is flushed first,
+ * on the flush thread rather than the request that overflowed it.
+ * A crash loses at most one flush interval of cart edits. Carts are
+ * per instance: run write-behind on a single instance.
+ */
+@Service
+public class CartWriteBehindStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartWriteBehindStore.class);
+
+    private static final int MAX_FAILED_WRITES = 3;
+
+    // The row takes the in-memory version, which continues from the one loaded
+    private static final String UPSERT_CARTS_SQL = """
+            INSERT INTO carts (user_id, active, version)
+            SELECT u, true, v FROM unnest(?::bigint[], ?::bigint[]) AS s(u, v)
+            ON CONFLICT (user_id) DO UPDATE SET version = EXCLUDED.version, updated_at = now()
+            RETURNING user_id, id
+            """;
+
+    // Lines of the flushed carts that are no longer in memory
+    private static final String DELETE_LINES_SQL = """
+            DELETE FROM cart_items ci
+             WHERE ci.cart_id = ANY(?::bigint[])
+               AND NOT EXISTS (
+                    SELECT 1 FROM unnest(?::bigint[], ?::bigint[]) AS s(cart_id, product_id)
+                     WHERE s.cart_id = ci.cart_id AND s.product_id = ci.product_id
+               )
+            """;
+
+    // Existing lines keep their snapshot price; unchanged ones are not rewritten
+    private static final String UPSERT_LINES_SQL = """
+            INSERT INTO cart_items (cart_id, product_id, quantity, price)
+            SELECT * FROM unnest(?::bigint[], ?::bigint[], ?::int[], ?::numeric[])
+            ON CONFLICT (cart_id, product_id) DO UPDATE SET quantity = EXCLUDED.quantity
+             WHERE cart_items.quantity <> EXCLUDED.quantity
+            RETURNING cart_id, product_id, id
+            """;
+
+    private record Line(Long cartItemId, String productName, BigDecimal price, int quantity) {
+    }
+
+    private record Snapshot(long userId, long version, Map<Long, Line> lines) {
+    }
+
+    private static class CartState {
+
+        // productId → line, in the order first added
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+
+        // Held while this cart is being written; keeps writes in version order
+        private final ReentrantLock flushLock = new ReentrantLock();
+
+        private long version;
+        private long flushedVersion;
+        private long dirtySince;
+        private long lastAccess = System.currentTimeMillis();
+
+        // Evicted or detached: the next access loads a fresh state
+        private boolean detached;
+
+        // Detach is writing it, or the detaching transaction is still open:
+        // other requests wait instead of reloading
+        private boolean detaching;
+
+        // Thread of the transaction that pinned it, until that transaction completes
+        private Thread pinnedBy;
+
+        // Consecutive failed writes of this cart on its own
+        private int failedWrites;
+
+        boolean isDirty() {
+            return version != flushedVersion;
+        }
+
+        void changed() {
+            if (!isDirty()) {
+                dirtySince = System.currentTimeMillis();
+            }
+            version++;
+        }
+    }
+
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+
+    private final AtomicLong flushedCarts = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong droppedCarts = new AtomicLong();
+    private volatile long lastFlushAt;
+    private volatile long lastFlushMs;
+    private volatile int lastFlushCarts;
+    private volatile long lastFlushLagMs;
+
+    private final boolean enabled;
+    private final int maxCarts;
+    private final int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    private final TransactionTemplate requiresNew;
+
+    // Flushes asked for by a full store run here, off the request thread
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cart-write-behind-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean overflowFlushQueued = new AtomicBoolean();
+
+    public CartWriteBehindStore(
+            @Value("${app.cart.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.cart.write-behind.max-carts:10000}") int maxCarts,
+            @Value("${app.cart.write-behind.flush-batch-size:500}") int batchSize,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.enabled = enabled;
+        this.maxCarts = maxCarts;
+        this.batchSize = batchSize;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // =================================================
+    // 👀 READ / ✏ EDIT (IN MEMORY)
+    // =================================================
+
+    public List<CartItemResponse> getItems(Long userId) {
+        return withCart(userId, state -> toResponse(state));
+    }
+
+    public long getVersion(Long userId) {
+        return withCart(userId, state -> state.version);
+    }
+
+    CartService.VersionedCart getVersionedItems(Long userId) {
+        return withCart(userId, state -> new CartService.VersionedCart(state.version, toResponse(state)));
+    }
+
+    public void add(Long userId, Long productId, int quantity) {
+
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than zero");
+        }
+
+        ProductDetailResponse product = productService.getProductById(productId);
+
+        withCart(userId, state -> {
+            Line line = state.lines.get(productId);
+            state.lines.put(productId, line == null
+                    ? new Line(null, product.getName(), product.getPrice(), quantity)
+                    : new Line(line.cartItemId(), line.productName(), line.price(), line.quantity() + quantity));
+            state.changed();
+            return null;
+        });
+    }
+
+    public List<CartItemResponse> applyOperations(Long userId, List<CartOperation> operations) {
+
+        Set<Long> productIds = CartService.validateOperations(operations);
+
+        Map<Long, ProductDetailResponse> products = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            var batch = productService.getProductsByIds(new ArrayList<>(productIds));
+            if (!batch.getMissingIds().isEmpty()) {
+                throw new ResourceNotFoundException("Product not found: " + batch.getMissingIds().get(0));
+            }
+            batch.getProducts().forEach(product -> products.put(product.getId(), product));
+        }
+
+        return withCart(userId, state -> {
+            Map<Long, Integer> target = CartService.foldOperations(operations,
+                    id -> state.lines.containsKey(id) ? state.lines.get(id).quantity() : 0);
+
+            target.forEach((productId, quantity) -> {
+                Line line = state.lines.get(productId);
+                if (quantity == 0) {
+                    state.lines.remove(productId);
+                } else if (line == null) {
+                    ProductDetailResponse product = products.get(productId);
+                    state.lines.put(productId, new Line(null, product.getName(), product.getPrice(), quantity));
+                } else {
+                    state.lines.put(productId,
+                            new Line(line.cartItemId(), line.productName(), line.price(), quantity));
+                }
+            });
+            state.changed();
+            return toResponse(state);
+        });
+    }
+
+    // =================================================
+    // 🔓 DETACH (CHECKOUT, EDITS BY CART ITEM ID)
+    // =================================================
+
+    /**
+     * Flush this user's cart now and drop it from memory, so the rows
+     * can be read / changed directly. If the write fails the cart stays
+     * loaded and dirty, and the exception is rethrown.
+     *
+     * Inside a transaction the cart stays pinned until it completes
+     * (see the class comment); call this before the transaction locks
+     * the cart row. Outside one it's a no-op if the cart isn't loaded.
+     */
+    public void detach(Long userId) {
+
+        if (!enabled) {
+            return;
+        }
+
+        boolean pin = TransactionSynchronizationManager.isSynchronizationActive();
+
+        while (true) {
+            CartState state = carts.get(userId);
+
+            if (state == null) {
+                if (!pin) {
+                    return;
+                }
+                // Nothing loaded: pin an empty placeholder, so nobody loads the rows meanwhile
+                CartState placeholder = new CartState();
+                placeholder.detaching = true;
+                placeholder.pinnedBy = Thread.currentThread();
+                if (carts.putIfAbsent(userId, placeholder) == null) {
+                    releaseOnCompletion(userId, placeholder);
+                    return;
+                }
+                continue;
+            }
+
+            synchronized (state) {
+                if (state.pinnedBy == Thread.currentThread()) {
+                    // Pinned by this transaction already: the rows are current
+                    return;
+                }
+                // Being written, or pinned by another open transaction: wait, then look again
+                if (state.detaching) {
+                    awaitDetached(state);
+                    continue;
+                }
+            }
+
+            state.flushLock.lock();
+            try {
+                Snapshot snapshot;
+                synchronized (state) {
+                    if (state.detaching || state.detached) {
+                        continue;
+                    }
+                    state.detaching = true;
+                    state.pinnedBy = pin ? Thread.currentThread() : null;
+                    snapshot = state.isDirty() ? snapshot(userId, state) : null;
+                }
+
+                boolean written = false;
+                try {
+                    if (snapshot != null) {
+                        write(List.of(snapshot));
+                        markFlushed(state, snapshot);
+                        flushedCarts.incrementAndGet();
+                    }
+                    written = true;
+                } finally {
+                    if (written && pin) {
+                        releaseOnCompletion(userId, state);
+                    } else {
+                        release(userId, state, written);
+                    }
+                }
+                return;
+            } finally {
+                state.flushLock.unlock();
+            }
+        }
+    }
+
+    // Committed or not, the rows are what the transaction left: the next access reloads them
+    private void releaseOnCompletion(Long userId, CartState state) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(userId, state, true);
+            }
+        });
+    }
+
+    private void release(Long userId, CartState state, boolean drop) {
+        synchronized (state) {
+            state.detaching = false;
+            state.pinnedBy = null;
+            if (drop) {
+                state.detached = true;
+                carts.remove(userId, state);
+            }
+            state.notifyAll();
+        }
+    }
+
+    // Caller holds the state's monitor
+    private void awaitDetached(CartState state) {
+
+        if (state.pinnedBy == Thread.currentThread()) {
+            throw new IllegalStateException("Cart is pinned by this thread's checkout");
+        }
+        while (state.detaching) {
+            try {
+                state.wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while the cart was being saved", e);
+            }
+        }
+    }
+
+    // Rows deleted underneath (abandoned-cart sweep): clean copies go too,
+    // dirty ones recreate their rows on the next flush
+    public void forget(Collection<Long> userIds) {
+
+        for (Long userId : userIds) {
+            CartState state = carts.get(userId);
+            if (state == null) {
+                continue;
+            }
+            synchronized (state) {
+                if (!state.isDirty() && !state.detaching && carts.remove(userId, state)) {
+                    state.detached = true;
+                }
+            }
+        }
+    }
+
+    public void detachOwnerOf(Long cartItemId) {
+
+        if (!enabled) {
+            return;
+        }
+
+        jdbcTemplate.queryForList("""
+                        SELECT c.user_id FROM cart_items ci JOIN carts c ON c.id = ci.cart_id
+                         WHERE ci.id = ?""", Long.class, cartItemId)
+                .forEach(this::detach);
+    }
+
+    // =================================================
+    // 💾 WRITE-BEHIND FLUSH
+    // =================================================
+
+    @Scheduled(initialDelay = 1000, fixedDelayString = "${app.cart.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        int flushed = 0;
+        long oldestDirty = Long.MAX_VALUE;
+
+        List<Map.Entry<Long, CartState>> dirty = new ArrayList<>();
+        carts.forEach((userId, state) -> {
+            synchronized (state) {
+                if (state.isDirty() && !state.detached) {
+                    dirty.add(Map.entry(userId, state));
+                }
+            }
+        });
+
+        for (int from = 0; from < dirty.size(); from += batchSize) {
+
+            List<CartState> locked = new ArrayList<>();
+            List<Snapshot> snapshots = new ArrayList<>();
+
+            for (Map.Entry<Long, CartState> entry : dirty.subList(from, Math.min(from + batchSize, dirty.size()))) {
+                CartState state = entry.getValue();
+                // Being detached right now: that path writes it
+                if (!state.flushLock.tryLock()) {
+                    continue;
+                }
+                synchronized (state) {
+                    if (state.detached || !state.isDirty()) {
+                        state.flushLock.unlock();
+                        continue;
+                    }
+                    oldestDirty = Math.min(oldestDirty, state.dirtySince);
+                    snapshots.add(snapshot(entry.getKey(), state));
+                }
+                locked.add(state);
+            }
+
+            try {
+                if (!snapshots.isEmpty()) {
+                    write(snapshots);
+                    for (int i = 0; i < locked.size(); i++) {
+                        markFlushed(locked.get(i), snapshots.get(i));
+                    }
+                    flushed += snapshots.size();
+                }
+            } catch (RuntimeException e) {
+                flushFailures.incrementAndGet();
+                log.warn("Cart write-behind flush of {} carts failed, writing them one by one: {}",
+                        snapshots.size(), e.getMessage());
+                flushed += writeEach(locked, snapshots);
+            } finally {
+                locked.forEach(state -> state.flushLock.unlock());
+            }
+        }
+
+        if (flushed > 0) {
+            flushedCarts.addAndGet(flushed);
+            lastFlushAt = System.currentTimeMillis();
+            lastFlushMs = lastFlushAt - start;
+            lastFlushCarts = flushed;
+            lastFlushLagMs = lastFlushAt - oldestDirty;
+        }
+    }
+
+    // After a failed batch: one transaction per cart, so a bad cart only fails itself
+    private int writeEach(List<CartState> states, List<Snapshot> snapshots) {
+
+        int written = 0;
+
+        for (int i = 0; i < states.size(); i++) {
+            CartState state = states.get(i);
+            Snapshot snapshot = snapshots.get(i);
+            try {
+                write(List.of(snapshot));
+                markFlushed(state, snapshot);
+                written++;
+            } catch (RuntimeException e) {
+                // Still dirty: retried on the next tick, unless it keeps failing
+                flushFailures.incrementAndGet();
+                synchronized (state) {
+                    if (++state.failedWrites >= MAX_FAILED_WRITES && carts.remove(snapshot.userId(), state)) {
+                        state.detached = true;
+                        droppedCarts.incrementAndGet();
+                        log.error("Cart of user {} dropped after {} failed writes, unsaved edits lost: {}",
+                                snapshot.userId(), state.failedWrites, e.getMessage());
+                    }
+                }
+            }
+        }
+        return written;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushExecutor.shutdown();
+        if (enabled) {
+            flush();
+        }
+    }
+
+    // All snapshots in one transaction: upsert carts, drop removed lines, upsert the rest
+    private void write(List<Snapshot> snapshots) {
+
+        requiresNew.executeWithoutResult(status ->
+                jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+
+                    Long[] userIds = snapshots.stream().map(Snapshot::userId).toArray(Long[]::new);
+                    Long[] versions = snapshots.stream().map(Snapshot::version).toArray(Long[]::new);
+                    Map<Long, Long> cartIds = new HashMap<>();
+
+                    try (PreparedStatement ps = connection.prepareStatement(UPSERT_CARTS_SQL)) {
+                        ps.setArray(1, connection.createArrayOf("bigint", userIds));
+                        ps.setArray(2, connection.createArrayOf("bigint", versions));
+                        try (ResultSet rs = ps.executeQuery()) {
+                            while (rs.next()) {
+                                cartIds.put(rs.getLong(1), rs.getLong(2));
+                            }
+                        }
+                    }
+
+                    List<Long> lineCartIds = new ArrayList<>();
+                    List<Long> lineProductIds = new ArrayList<>();
+                    List<Integer> quantities = new ArrayList<>();
+                    List<BigDecimal> prices = new ArrayList<>();
+
+                    for (Snapshot snapshot : snapshots) {
+                        Long cartId = cartIds.get(snapshot.userId());
+                        snapshot.lines().forEach((productId, line) -> {
+                            lineCartIds.add(cartId);
+                            lineProductIds.add(productId);
+                            quantities.add(line.quantity());
+                            prices.add(line.price());
+                        });
+                    }
+
+                    try (PreparedStatement ps = connection.prepareStatement(DELETE_LINES_SQL)) {
+                        ps.setArray(1, connection.createArrayOf("bigint", cartIds.values().toArray()));
+                        ps.setArray(2, connection.createArrayOf("bigint", lineCartIds.toArray()));
+                        ps.setArray(3, connection.createArrayOf("bigint", lineProductIds.toArray()));
+                        ps.executeUpdate();
+                    }
+
+                    if (!lineCartIds.isEmpty()) {
+                        Map<Long, Long> userByCart = new HashMap<>();
+                        cartIds.forEach((userId, cartId) -> userByCart.put(cartId, userId));
+
+                        try (PreparedStatement ps = connection.prepareStatement(UPSERT_LINES_SQL)) {
+                            ps.setArray(1, connection.createArrayOf("bigint", lineCartIds.toArray()));
+                            ps.setArray(2, connection.createArrayOf("bigint", lineProductIds.toArray()));
+                            ps.setArray(3, connection.createArrayOf("integer", quantities.toArray()));
+                            ps.setArray(4, connection.createArrayOf("numeric", prices.toArray()));
+                            try (ResultSet rs = ps.executeQuery()) {
+                                while (rs.next()) {
+                                    rememberLineId(userByCart.get(rs.getLong(1)), rs.getLong(2), rs.getLong(3));
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                })
+        );
+    }
+
+    // Inserted lines get their (new) row id, so they can be edited by id too
+    private void rememberLineId(Long userId, long productId, long cartItemId) {
+
+        CartState state = carts.get(userId);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            Line line = state.lines.get(productId);
+            if (line != null && !Long.valueOf(cartItemId).equals(line.cartItemId())) {
+                state.lines.put(productId,
+                        new Line(cartItemId, line.productName(), line.price(), line.quantity()));
+            }
+        }
+    }
+
+    private Snapshot snapshot(long userId, CartState state) {
+        return new Snapshot(userId, state.version, new LinkedHashMap<>(state.lines));
+    }
+
+    private void markFlushed(CartState state, Snapshot snapshot) {
+        synchronized (state) {
+            // Edits made during the write keep the cart dirty
+            state.flushedVersion = snapshot.version();
+            state.failedWrites = 0;
+            if (state.isDirty()) {
+                state.dirtySince = System.currentTimeMillis();
+            }
+        }
+    }
+
+    // =================================================
+    // 🧠 LOAD / EVICT
+    // =================================================
+
+    private <T> T withCart(Long userId, Function<CartState, T> action) {
+
+        while (true) {
+            CartState state = carts.get(userId);
+            if (state == null) {
+                state = load(userId);
+            }
+            synchronized (state) {
+                awaitDetached(state);
+                if (!state.detached) {
+                    state.lastAccess = System.currentTimeMillis();
+                    return action.apply(state);
+                }
+            }
+            // Evicted or detached meanwhile (or a failed detach): look again
+        }
+    }
+
+    private CartState load(Long userId) {
+
+        CartState loaded = new CartState();
+
+        jdbcTemplate.queryForList("SELECT version FROM carts WHERE user_id = ?", Long.class, userId)
+                .forEach(version -> {
+                    loaded.version = version;
+                    loaded.flushedVersion = version;
+                });
+
+        for (CartItemResponse item : cartItemRepository.findCartViewByUserId(userId)) {
+            loaded.lines.put(item.getProductId(), new Line(
+                    item.getCartItemId(), item.getProductName(), item.getPrice(), item.getQuantity()));
+        }
+
+        CartState existing = carts.putIfAbsent(userId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (carts.size() > maxCarts) {
+            evict();
+        }
+        return loaded;
+    }
+
+    // Down to 90% of capacity, least recently used clean carts first
+    private void evict() {
+
+        int target = maxCarts - maxCarts / 10;
+
+        if (evictClean(target) < carts.size() - target && overflowFlushQueued.compareAndSet(false, true)) {
+            // Mostly dirty: write them out and try again, without holding up this request
+            try {
+                flushExecutor.execute(() -> {
+                    try {
+                        flush();
+                        evictClean(target);
+                    } finally {
+                        overflowFlushQueued.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Shutting down: the shutdown flush writes them
+                overflowFlushQueued.set(false);
+            }
+        }
+    }
+
+    private synchronized int evictClean(int target) {
+
+        if (carts.size() <= target) {
+            return 0;
+        }
+
+        List<Map.Entry<Long, CartState>> byAge = new ArrayList<>(carts.entrySet());
+        byAge.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+
+        int evicted = 0;
+        for (Map.Entry<Long, CartState> entry : byAge) {
+            if (carts.size() <= target) {
+                break;
+            }
+            CartState state = entry.getValue();
+            synchronized (state) {
+                if (!state.isDirty() && !state.detaching && carts.remove(entry.getKey(), state)) {
+                    state.detached = true;
+                    evicted++;
+                }
+            }
+        }
+        evictions.addAndGet(evicted);
+        return evicted;
+    }
+
+    private List<CartItemResponse> toResponse(CartState state) {
+        return state.lines.entrySet().stream()
+                .map(entry -> new CartItemResponse(
+                        entry.getValue().cartItemId(),
+                        entry.getKey(),
+                        entry.getValue().productName(),
+                        entry.getValue().price(),
+                        entry.getValue().quantity()
+                ))
+                .collect(Collectors.toList());
+    }
+
+    // =================================================
+    // 📊 QUEUE DEPTH / FLUSH LAG
+    // =================================================
+
+    public Map<String, Object> getStats() {
+
+        long now = System.currentTimeMillis();
+        int dirty = 0;
+        long oldestDirty = now;
+
+        for (CartState state : carts.values()) {
+            synchronized (state) {
+                if (state.isDirty()) {
+                    dirty++;
+                    oldestDirty = Math.min(oldestDirty, state.dirtySince);
+                }
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("carts", carts.size());
+        stats.put("maxCarts", maxCarts);
+        stats.put("dirtyCarts", dirty);
+        stats.put("oldestDirtyAgeMs", now - oldestDirty);
+        stats.put("lastFlushAt", lastFlushAt == 0 ? null : new java.sql.Timestamp(lastFlushAt).toLocalDateTime());
+        stats.put("lastFlushCarts", lastFlushCarts);
+        stats.put("lastFlushMs", lastFlushMs);
+        stats.put("lastFlushLagMs", lastFlushLagMs);
+        stats.put("flushedCarts", flushedCarts.get());
+        stats.put("flushFailures", flushFailures.get());
+        stats.put("evictions", evictions.get());
+        stats.put("droppedCarts", droppedCarts.get());
+        return stats;
+    }
+}
@@ -0,0 +1,263 @@
+package com.celebrationpoint.backend.service.cart;
+
+import com.celebrationpoint.backend.dto.CartItemResponse;
+import com.celebrationpoint.backend.dto.CartOperation;
+import com.celebrationpoint.backend.dto.GuestCartResponse;
+import com.celebrationpoint.backend.dto.ProductBatchResponse;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.exception.ResourceNotFoundException;
+import com.celebrationpoint.backend.service.product.ProductService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Carts of visitors who are not signed in, kept entirely client side.
+ *
+ * The cart is a token: base64url("v1|issuedAt|id:qty,id:qty") + "." +
+ * base64url(HMAC-SHA256 of that payload). Nothing is stored on the
+ * server; every change returns a freshly signed token. Prices are not
+ * part of the token, lines are priced from the catalog cache on read.
+ *
+ * On login / registration the lines are merged into the user's Cart with
+ * one batch operation. Each product ends up with the larger of the two
+ * quantities, so a token that is sent again (it can't be revoked) adds
+ * nothing more.
+ *
+ * The signing secret has no default: startup fails without one.
+ */
+@Service
+public class GuestCartService {
+
+    private static final Logger log = LoggerFactory.getLogger(GuestCartService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String VERSION = "v1";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Value("${app.cart.guest.secret}")
+    private String secret;
+
+    @Value("${app.cart.guest.ttl-days:30}")
+    private int ttlDays;
+
+    @Value("${app.cart.guest.max-lines:50}")
+    private int maxLines;
+
+    // A known or empty secret would let anyone forge carts
+    @PostConstruct
+    void checkSecret() {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("app.cart.guest.secret (GUEST_CART_SECRET) must be set");
+        }
+    }
+
+    // =================================================
+    // 👀 VIEW / ✏ CHANGE
+    // =================================================
+
+    public GuestCartResponse view(String token) {
+        Map<Long, Integer> lines = decode(token);
+        return new GuestCartResponse(encode(lines), price(lines));
+    }
+
+    public GuestCartResponse applyOperations(String token, List<CartOperation> operations) {
+
+        Set<Long> productIds = CartService.validateOperations(operations);
+        Map<Long, Integer> lines = decode(token);
+
+        if (!productIds.isEmpty()) {
+            List<Long> missing = productService.getProductsByIds(new ArrayList<>(productIds)).getMissingIds();
+            if (!missing.isEmpty()) {
+                throw new ResourceNotFoundException("Product not found: " + missing.get(0));
+            }
+        }
+
+        CartService.foldOperations(operations, id -> lines.getOrDefault(id, 0))
+                .forEach((productId, quantity) -> {
+                    if (quantity > 0) {
+                        lines.put(productId, quantity);
+                    } else {
+                        lines.remove(productId);
+                    }
+                });
+
+        if (lines.size() > maxLines) {
+            throw new IllegalArgumentException("A guest cart holds at most " + maxLines + " products");
+        }
+
+        return new GuestCartResponse(encode(lines), price(lines));
+    }
+
+    // =================================================
+    // 🔀 MERGE INTO THE USER'S CART (LOGIN / REGISTER)
+    // =================================================
+
+    // Never fails the sign-in: a bad or stale token just merges nothing
+    public void mergeInto(Long userId, String token) {
+
+        if (token == null || token.isBlank()) {
+            return;
+        }
+
+        try {
+            Map<Long, Integer> lines = decode(token);
+            if (lines.isEmpty()) {
+                return;
+            }
+
+            // Products deleted since they were carted are dropped
+            Set<Long> missing = Set.copyOf(
+                    productService.getProductsByIds(new ArrayList<>(lines.keySet())).getMissingIds());
+
+            Map<Long, Integer> existing = new HashMap<>();
+            cartService.getCartItems(userId)
+                    .forEach(item -> existing.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+
+            // Larger quantity wins: merging the same token twice changes nothing
+            List<CartOperation> operations = new ArrayList<>(lines.size());
+            lines.forEach((productId, quantity) -> {
+                if (!missing.contains(productId) && quantity > existing.getOrDefault(productId, 0)) {
+                    CartOperation operation = new CartOperation();
+                    operation.setOp(CartOperation.Type.SET);
+                    operation.setProductId(productId);
+                    operation.setQuantity(quantity);
+                    operations.add(operation);
+                }
+            });
+
+            if (!operations.isEmpty()) {
+                cartService.applyOperations(userId, operations);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Guest cart not merged for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    // =================================================
+    // 🔐 TOKEN
+    // =================================================
+
+    // Empty cart for no token or an expired one; invalid tokens are rejected
+    Map<Long, Integer> decode(String token) {
+
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+
+        if (token == null || token.isBlank()) {
+            return lines;
+        }
+
+        try {
+            int dot = token.indexOf('.');
+            byte[] payload = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                throw new IllegalArgumentException("Invalid guest cart");
+            }
+
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid guest cart");
+            }
+
+            Instant issuedAt = Instant.ofEpochSecond(Long.parseLong(parts[1]));
+            if (issuedAt.plus(Duration.ofDays(ttlDays)).isBefore(Instant.now())) {
+                return lines;
+            }
+
+            if (!parts[2].isEmpty()) {
+                for (String line : parts[2].split(",")) {
+                    int colon = line.indexOf(':');
+                    lines.put(Long.parseLong(line.substring(0, colon)),
+                            Integer.parseInt(line.substring(colon + 1)));
+                }
+            }
+            return lines;
+
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // NumberFormatException and bad base64 are IllegalArgumentExceptions too
+            throw new IllegalArgumentException("Invalid guest cart");
+        }
+    }
+
+    String encode(Map<Long, Integer> lines) {
+
+        String body = lines.entrySet().stream()
+                .map(line -> line.getKey() + ":" + line.getValue())
+                .collect(Collectors.joining(","));
+
+        byte[] payload = (VERSION + "|" + Instant.now().getEpochSecond() + "|" + body)
+                .getBytes(StandardCharsets.UTF_8);
+
+        return ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Guest cart signing failed", e);
+        }
+    }
+
+    // =================================================
+    // 💰 PRICING (CATALOG CACHE, NO CART TABLES)
+    // =================================================
+
+    private List<CartItemResponse> price(Map<Long, Integer> lines) {
+
+        if (lines.isEmpty()) {
+            return List.of();
+        }
+
+        ProductBatchResponse batch = productService.getProductsByIds(new ArrayList<>(lines.keySet()));
+        Map<Long, ProductDetailResponse> products = batch.getProducts().stream()
+                .collect(Collectors.toMap(ProductDetailResponse::getId, Function.identity()));
+
+        List<CartItemResponse> items = new ArrayList<>(lines.size());
+        lines.forEach((productId, quantity) -> {
+            ProductDetailResponse product = products.get(productId);
+            if (product != null) {
+                items.add(new CartItemResponse(
+                        null,
+                        productId,
+                        product.getName(),
+                        product.getPrice(),
+                        quantity
+                ));
+            }
+        });
+        return items;
+    }
+}
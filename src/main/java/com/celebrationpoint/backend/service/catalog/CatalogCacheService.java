@@ -0,0 +1,254 @@
+package com.celebrationpoint.backend.service.catalog;
+
+import com.celebrationpoint.backend.constants.ProductSort;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.dto.ProductSummaryResponse;
+import com.celebrationpoint.backend.entity.Category;
+import com.celebrationpoint.backend.service.product.ProductCursor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-process read-through cache for the public catalog.
+ *
+ * Holds three kinds of entries:
+ * - product details by id
+ * - the active product summaries of each category
+ * - the active category list
+ *
+ * Products are cached as immutable response DTOs, never as entities.
+ *
+ * Products and category lists are bounded by an estimated size in bytes
+ * (not entry count) so a few huge categories cannot crowd out the rest.
+ * Entries are never refreshed on a timer: admin writes call the on*
+ * methods below and only the affected entries are updated or evicted.
+ */
+@Service
+public class CatalogCacheService {
+
+    private static final String ACTIVE_CATEGORIES_KEY = "active";
+
+    private final Cache<Long, ProductDetailResponse> productsById;
+    private final Cache<Long, CategoryListing> activeByCategory;
+    private final Cache<String, List<Category>> activeCategories;
+
+    public CatalogCacheService(
+            @Value("${app.catalog.cache.products-max-bytes:16777216}") long productsMaxBytes,
+            @Value("${app.catalog.cache.category-lists-max-bytes:33554432}") long categoryListsMaxBytes
+    ) {
+        this.productsById = Caffeine.newBuilder()
+                .maximumWeight(productsMaxBytes)
+                .weigher((Long id, ProductDetailResponse product) -> estimateBytes(product))
+                .recordStats()
+                .build();
+
+        this.activeByCategory = Caffeine.newBuilder()
+                .maximumWeight(categoryListsMaxBytes)
+                .weigher((Long id, CategoryListing listing) -> listing.weight())
+                .recordStats()
+                .build();
+
+        this.activeCategories = Caffeine.newBuilder()
+                .maximumSize(1)
+                .recordStats()
+                .build();
+    }
+
+    // =================================================
+    // 📖 READ-THROUGH
+    // =================================================
+
+    public ProductDetailResponse getProduct(Long productId, Function<Long, ProductDetailResponse> loader) {
+        return productsById.get(productId, loader);
+    }
+
+    /**
+     * Several products at once. All misses are passed to the loader in a
+     * single call. Ids the loader doesn't return are absent from the result.
+     */
+    public Map<Long, ProductDetailResponse> getProducts(
+            Collection<Long> productIds,
+            Function<Set<? extends Long>, Map<Long, ProductDetailResponse>> loader
+    ) {
+        return productsById.getAll(productIds, loader);
+    }
+
+    public CategoryListing getCategoryListing(Long categoryId, Supplier<List<ProductSummaryResponse>> loader) {
+        return activeByCategory.get(categoryId, id -> new CategoryListing(loader.get()));
+    }
+
+    public List<Category> getActiveCategories(Supplier<List<Category>> loader) {
+        return activeCategories.get(ACTIVE_CATEGORIES_KEY, key -> List.copyOf(loader.get()));
+    }
+
+    // =================================================
+    // ✏ WRITE-DRIVEN INVALIDATION
+    // =================================================
+
+    /**
+     * Product created / updated / toggled.
+     * Replaces the cached product and drops the category lists it was
+     * (or now is) part of.
+     */
+    public void onProductSaved(ProductDetailResponse product, Long previousCategoryId) {
+
+        productsById.put(product.getId(), product);
+
+        Long categoryId = product.getCategoryId();
+        activeByCategory.invalidate(categoryId);
+
+        if (previousCategoryId != null && !previousCategoryId.equals(categoryId)) {
+            activeByCategory.invalidate(previousCategoryId);
+        }
+    }
+
+    /**
+     * Bulk insert / update. Only refreshes products that are already
+     * cached (a 50k-row import shouldn't flush the whole cache), then
+     * drops the affected category lists.
+     */
+    public void onProductsBulkSaved(Collection<ProductDetailResponse> products) {
+
+        Set<Long> categoryIds = new HashSet<>();
+
+        for (ProductDetailResponse product : products) {
+            productsById.asMap().computeIfPresent(product.getId(), (id, cached) -> {
+                if (!cached.getCategoryId().equals(product.getCategoryId())) {
+                    categoryIds.add(cached.getCategoryId());
+                }
+                return product;
+            });
+            categoryIds.add(product.getCategoryId());
+        }
+
+        activeByCategory.invalidateAll(categoryIds);
+    }
+
+    public void onProductDeleted(Long productId, Long categoryId) {
+        productsById.invalidate(productId);
+        activeByCategory.invalidate(categoryId);
+    }
+
+    /**
+     * Category created / renamed / toggled / deleted.
+     * Cached products carry the category name, so those are dropped too.
+     */
+    public void onCategoryChanged(Long categoryId) {
+
+        activeCategories.invalidateAll();
+
+        if (categoryId == null) {
+            return;
+        }
+
+        activeByCategory.invalidate(categoryId);
+
+        List<Long> stale = productsById.asMap().values().stream()
+                .filter(p -> categoryId.equals(p.getCategoryId()))
+                .map(ProductDetailResponse::getId)
+                .toList();
+
+        productsById.invalidateAll(stale);
+    }
+
+    // =================================================
+    // 📊 STATS
+    // =================================================
+
+    public Map<String, Object> getStats() {
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("productsById", toMap(productsById.stats(), productsById.estimatedSize(),
+                productsById.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L)));
+        stats.put("activeByCategory", toMap(activeByCategory.stats(), activeByCategory.estimatedSize(),
+                activeByCategory.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L)));
+        stats.put("activeCategories", toMap(activeCategories.stats(), activeCategories.estimatedSize(), 0L));
+        return stats;
+    }
+
+    private Map<String, Object> toMap(CacheStats stats, long entries, long weightedBytes) {
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("entries", entries);
+        map.put("estimatedBytes", weightedBytes);
+        map.put("hits", stats.hitCount());
+        map.put("misses", stats.missCount());
+        map.put("hitRate", stats.hitRate());
+        map.put("evictions", stats.evictionCount());
+        map.put("evictedBytes", stats.evictionWeight());
+        return map;
+    }
+
+    // =================================================
+    // 🔧 SIZE ESTIMATION
+    // =================================================
+
+    // Rough heap footprint: object headers + BigDecimal + 2 bytes per char
+    static int estimateBytes(ProductSummaryResponse product) {
+
+        int chars = length(product.getName())
+                + length(product.getImageUrl())
+                + length(product.getCategoryName());
+
+        if (product instanceof ProductDetailResponse detail) {
+            chars += length(detail.getDescription());
+        }
+
+        return 160 + chars * 2;
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    /**
+     * Active product summaries of one category plus lazily built views in each
+     * listing order, so a cached category can be paged with a binary
+     * search instead of re-sorting on every request.
+     */
+    public static class CategoryListing {
+
+        private final List<ProductSummaryResponse> products;
+        private final Map<ProductSort, List<ProductSummaryResponse>> sorted = new EnumMap<>(ProductSort.class);
+        private final int weight;
+
+        CategoryListing(List<ProductSummaryResponse> products) {
+            this.products = List.copyOf(products);
+            // products + up to one reference list per sort order
+            this.weight = 64
+                    + this.products.stream().mapToInt(CatalogCacheService::estimateBytes).sum()
+                    + this.products.size() * 8 * ProductSort.values().length;
+        }
+
+        public List<ProductSummaryResponse> getProducts() {
+            return products;
+        }
+
+        public synchronized List<ProductSummaryResponse> sortedBy(ProductSort sort) {
+            return sorted.computeIfAbsent(sort, s -> {
+                List<ProductSummaryResponse> copy = new ArrayList<>(products);
+                copy.sort(ProductCursor.comparator(s));
+                return List.copyOf(copy);
+            });
+        }
+
+        int weight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.celebrationpoint.backend.service.catalog;
+
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.entity.Category;
+import com.celebrationpoint.backend.repository.CategoryRepository;
+import com.celebrationpoint.backend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Whole active catalog (categories + listing rows) as one static JSON
+ * file, plus a gzipped copy, on local disk.
+ *
+ * A scheduled check compares the catalog and stock versions with those of
+ * the current snapshot (listing rows carry stock, so sales count as
+ * changes too). After a change it waits until writes have been quiet
+ * for debounce-ms (at most max-delay-ms after the first change), then
+ * streams all active products in id chunks straight into both files.
+ * Files are named after the response tag and renamed into place, so a
+ * snapshot on disk is always complete and never modified.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final String FILE_PREFIX = "catalog-";
+
+    public record Snapshot(String tag, long version, long stockVersion, long lastModified, Path json, Path gzip) {
+    }
+
+    private final Path dir;
+    private final long debounceMillis;
+    private final long maxDelayMillis;
+
+    private volatile Snapshot current;
+
+    // When the catalog first differed from the current snapshot (0 = up to date)
+    private long dirtySince;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public CatalogSnapshotService(
+            @Value("${app.catalog.snapshot.dir:./data/catalog}") String dir,
+            @Value("${app.catalog.snapshot.debounce-ms:2000}") long debounceMillis,
+            @Value("${app.catalog.snapshot.max-delay-ms:30000}") long maxDelayMillis
+    ) {
+        this.dir = Paths.get(dir).toAbsolutePath().normalize();
+        this.debounceMillis = debounceMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    // null until the first snapshot has been written
+    public Snapshot getCurrent() {
+        return current;
+    }
+
+    // =================================================
+    // ⏱ DEBOUNCED REGENERATION
+    // =================================================
+
+    @Scheduled(initialDelay = 1000, fixedDelayString = "${app.catalog.snapshot.check-interval-ms:500}")
+    public void regenerateIfChanged() {
+
+        Snapshot snapshot = current;
+        long version = catalogVersionService.getVersion();
+        long stockVersion = catalogVersionService.getStockVersion();
+
+        if (snapshot != null && snapshot.version() == version && snapshot.stockVersion() == stockVersion) {
+            dirtySince = 0;
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (dirtySince == 0) {
+            dirtySince = now;
+        }
+
+        boolean quiet = now - catalogVersionService.getResponseLastModified() >= debounceMillis;
+        boolean overdue = now - dirtySince >= maxDelayMillis;
+
+        if (snapshot == null || quiet || overdue) {
+            try {
+                generate();
+                dirtySince = 0;
+            } catch (IOException | RuntimeException e) {
+                log.warn("Catalog snapshot generation failed", e);
+            }
+        }
+    }
+
+    // =================================================
+    // 📝 GENERATION (STREAMED, ATOMIC RENAME)
+    // =================================================
+
+    private void generate() throws IOException {
+
+        long start = System.currentTimeMillis();
+
+        // Read before scanning: a write during the scan leaves the
+        // snapshot one version behind and triggers another pass
+        long version = catalogVersionService.getVersion();
+        long stockVersion = catalogVersionService.getStockVersion();
+        long lastModified = catalogVersionService.getResponseLastModified();
+        String tag = catalogVersionService.getResponseTag();
+
+        Files.createDirectories(dir);
+
+        Path json = dir.resolve(FILE_PREFIX + tag + ".json");
+        Path gzip = dir.resolve(FILE_PREFIX + tag + ".json.gz");
+        Path jsonTmp = dir.resolve(json.getFileName() + ".tmp");
+        Path gzipTmp = dir.resolve(gzip.getFileName() + ".tmp");
+
+        int[] products = new int[1];
+
+        try (OutputStream jsonOut = new BufferedOutputStream(Files.newOutputStream(jsonTmp), 64 * 1024);
+             OutputStream gzipOut = new BestGzipOutputStream(
+                     new BufferedOutputStream(Files.newOutputStream(gzipTmp), 64 * 1024));
+             JsonGenerator generator = objectMapper.createGenerator(new TeeOutputStream(jsonOut, gzipOut))) {
+
+            generator.writeStartObject();
+            generator.writeStringProperty("version", tag);
+            generator.writeStringProperty("generatedAt", Instant.now().toString());
+
+            generator.writeArrayPropertyStart("categories");
+            for (Category category : categoryRepository.findByActiveTrue()) {
+                generator.writePOJO(category);
+            }
+            generator.writeEndArray();
+
+            generator.writeArrayPropertyStart("products");
+            productRepository.forEachActiveChunk(CHUNK_SIZE, chunk -> {
+                for (ProductDetailResponse product : chunk) {
+                    generator.writePOJO(product.toSummary());
+                }
+                products[0] += chunk.size();
+            });
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(jsonTmp);
+            Files.deleteIfExists(gzipTmp);
+            throw e;
+        }
+
+        Files.move(jsonTmp, json, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(gzipTmp, gzip, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Snapshot previous = current;
+        current = new Snapshot(tag, version, stockVersion, lastModified, json, gzip);
+
+        // Keep the previous pair: a response may still be sending it
+        deleteOlderThan(previous);
+
+        log.info("Catalog snapshot {} written: {} products, {} KB ({} KB gzip) in {} ms",
+                tag, products[0], Files.size(json) / 1024, Files.size(gzip) / 1024,
+                System.currentTimeMillis() - start);
+    }
+
+    private void deleteOlderThan(Snapshot keep) {
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                if (isKept(file, current) || isKept(file, keep)) {
+                    continue;
+                }
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up old catalog snapshots", e);
+        }
+    }
+
+    private static boolean isKept(Path file, Snapshot snapshot) {
+        return snapshot != null && (file.equals(snapshot.json()) || file.equals(snapshot.gzip()));
+    }
+
+    // Writes every byte to both streams (plain + gzip in one pass)
+    private static class TeeOutputStream extends OutputStream {
+
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            first.write(buffer, offset, length);
+            second.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+        // Both streams are closed by their own try-with-resources
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    // Compressed once, served many times: spend the CPU on ratio
+    private static class BestGzipOutputStream extends GZIPOutputStream {
+
+        BestGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 64 * 1024);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.celebrationpoint.backend.service.catalog;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the public catalog (products + categories).
+ *
+ * Every admin product / category write bumps it, so any catalog response
+ * can be identified by (boot epoch, version). The boot epoch keeps tags
+ * issued before a restart from matching after it, since the counter
+ * itself is not persisted.
+ *
+ * Stock movements (reservations, releases, restocks) move a separate
+ * stock counter instead. Prices and availability stay the same, so cart
+ * quotes keyed on the catalog version stay valid, while response tags
+ * and the catalog snapshot (which carry stock) follow both counters.
+ */
+@Service
+public class CatalogVersionService {
+
+    private final String bootEpoch = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    private final AtomicLong stockVersion = new AtomicLong();
+    private volatile long stockLastModified = lastModified;
+
+    public void bump() {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    public void bumpStock() {
+        stockVersion.incrementAndGet();
+        stockLastModified = System.currentTimeMillis();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public long getStockVersion() {
+        return stockVersion.get();
+    }
+
+    // e.g. "m1x2k3-42", unquoted
+    public String getTag() {
+        return bootEpoch + "-" + version.get();
+    }
+
+    // =================================================
+    // 🏷 RESPONSE VALIDATORS (CATALOG + STOCK)
+    // =================================================
+
+    // e.g. "m1x2k3-42.1337", unquoted
+    public String getResponseTag() {
+        return getTag() + "." + stockVersion.get();
+    }
+
+    public long getResponseLastModified() {
+        return Math.max(lastModified, stockLastModified);
+    }
+}
@@ -0,0 +1,298 @@
+package com.celebrationpoint.backend.service.facet;
+
+import com.celebrationpoint.backend.constants.PriceBand;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.repository.ProductRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps over active product ids:
+ * one per category, one per price band and one for "in stock".
+ *
+ * Filters are answered by OR-ing the selected options of a facet and
+ * AND-ing facets together. Counts are disjunctive: the counts shown next
+ * to a facet's options apply every *other* facet's selection, so picking
+ * "Balloons" doesn't zero out the other categories.
+ *
+ * Built at startup, then maintained per product write.
+ */
+@Service
+public class FacetIndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(FacetIndexService.class);
+
+    private static final int BUILD_CHUNK_SIZE = 1000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final RoaringBitmap active = new RoaringBitmap();
+    private final RoaringBitmap inStock = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<PriceBand, RoaringBitmap> byPriceBand = new EnumMap<>(PriceBand.class);
+
+    // Last indexed facet values per product, to clear old bits on update
+    private final Map<Integer, Entry> entries = new HashMap<>();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    public FacetIndexService() {
+        for (PriceBand band : PriceBand.values()) {
+            byPriceBand.put(band, new RoaringBitmap());
+        }
+    }
+
+    // =================================================
+    // 🚀 STARTUP BUILD
+    // =================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+
+        long start = System.currentTimeMillis();
+
+        productRepository.forEachActiveChunk(BUILD_CHUNK_SIZE, chunk -> chunk.forEach(this::onProductSaved));
+
+        log.info("Facet index built: {} products in {} ms",
+                active.getCardinality(), System.currentTimeMillis() - start);
+    }
+
+    // =================================================
+    // ✏ INCREMENTAL UPDATES
+    // =================================================
+
+    public void onProductSaved(ProductDetailResponse product) {
+
+        int id = Math.toIntExact(product.getId());
+
+        lock.writeLock().lock();
+        try {
+            clear(id);
+
+            if (!product.isActive()) {
+                return;
+            }
+
+            Entry entry = new Entry(
+                    product.getCategoryId(),
+                    PriceBand.of(product.getPrice()),
+                    product.getStockQuantity() > 0
+            );
+
+            active.add(id);
+            byCategory.computeIfAbsent(entry.categoryId, c -> new RoaringBitmap()).add(id);
+            byPriceBand.get(entry.priceBand).add(id);
+            if (entry.inStock) {
+                inStock.add(id);
+            }
+            entries.put(id, entry);
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onProductDeleted(Long productId) {
+
+        lock.writeLock().lock();
+        try {
+            clear(Math.toIntExact(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // =================================================
+    // 🔍 QUERIES
+    // =================================================
+
+    public int count(ProductFilter filter) {
+
+        lock.readLock().lock();
+        try {
+            return match(filter).getCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active products per category. The category bitmaps are kept up to
+     * date on every product write, so this is one cardinality per category.
+     */
+    public Map<Long, Integer> categoryCounts() {
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> counts = new HashMap<>();
+            byCategory.forEach((categoryId, bitmap) -> counts.put(categoryId, bitmap.getCardinality()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids matching the filter in descending id order (NEWEST listing),
+     * starting below beforeId (exclusive, null = from the top).
+     */
+    public List<Long> newestIds(ProductFilter filter, Long beforeId, int limit) {
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matching = match(filter);
+            List<Long> ids = new ArrayList<>(limit);
+
+            long from = beforeId == null ? Integer.MAX_VALUE : beforeId - 1;
+
+            while (ids.size() < limit && from >= 0) {
+                long id = matching.previousValue((int) from);
+                if (id < 0) {
+                    break;
+                }
+                ids.add(id);
+                from = id - 1;
+            }
+
+            return ids;
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public FacetCounts counts(ProductFilter filter) {
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap categories = categoryMatch(filter);
+            RoaringBitmap prices = priceMatch(filter);
+            RoaringBitmap stock = stockMatch(filter);
+
+            RoaringBitmap pricesAndStock = RoaringBitmap.and(prices, stock);
+            RoaringBitmap categoriesAndStock = RoaringBitmap.and(categories, stock);
+            RoaringBitmap categoriesAndPrices = RoaringBitmap.and(categories, prices);
+
+            Map<Long, Integer> categoryCounts = new LinkedHashMap<>();
+            byCategory.forEach((categoryId, bitmap) -> {
+                int count = RoaringBitmap.andCardinality(bitmap, pricesAndStock);
+                if (count > 0) {
+                    categoryCounts.put(categoryId, count);
+                }
+            });
+
+            Map<PriceBand, Integer> priceCounts = new EnumMap<>(PriceBand.class);
+            byPriceBand.forEach((band, bitmap) ->
+                    priceCounts.put(band, RoaringBitmap.andCardinality(bitmap, categoriesAndStock))
+            );
+
+            int inStockCount = RoaringBitmap.andCardinality(inStock, categoriesAndPrices);
+            int outOfStockCount = categoriesAndPrices.getCardinality() - inStockCount;
+
+            return new FacetCounts(
+                    RoaringBitmap.andCardinality(categoriesAndPrices, stock),
+                    categoryCounts,
+                    priceCounts,
+                    inStockCount,
+                    outOfStockCount
+            );
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // =================================================
+    // 🔧 BITMAP HELPERS (call under the read lock)
+    // =================================================
+
+    private RoaringBitmap match(ProductFilter filter) {
+        RoaringBitmap result = RoaringBitmap.and(categoryMatch(filter), priceMatch(filter));
+        result.and(stockMatch(filter));
+        return result;
+    }
+
+    private RoaringBitmap categoryMatch(ProductFilter filter) {
+
+        if (filter.getCategoryIds().isEmpty()) {
+            return active;
+        }
+
+        RoaringBitmap result = new RoaringBitmap();
+        for (Long categoryId : filter.getCategoryIds()) {
+            RoaringBitmap bitmap = byCategory.get(categoryId);
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap priceMatch(ProductFilter filter) {
+
+        if (filter.getPriceBands().isEmpty()) {
+            return active;
+        }
+
+        RoaringBitmap result = new RoaringBitmap();
+        for (PriceBand band : filter.getPriceBands()) {
+            result.or(byPriceBand.get(band));
+        }
+        return result;
+    }
+
+    private RoaringBitmap stockMatch(ProductFilter filter) {
+
+        if (filter.getInStock() == null) {
+            return active;
+        }
+
+        return filter.getInStock() ? inStock : RoaringBitmap.andNot(active, inStock);
+    }
+
+    private void clear(int id) {
+
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+
+        active.remove(id);
+        inStock.remove(id);
+        byPriceBand.get(previous.priceBand).remove(id);
+
+        RoaringBitmap category = byCategory.get(previous.categoryId);
+        if (category != null) {
+            category.remove(id);
+            if (category.isEmpty()) {
+                byCategory.remove(previous.categoryId);
+            }
+        }
+    }
+
+    private record Entry(Long categoryId, PriceBand priceBand, boolean inStock) {
+    }
+
+    public record FacetCounts(
+            int total,
+            Map<Long, Integer> categories,
+            Map<PriceBand, Integer> priceBands,
+            int inStock,
+            int outOfStock
+    ) {
+    }
+}
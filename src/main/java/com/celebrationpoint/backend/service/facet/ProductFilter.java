@@ -0,0 +1,71 @@
+package com.celebrationpoint.backend.service.facet;
+
+import com.celebrationpoint.backend.constants.PriceBand;
+
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Storefront listing filter.
+ * Options inside one facet are OR-ed, facets are AND-ed:
+ * (category A or B) and (band X or Y) and in stock.
+ */
+public class ProductFilter {
+
+    private final Set<Long> categoryIds;
+    private final Set<PriceBand> priceBands;
+    private final Boolean inStock;
+
+    private ProductFilter(Set<Long> categoryIds, Set<PriceBand> priceBands, Boolean inStock) {
+        this.categoryIds = categoryIds;
+        this.priceBands = priceBands;
+        this.inStock = inStock;
+    }
+
+    // ✅ FROM REQUEST PARAMS (all optional)
+    public static ProductFilter of(List<Long> categoryIds, List<String> priceBands, Boolean inStock) {
+
+        Set<Long> categories = categoryIds == null
+                ? Set.of()
+                : Set.copyOf(new LinkedHashSet<>(categoryIds));
+
+        Set<PriceBand> bands = EnumSet.noneOf(PriceBand.class);
+        if (priceBands != null) {
+            priceBands.stream()
+                    .filter(b -> !b.isBlank())
+                    .map(PriceBand::from)
+                    .forEach(bands::add);
+        }
+
+        return new ProductFilter(categories, Set.copyOf(bands), inStock);
+    }
+
+    public ProductFilter withCategory(Long categoryId) {
+        return new ProductFilter(Set.of(categoryId), priceBands, inStock);
+    }
+
+    public boolean isEmpty() {
+        return categoryIds.isEmpty() && priceBands.isEmpty() && inStock == null;
+    }
+
+    // Category id when the filter is exactly "one category", else null
+    public Long singleCategoryOnly() {
+        return categoryIds.size() == 1 && priceBands.isEmpty() && inStock == null
+                ? categoryIds.iterator().next()
+                : null;
+    }
+
+    public Set<Long> getCategoryIds() {
+        return categoryIds;
+    }
+
+    public Set<PriceBand> getPriceBands() {
+        return priceBands;
+    }
+
+    public Boolean getInStock() {
+        return inStock;
+    }
+}
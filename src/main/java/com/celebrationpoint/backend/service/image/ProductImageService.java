@@ -0,0 +1,350 @@
+package com.celebrationpoint.backend.service.image;
+
+import com.celebrationpoint.backend.constants.ImageVariant;
+import com.celebrationpoint.backend.exception.ResourceNotFoundException;
+import com.celebrationpoint.backend.repository.ProductRepository;
+import com.celebrationpoint.backend.service.product.ProductService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Product image ingestion.
+ *
+ * The upload is moved to local disk inside the request, then a bounded
+ * worker pool decodes it once and writes the thumbnail / listing / detail
+ * JPEG variants to {dir}/{productId}/{version}/. When all variants exist,
+ * only the image_url column is switched to the new detail URL (so admin
+ * edits made meanwhile are kept) and older versions are deleted.
+ *
+ * The header is read before decoding and anything above max-pixels is
+ * rejected: a small compressed file can otherwise expand into gigabytes
+ * of raster.
+ *
+ * Every upload gets a new version directory, so variant URLs never change
+ * content and can be cached forever.
+ */
+@Service
+public class ProductImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImageService.class);
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    // Swap the URL and hand back the one it replaced, in one statement
+    private static final String SWAP_IMAGE_URL_SQL = """
+            UPDATE products p SET image_url = ?
+              FROM (SELECT id, image_url FROM products WHERE id = ? FOR UPDATE) old
+             WHERE p.id = old.id
+            RETURNING old.image_url
+            """;
+
+    public enum Status { QUEUED, PROCESSING, READY, FAILED }
+
+    private final Path root;
+    private final long maxPixels;
+    private final ThreadPoolExecutor workers;
+    private final Map<Long, Map<String, Object>> statusByProduct = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public ProductImageService(
+            @Value("${app.images.dir:./data/images}") String dir,
+            @Value("${app.images.workers:2}") int workerCount,
+            @Value("${app.images.queue-capacity:64}") int queueCapacity,
+            @Value("${app.images.max-pixels:40000000}") long maxPixels
+    ) {
+        this.root = Paths.get(dir).toAbsolutePath().normalize();
+        this.maxPixels = maxPixels;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerCount,
+                workerCount,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "product-image-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // =================================================
+    // 📤 ACCEPT UPLOAD (REQUEST THREAD)
+    // =================================================
+
+    public Map<String, Object> accept(Long productId, MultipartFile file) throws IOException {
+
+        if (!productRepository.existsById(productId)) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Image file is required");
+        }
+        if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
+            throw new IllegalArgumentException("Only image uploads are accepted");
+        }
+
+        String version = Long.toString(System.currentTimeMillis(), 36);
+        Path versionDir = productDir(productId).resolve(version);
+        Files.createDirectories(versionDir);
+
+        // Moves (or streams) the multipart temp file; bytes never sit in the heap
+        Path original = versionDir.resolve("original.upload");
+        file.transferTo(original);
+
+        try {
+            workers.execute(() -> process(productId, version, original));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(versionDir);
+            throw new IllegalStateException("Image processing is busy, please retry shortly");
+        }
+
+        return updateStatus(productId, Status.QUEUED, version, null);
+    }
+
+    public Map<String, Object> getStatus(Long productId) {
+        return statusByProduct.get(productId);
+    }
+
+    public Path resolveVariant(Long productId, String version, ImageVariant variant) {
+        return productDir(productId).resolve(version).resolve(variant.fileName() + ".jpg");
+    }
+
+    // =================================================
+    // 🖼 PROCESS (WORKER THREAD)
+    // =================================================
+
+    private void process(Long productId, String version, Path original) {
+
+        updateStatus(productId, Status.PROCESSING, version, null);
+        Path versionDir = original.getParent();
+
+        try {
+            BufferedImage source = decode(original);
+
+            // Largest first, each smaller variant is scaled from the previous one
+            BufferedImage current = flatten(source);
+            for (ImageVariant variant : new ImageVariant[]{ImageVariant.DETAIL, ImageVariant.LISTING, ImageVariant.THUMBNAIL}) {
+                current = scaleDown(current, variant.getSize());
+                writeJpeg(current, versionDir.resolve(variant.fileName() + ".jpg"));
+            }
+
+            Files.deleteIfExists(original);
+
+            List<String> previous = jdbcTemplate.queryForList(SWAP_IMAGE_URL_SQL, String.class,
+                    ImageVariant.DETAIL.url(productId, version), productId);
+            if (previous.isEmpty()) {
+                deleteQuietly(versionDir);
+                return;
+            }
+
+            productRepository.findDetailById(productId)
+                    .ifPresent(saved -> productService.onProductsBulkSaved(List.of(saved)));
+
+            deleteOtherVersions(productId, version, previous.get(0));
+            updateStatus(productId, Status.READY, version, null);
+
+        } catch (Exception e) {
+            log.warn("Image processing failed for product {}", productId, e);
+            deleteQuietly(versionDir);
+            updateStatus(productId, Status.FAILED, version, e.getMessage());
+        }
+    }
+
+    // Dimensions come from the header; the raster is only allocated once they pass
+    private BufferedImage decode(Path original) throws IOException {
+
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IOException("Image too large: " + reader.getWidth(0) + "x"
+                            + reader.getHeight(0) + " exceeds " + maxPixels + " pixels");
+                }
+
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // JPEG has no alpha: paint transparent areas white
+    private BufferedImage flatten(BufferedImage source) {
+
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+
+    /**
+     * Fit within size x size keeping the aspect ratio. Large reductions
+     * are done in halving steps, which keeps bilinear filtering sharp.
+     */
+    private BufferedImage scaleDown(BufferedImage image, int size) {
+
+        int longest = Math.max(image.getWidth(), image.getHeight());
+        if (longest <= size) {
+            return image;
+        }
+
+        double scale = (double) size / longest;
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(current, 0, 0, width, height, null);
+            g.dispose();
+            current = next;
+
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    // Write next to the target, then atomically rename into place
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(tmp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // =================================================
+    // 🔧 HELPERS
+    // =================================================
+
+    private Path productDir(Long productId) {
+        return root.resolve(String.valueOf(productId));
+    }
+
+    /**
+     * Keep only the live version. Versions that are still being processed
+     * (newer uploads racing this one) are left alone.
+     */
+    private void deleteOtherVersions(Long productId, String keep, String previousUrl) {
+
+        if (previousUrl == null || !previousUrl.startsWith(ImageVariant.URL_PREFIX)) {
+            return;
+        }
+
+        String[] parts = previousUrl.substring(ImageVariant.URL_PREFIX.length()).split("/");
+        if (parts.length == 3 && !parts[1].equals(keep)) {
+            deleteQuietly(productDir(productId).resolve(parts[1]));
+        }
+    }
+
+    private Map<String, Object> updateStatus(Long productId, Status status, String version, String error) {
+
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("productId", productId);
+        value.put("status", status);
+        value.put("version", version);
+        if (status == Status.READY) {
+            value.put("images", ImageVariant.urlsFor(ImageVariant.DETAIL.url(productId, version)));
+        }
+        if (error != null) {
+            value.put("error", error);
+        }
+
+        statusByProduct.put(productId, value);
+        return value;
+    }
+
+    private void deleteQuietly(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            walk.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        } catch (IOException e) {
+            log.warn("Could not delete {}", path, e);
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package com.celebrationpoint.backend.service.inventory;
+
+import com.celebrationpoint.backend.dto.FlashSaleResponse;
+import com.celebrationpoint.backend.entity.FlashSale;
+import com.celebrationpoint.backend.entity.FlashSaleStatus;
+import com.celebrationpoint.backend.entity.StockMovementType;
+import com.celebrationpoint.backend.exception.ResourceNotFoundException;
+import com.celebrationpoint.backend.repository.FlashSaleRepository;
+import com.celebrationpoint.backend.repository.ProductRepository;
+import com.celebrationpoint.backend.service.product.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Flash-sale mode: stock of a product on sale lives in a
+ * StripedStockCounter instead of its products row, so checkouts for it
+ * don't queue on one row lock.
+ *
+ * The database stays the source of truth. Every unit taken is written
+ * as a stock_reservations row (with flash_sale_id) in the order's own
+ * transaction, so after a crash units left = allocated - units in the
+ * sale's non-released reservations. The products row is only a view of
+ * the counter, written behind every flush interval.
+ *
+ * The counters never go below zero and only start from the sale's row
+ * stock, so a sale can't sell more than the stock loaded at its start.
+ *
+ * Starting / ending a sale takes the write side of one lock; a checkout
+ * holds the read side only while it takes units from the counters, and
+ * only when one of its lines is on sale. Units are handed back when the
+ * checkout's transaction doesn't commit, whatever failed after the claim.
+ * A sale is visible as active before its start commits, so a checkout
+ * that raced it on the row-locked path sees it (startedDuring) and retries.
+ *
+ * Counters are per instance: run flash sales on a single instance.
+ */
+@Service
+public class FlashSaleService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlashSaleService.class);
+
+    private static final String INSERT_RESERVATION_SQL = """
+            WITH ins AS (
+                INSERT INTO stock_reservations
+                    (order_id, product_id, quantity, status, expires_at, created_at, flash_sale_id)
+                VALUES (?, ?, ?, 'HELD', ?, ?, ?)
+                RETURNING order_id, product_id, quantity, created_at
+            )
+            INSERT INTO stock_movements (product_id, delta, type, order_id, created_at)
+            SELECT product_id, -quantity, 'RESERVATION', order_id, created_at FROM ins
+            """;
+
+    // %s: the rows to release (locked); they are written to the ledger as the given type
+    private static final String RELEASE_SQL_TEMPLATE = """
+            WITH released AS (
+                UPDATE stock_reservations s
+                   SET status = 'RELEASED', updated_at = ?
+                 WHERE s.id IN (
+                        %s
+                 )
+                RETURNING s.flash_sale_id, s.order_id, s.product_id, s.quantity, s.updated_at
+            ),
+            mov AS (
+                INSERT INTO stock_movements (product_id, delta, type, order_id, created_at)
+                SELECT product_id, quantity, '%s', order_id, updated_at FROM released
+            )
+            SELECT flash_sale_id, product_id, quantity FROM released
+            """;
+
+    private static final String RELEASE_ORDER_SQL = RELEASE_SQL_TEMPLATE.formatted("""
+                    SELECT id FROM stock_reservations
+                     WHERE order_id = ? AND flash_sale_id IS NOT NULL AND status IN ('HELD', 'COMMITTED')
+                       FOR UPDATE
+            """, StockMovementType.CANCELLATION);
+
+    private static final String RELEASE_EXPIRED_SQL = RELEASE_SQL_TEMPLATE.formatted("""
+                    SELECT id FROM stock_reservations
+                     WHERE status = 'HELD' AND flash_sale_id IS NOT NULL AND expires_at < ?
+                     ORDER BY id
+                     LIMIT ?
+                       FOR UPDATE SKIP LOCKED
+            """, StockMovementType.EXPIRY);
+
+    // The sale takes over the product's open reservations: they give back to its counter
+    private static final String ADOPT_SQL = """
+            WITH adopted AS (
+                UPDATE stock_reservations
+                   SET flash_sale_id = ?
+                 WHERE product_id = ? AND status IN ('HELD', 'COMMITTED')
+                RETURNING quantity
+            )
+            SELECT COALESCE(SUM(quantity), 0) FROM adopted
+            """;
+
+    private static final String SOLD_SQL = """
+            SELECT COALESCE(SUM(quantity), 0)
+              FROM stock_reservations
+             WHERE flash_sale_id = ? AND status <> 'RELEASED'
+            """;
+
+    private static final String LOCK_STOCK_SQL = "SELECT stock_quantity FROM products WHERE id = ? FOR UPDATE";
+
+    private static final String SET_STOCK_SQL = "UPDATE products SET stock_quantity = ? WHERE id = ?";
+
+    private static final String ADD_STOCK_SQL = "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?";
+
+    /** Units taken by one checkout, per product. shortIds set = nothing taken. */
+    public static final class Claim {
+
+        private final Map<Long, Integer> units;
+        private final Map<Long, Long> saleIds;
+        private final List<Long> shortIds;
+
+        // Set once the units went back (explicit cancel or rollback)
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+
+        private Claim(Map<Long, Integer> units, Map<Long, Long> saleIds, List<Long> shortIds) {
+            this.units = units;
+            this.saleIds = saleIds;
+            this.shortIds = shortIds;
+        }
+
+        public Map<Long, Integer> units() {
+            return units;
+        }
+
+        public Map<Long, Long> saleIds() {
+            return saleIds;
+        }
+
+        public List<Long> shortIds() {
+            return shortIds;
+        }
+
+        public boolean isShort() {
+            return !shortIds.isEmpty();
+        }
+    }
+
+    private record Released(long saleId, long productId, int quantity) {
+    }
+
+    private static class ActiveSale {
+
+        private final long saleId;
+        private final long productId;
+        private final StripedStockCounter stock;
+
+        // Changed since the last write-behind
+        private final AtomicBoolean dirty = new AtomicBoolean();
+
+        ActiveSale(long saleId, long productId, StripedStockCounter stock) {
+            this.saleId = saleId;
+            this.productId = productId;
+            this.stock = stock;
+        }
+    }
+
+    private final ReentrantReadWriteLock transition = new ReentrantReadWriteLock();
+
+    // product id → its running sale
+    private final Map<Long, ActiveSale> active = new ConcurrentHashMap<>();
+
+    private final int shards;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private FlashSaleRepository flashSaleRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    private final TransactionTemplate requiresNew;
+
+    public FlashSaleService(
+            @Value("${app.inventory.flash-sale.shards:16}") int shards,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.shards = shards;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // =================================================
+    // 🛒 CHECKOUT (CALL INSIDE THE ORDER TRANSACTION)
+    // =================================================
+
+    /**
+     * Take the units of every flash-sale line, or none of them.
+     * Lines for products not on sale are left to the caller.
+     * The units go back by themselves unless the transaction commits.
+     */
+    public Claim claim(Map<Long, Integer> lines) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Flash-sale stock can only be claimed inside a transaction");
+        }
+
+        Map<Long, Integer> units = new LinkedHashMap<>();
+        Map<Long, Long> saleIds = new LinkedHashMap<>();
+        List<Long> shortIds = new ArrayList<>();
+
+        // Nothing on sale in this order: no lock at all
+        if (active.isEmpty() || lines.keySet().stream().noneMatch(active::containsKey)) {
+            return new Claim(units, saleIds, shortIds);
+        }
+
+        // A sale can't end between finding it and taking from its counter
+        transition.readLock().lock();
+        try {
+            lines.forEach((productId, quantity) -> {
+                ActiveSale sale = active.get(productId);
+                if (sale == null) {
+                    return;
+                }
+                if (sale.stock.tryTake(quantity)) {
+                    sale.dirty.set(true);
+                    units.put(productId, quantity);
+                    saleIds.put(productId, sale.saleId);
+                } else {
+                    shortIds.add(productId);
+                }
+            });
+
+            if (!shortIds.isEmpty()) {
+                cancel(new Claim(units, saleIds, List.of()));
+                return new Claim(new LinkedHashMap<>(), new LinkedHashMap<>(), shortIds);
+            }
+        } finally {
+            transition.readLock().unlock();
+        }
+
+        Claim claim = new Claim(units, saleIds, shortIds);
+
+        // Registered as soon as units are taken: whatever fails later, they come back
+        if (!units.isEmpty()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        cancel(claim);
+                    }
+                }
+            });
+        }
+        return claim;
+    }
+
+    // The rest of the order didn't fit: hand the units straight back (once)
+    public void cancel(Claim claim) {
+        if (!claim.cancelled.compareAndSet(false, true)) {
+            return;
+        }
+        claim.units().forEach((productId, quantity) ->
+                giveBack(claim.saleIds().get(productId), productId, quantity));
+    }
+
+    // Write the claim's reservations in the order's transaction
+    public void record(Long orderId, Claim claim, LocalDateTime expiresAt, LocalDateTime now) {
+
+        if (claim.units().isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        claim.units().forEach((productId, quantity) -> rows.add(new Object[]{
+                orderId, productId, quantity, Timestamp.valueOf(expiresAt), Timestamp.valueOf(now),
+                claim.saleIds().get(productId)
+        }));
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION_SQL, rows);
+    }
+
+    /**
+     * True when a sale started for one of these products while the caller
+     * was on the row-locked path. Call once the rows are locked: the start
+     * either committed first (and is seen here) or waits for the caller.
+     */
+    public boolean startedDuring(Collection<Long> productIds) {
+        return !active.isEmpty() && productIds.stream().anyMatch(active::containsKey);
+    }
+
+    // =================================================
+    // ↩ RELEASE
+    // =================================================
+
+    // Inside the caller's transaction; units go back once it commits
+    public void releaseOrder(Long orderId) {
+
+        List<Released> released = jdbcTemplate.query(RELEASE_ORDER_SQL, (rs, i) ->
+                new Released(rs.getLong(1), rs.getLong(2), rs.getInt(3)),
+                Timestamp.valueOf(LocalDateTime.now()), orderId);
+
+        if (released.isEmpty()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                released.forEach(r -> giveBack(r.saleId(), r.productId(), r.quantity()));
+            }
+        });
+    }
+
+    // One chunk of expired holds in its own transaction. Returns rows released.
+    public int releaseExpired(int limit) {
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Released> released = transactionTemplate.execute(status ->
+                jdbcTemplate.query(RELEASE_EXPIRED_SQL, (rs, i) ->
+                        new Released(rs.getLong(1), rs.getLong(2), rs.getInt(3)),
+                        Timestamp.valueOf(now), Timestamp.valueOf(now), limit)
+        );
+
+        released.forEach(r -> giveBack(r.saleId(), r.productId(), r.quantity()));
+        return released.size();
+    }
+
+    private void giveBack(long saleId, long productId, int quantity) {
+
+        transition.readLock().lock();
+        try {
+            ActiveSale sale = active.get(productId);
+            if (sale != null && sale.saleId == saleId) {
+                sale.stock.add(quantity);
+                sale.dirty.set(true);
+                return;
+            }
+
+            // The sale has ended: the units belong to the products row again
+            requiresNew.executeWithoutResult(status ->
+                    jdbcTemplate.update(ADD_STOCK_SQL, quantity, productId));
+        } finally {
+            transition.readLock().unlock();
+        }
+
+        refresh(List.of(productId));
+    }
+
+    // =================================================
+    // ⏱ WRITE-BEHIND (COUNTERS → PRODUCTS ROWS)
+    // =================================================
+
+    @Scheduled(initialDelay = 1000, fixedDelayString = "${app.inventory.flash-sale.flush-interval-ms:250}")
+    public void flush() {
+
+        if (active.isEmpty()) {
+            return;
+        }
+
+        List<Long> flushed = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        transition.readLock().lock();
+        try {
+            for (ActiveSale sale : active.values()) {
+                if (sale.dirty.getAndSet(false)) {
+                    rows.add(new Object[]{sale.stock.available(), sale.productId});
+                    flushed.add(sale.productId);
+                }
+            }
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(SET_STOCK_SQL, rows);
+            }
+        } finally {
+            transition.readLock().unlock();
+        }
+
+        refresh(flushed);
+    }
+
+    // =================================================
+    // 🚦 START / END (ADMIN)
+    // =================================================
+
+    public FlashSaleResponse start(Long productId) {
+
+        FlashSale sale;
+        int stock;
+
+        transition.writeLock().lock();
+        try {
+            if (active.containsKey(productId)) {
+                throw new IllegalStateException("Product is already in a flash sale");
+            }
+
+            int[] rowStock = new int[1];
+            try {
+                sale = transactionTemplate.execute(status -> {
+                    rowStock[0] = lockStock(productId);
+
+                    FlashSale created = flashSaleRepository.save(new FlashSale(productId, rowStock[0]));
+                    Integer adopted = jdbcTemplate.queryForObject(ADOPT_SQL, Integer.class, created.getId(), productId);
+                    created.setAllocatedQuantity(rowStock[0] + adopted);
+                    FlashSale saved = flashSaleRepository.save(created);
+
+                    // Before commit: a checkout queued on the row lock must see the sale
+                    active.put(productId, new ActiveSale(saved.getId(), productId,
+                            new StripedStockCounter(shards, rowStock[0])));
+                    return saved;
+                });
+            } catch (RuntimeException e) {
+                active.remove(productId);
+                throw e;
+            }
+            stock = rowStock[0];
+        } finally {
+            transition.writeLock().unlock();
+        }
+
+        log.info("Flash sale {} started for product {} with {} units", sale.getId(), productId, stock);
+        return toResponse(sale);
+    }
+
+    public FlashSaleResponse end(Long productId) {
+
+        FlashSale sale;
+        long remaining;
+
+        transition.writeLock().lock();
+        try {
+            ActiveSale running = active.get(productId);
+            if (running == null) {
+                throw new IllegalStateException("Product is not in a flash sale");
+            }
+
+            // No checkout is running (write lock): the count is exact
+            remaining = running.stock.available();
+
+            sale = transactionTemplate.execute(status -> {
+                lockStock(productId);
+                jdbcTemplate.update(SET_STOCK_SQL, remaining, productId);
+
+                FlashSale ended = flashSaleRepository.findById(running.saleId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Flash sale not found"));
+                ended.setStatus(FlashSaleStatus.ENDED);
+                ended.setEndedAt(LocalDateTime.now());
+                return flashSaleRepository.save(ended);
+            });
+
+            active.remove(productId);
+        } finally {
+            transition.writeLock().unlock();
+        }
+
+        refresh(List.of(productId));
+
+        log.info("Flash sale {} ended for product {} with {} units left", sale.getId(), productId, remaining);
+        return toResponse(sale);
+    }
+
+    // Its stock is owned by the counters: direct changes would be overwritten
+    public boolean isActive(Long productId) {
+        return active.containsKey(productId);
+    }
+
+    public List<FlashSaleResponse> getRecentSales() {
+        return flashSaleRepository.findTop50ByOrderByStartedAtDesc()
+                .stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    // =================================================
+    // 🚀 STARTUP RECONCILIATION
+    // =================================================
+
+    /**
+     * Rebuild the counters of running sales from their reservations:
+     * units taken by orders that never committed (crash) come back, and
+     * the products row is corrected for flushes that never happened.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+
+        transition.writeLock().lock();
+        try {
+            for (FlashSale sale : flashSaleRepository.findByStatus(FlashSaleStatus.ACTIVE)) {
+
+                long remaining = transactionTemplate.execute(status -> {
+                    lockStock(sale.getProductId());
+                    Long sold = jdbcTemplate.queryForObject(SOLD_SQL, Long.class, sale.getId());
+                    long left = Math.max(0, sale.getAllocatedQuantity() - sold);
+                    jdbcTemplate.update(SET_STOCK_SQL, left, sale.getProductId());
+                    return left;
+                });
+
+                active.put(sale.getProductId(),
+                        new ActiveSale(sale.getId(), sale.getProductId(), new StripedStockCounter(shards, remaining)));
+
+                log.info("Flash sale {} for product {} restored: {} of {} units left",
+                        sale.getId(), sale.getProductId(), remaining, sale.getAllocatedQuantity());
+            }
+        } finally {
+            transition.writeLock().unlock();
+        }
+
+        refresh(new ArrayList<>(active.keySet()));
+    }
+
+    // =================================================
+    // 🔧 HELPERS
+    // =================================================
+
+    private int lockStock(Long productId) {
+        Integer stock = jdbcTemplate.query(LOCK_STOCK_SQL, rs -> rs.next() ? rs.getInt(1) : null, productId);
+        if (stock == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return stock;
+    }
+
+    // Stock changed: refresh cache / search / facets (prices didn't, so no catalog bump)
+    private void refresh(List<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            productService.onStockChanged(productRepository.findDetailsByIdIn(productIds));
+        }
+    }
+
+    private FlashSaleResponse toResponse(FlashSale sale) {
+        ActiveSale running = active.get(sale.getProductId());
+        Long available = running != null && running.saleId == sale.getId() ? running.stock.available() : null;
+
+        return new FlashSaleResponse(
+                sale.getId(),
+                sale.getProductId(),
+                sale.getAllocatedQuantity(),
+                available,
+                sale.getStatus().name(),
+                sale.getStartedAt(),
+                sale.getEndedAt()
+        );
+    }
+}
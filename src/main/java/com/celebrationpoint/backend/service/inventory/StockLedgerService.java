@@ -0,0 +1,346 @@
+package com.celebrationpoint.backend.service.inventory;
+
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.dto.StockLedgerResponse;
+import com.celebrationpoint.backend.entity.StockMovementType;
+import com.celebrationpoint.backend.exception.ResourceNotFoundException;
+import com.celebrationpoint.backend.repository.StockMovementRepository;
+import com.celebrationpoint.backend.repository.StockSnapshotRepository;
+import com.celebrationpoint.backend.service.product.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stock ledger: every change of products.stock_quantity is also an
+ * append-only stock_movements row, written by the same statement.
+ *
+ * products.stock_quantity stays the O(1) read; the ledger explains it
+ * and can rebuild it. Replaying from the start would grow forever, so
+ * compaction periodically rolls each product's StockSnapshot forward
+ * over its older movements:
+ *
+ *   stock = snapshot.quantity + SUM(delta of movements after it)
+ *
+ * Products that have no snapshot yet (created before the ledger, or by
+ * the importer) get an opening balance: current stock minus whatever
+ * movements they already have.
+ *
+ * Movement ids are handed out at insert, not at commit, so compaction
+ * only folds movements older than compact-lag-minutes: a transaction
+ * still open past that would be folded out of order.
+ */
+@Service
+public class StockLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private static final String PRODUCT_COLUMNS = """
+            p.id, p.name, p.description, p.price, p.stock_quantity,
+            p.image_url, p.active, c.id, c.name
+            """;
+
+    private static final RowMapper<ProductDetailResponse> PRODUCT_MAPPER = (rs, i) -> new ProductDetailResponse(
+            rs.getLong(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getBigDecimal(4),
+            rs.getInt(5),
+            rs.getString(6),
+            rs.getBoolean(7),
+            rs.getLong(8),
+            rs.getString(9)
+    );
+
+    // 1: delta, 2: product id, 3: delta (floor check), 4-8: delta, type, note, created by, created at
+    private static final String ADJUST_SQL = """
+            WITH upd AS (
+                UPDATE products p
+                   SET stock_quantity = p.stock_quantity + ?
+                 WHERE p.id = ?
+                   AND p.stock_quantity + ? >= 0
+                RETURNING p.id, p.name, p.description, p.price, p.stock_quantity,
+                          p.image_url, p.active, p.category_id
+            ),
+            mov AS (
+                INSERT INTO stock_movements (product_id, delta, type, note, created_by, created_at)
+                SELECT u.id, ?, ?, ?, ?, ? FROM upd u
+            )
+            SELECT u.id, u.name, u.description, u.price, u.stock_quantity,
+                   u.image_url, u.active, c.id, c.name
+              FROM upd u
+              JOIN categories c ON c.id = u.category_id
+            """;
+
+    private static final String LOCK_STOCK_SQL = "SELECT stock_quantity FROM products WHERE id = ? FOR UPDATE";
+
+    private static final String LEDGER_STOCK_SQL = """
+            SELECT s.quantity + COALESCE((
+                       SELECT SUM(m.delta) FROM stock_movements m
+                        WHERE m.product_id = s.product_id AND m.id > s.last_movement_id
+                   ), 0)
+              FROM stock_snapshots s
+             WHERE s.product_id = ?
+            """;
+
+    // Opening balance = stock now - movements so far (read in one snapshot)
+    private static final String SEED_SQL = """
+            INSERT INTO stock_snapshots (product_id, quantity, last_movement_id, taken_at)
+            SELECT p.id, p.stock_quantity - COALESCE(m.total, 0), 0, ?
+              FROM products p
+              LEFT JOIN (
+                    SELECT product_id, SUM(delta) AS total FROM stock_movements GROUP BY product_id
+              ) m ON m.product_id = p.id
+             WHERE NOT EXISTS (SELECT 1 FROM stock_snapshots s WHERE s.product_id = p.id)
+               AND NOT EXISTS (SELECT 1 FROM flash_sales f WHERE f.product_id = p.id AND f.status = 'ACTIVE')
+            ON CONFLICT (product_id) DO NOTHING
+            """;
+
+    // 1: fold movements created before this, 2: taken at
+    private static final String FOLD_SQL = """
+            WITH bound AS (
+                SELECT COALESCE(MAX(id), 0) AS id FROM stock_movements WHERE created_at < ?
+            ),
+            tail AS (
+                SELECT m.product_id, SUM(m.delta) AS delta, MAX(m.id) AS last_id
+                  FROM stock_movements m
+                  JOIN stock_snapshots s ON s.product_id = m.product_id
+                 WHERE m.id > s.last_movement_id
+                   AND m.id <= (SELECT id FROM bound)
+                 GROUP BY m.product_id
+            )
+            UPDATE stock_snapshots s
+               SET quantity = s.quantity + t.delta,
+                   last_movement_id = t.last_id,
+                   taken_at = ?
+              FROM tail t
+             WHERE s.product_id = t.product_id
+            """;
+
+    private static final String LOCK_RANGE_SQL = """
+            SELECT COUNT(*) FROM (
+                SELECT id FROM products WHERE id > ? AND id <= ? ORDER BY id FOR UPDATE
+            ) locked
+            """;
+
+    // Replay: snapshot + tail for every product in the id range whose row disagrees
+    private static final String REBUILD_RANGE_SQL = """
+            UPDATE products p
+               SET stock_quantity = l.quantity
+              FROM (
+                    SELECT s.product_id, s.quantity + COALESCE(SUM(m.delta), 0) AS quantity
+                      FROM stock_snapshots s
+                      LEFT JOIN stock_movements m
+                             ON m.product_id = s.product_id AND m.id > s.last_movement_id
+                     WHERE s.product_id > ? AND s.product_id <= ?
+                     GROUP BY s.product_id, s.quantity
+                   ) l,
+                   categories c
+             WHERE p.id = l.product_id
+               AND c.id = p.category_id
+               AND p.stock_quantity <> l.quantity
+               AND NOT EXISTS (SELECT 1 FROM flash_sales f WHERE f.product_id = p.id AND f.status = 'ACTIVE')
+            RETURNING\s""" + PRODUCT_COLUMNS;
+
+    private final long compactLagMinutes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockSnapshotRepository stockSnapshotRepository;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    @Autowired
+    private ProductService productService;
+
+    public StockLedgerService(@Value("${app.inventory.ledger.compact-lag-minutes:10}") long compactLagMinutes) {
+        this.compactLagMinutes = compactLagMinutes;
+    }
+
+    // =================================================
+    // ✏ MANUAL MOVEMENTS (ADMIN)
+    // =================================================
+
+    /**
+     * Add (or remove, delta < 0) stock. Concurrent adjustments add up
+     * instead of overwriting each other.
+     */
+    @Transactional
+    public ProductDetailResponse adjust(Long productId, int delta, StockMovementType type, String note, String user) {
+
+        if (type != StockMovementType.RECEIPT && type != StockMovementType.ADJUSTMENT) {
+            throw new IllegalArgumentException("Only RECEIPT and ADJUSTMENT movements can be recorded by hand");
+        }
+        if (delta == 0) {
+            throw new IllegalArgumentException("Delta must not be zero");
+        }
+        if (flashSaleService.isActive(productId)) {
+            throw new IllegalStateException("Product is in a flash sale: end the sale before changing its stock");
+        }
+
+        List<ProductDetailResponse> updated = jdbcTemplate.query(ADJUST_SQL, PRODUCT_MAPPER,
+                delta, productId, delta,
+                delta, type.name(), note, user, Timestamp.valueOf(LocalDateTime.now()));
+
+        if (updated.isEmpty()) {
+            lockStock(productId);
+            throw new IllegalArgumentException("Stock cannot go below zero");
+        }
+
+        // Caches / indexes see the new stock once it is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productService.onStockChanged(updated);
+            }
+        });
+        return updated.get(0);
+    }
+
+    /**
+     * Set stock to a counted value (product edit). Recorded as the
+     * ADJUSTMENT from the value it had when the row was locked.
+     */
+    @Transactional
+    public ProductDetailResponse setStock(Long productId, int quantity, String note, String user) {
+
+        if (quantity < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+
+        int current = lockStock(productId);
+        if (current == quantity) {
+            return null;
+        }
+        return adjust(productId, quantity - current, StockMovementType.ADJUSTMENT, note, user);
+    }
+
+    // =================================================
+    // 🔍 LEDGER VIEW
+    // =================================================
+
+    @Transactional(readOnly = true)
+    public StockLedgerResponse getLedger(Long productId, int limit) {
+
+        Integer stock = jdbcTemplate.query("SELECT stock_quantity FROM products WHERE id = ?",
+                rs -> rs.next() ? rs.getInt(1) : null, productId);
+        if (stock == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+
+        Long ledgerStock = jdbcTemplate.query(LEDGER_STOCK_SQL,
+                rs -> rs.next() ? rs.getLong(1) : null, productId);
+
+        return new StockLedgerResponse(
+                productId,
+                stock,
+                ledgerStock,
+                stockSnapshotRepository.findById(productId).orElse(null),
+                stockMovementRepository.findByProductIdOrderByIdDesc(
+                        productId, PageRequest.of(0, Math.max(1, Math.min(limit, 500))))
+        );
+    }
+
+    // =================================================
+    // 🗜 COMPACTION (SNAPSHOT + OLD TAIL → NEW SNAPSHOT)
+    // =================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.inventory.ledger.compact-cron:0 30 3 * * *}")
+    public void compact() {
+
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+
+        int[] counts = transactionTemplate.execute(status -> new int[]{
+                jdbcTemplate.update(SEED_SQL, Timestamp.valueOf(now)),
+                jdbcTemplate.update(FOLD_SQL,
+                        Timestamp.valueOf(now.minusMinutes(compactLagMinutes)), Timestamp.valueOf(now))
+        });
+
+        log.info("Stock ledger compacted: {} opening balances, {} snapshots rolled forward in {} ms",
+                counts[0], counts[1], System.currentTimeMillis() - start);
+    }
+
+    // =================================================
+    // 🔁 REPLAY (LEDGER → PRODUCTS.STOCK_QUANTITY)
+    // =================================================
+
+    /**
+     * Recompute every product's stock from its snapshot and the movements
+     * after it, in id chunks. Each chunk locks its product rows first, so
+     * no stock change can be half-written while it is read. Returns the
+     * number of products whose stock was corrected.
+     */
+    public int rebuild() {
+
+        long start = System.currentTimeMillis();
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM products", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+
+        int corrected = 0;
+
+        for (long from = 0; from < maxId; from += REBUILD_CHUNK_SIZE) {
+            long to = from + REBUILD_CHUNK_SIZE;
+            long lower = from;
+
+            List<ProductDetailResponse> updated = transactionTemplate.execute(status -> {
+                jdbcTemplate.queryForObject(LOCK_RANGE_SQL, Long.class, lower, to);
+                return jdbcTemplate.query(REBUILD_RANGE_SQL, PRODUCT_MAPPER, lower, to);
+            });
+
+            if (!updated.isEmpty()) {
+                updated.forEach(product -> log.warn("Stock of product {} corrected from the ledger to {}",
+                        product.getId(), product.getStockQuantity()));
+                productService.onStockChanged(updated);
+                corrected += updated.size();
+            }
+        }
+
+        log.info("Stock rebuilt from the ledger: {} products corrected in {} ms",
+                corrected, System.currentTimeMillis() - start);
+        return corrected;
+    }
+
+    // =================================================
+    // 🔧 HELPERS
+    // =================================================
+
+    private int lockStock(Long productId) {
+        Integer stock = jdbcTemplate.query(LOCK_STOCK_SQL, rs -> rs.next() ? rs.getInt(1) : null, productId);
+        if (stock == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+        return stock;
+    }
+}
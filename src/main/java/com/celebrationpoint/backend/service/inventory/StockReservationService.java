@@ -0,0 +1,435 @@
+package com.celebrationpoint.backend.service.inventory;
+
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.entity.StockMovementType;
+import com.celebrationpoint.backend.exception.InsufficientStockException;
+import com.celebrationpoint.backend.service.product.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock reservations for checkout.
+ *
+ * reserve() is one statement per order. It locks the order's product
+ * rows in id order, checks that every line fits, decrements all of them
+ * and records one HELD reservation per line. Either every line is
+ * reserved or none is. Only the rows being bought are locked, so
+ * checkouts for different products never wait for each other, and
+ * checkouts for the same product queue on that one row. Locking in id
+ * order keeps multi-product orders from deadlocking each other.
+ *
+ * HELD reservations expire after the TTL unless the order is paid
+ * (commit). Cancelling the order, a failed payment or expiry hands the
+ * stock back (release). Caches and indexes are refreshed after commit.
+ *
+ * Lines for a product in a flash sale skip the row lock: FlashSaleService
+ * takes them from memory and writes their reservations. If a sale starts
+ * for a row-path product mid-checkout, the checkout fails and is retried.
+ *
+ * Every stock change is also written to the stock_movements ledger by
+ * the same statement.
+ */
+@Service
+public class StockReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockReservationService.class);
+
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private static final String PRODUCT_COLUMNS = """
+            p.id, p.name, p.description, p.price, p.stock_quantity,
+            p.image_url, p.active, c.id, c.name
+            """;
+
+    // 1: product ids, 2: quantities, 3: order id, 4: expires at, 5: created at
+    private static final String RESERVE_SQL = """
+            WITH req AS (
+                SELECT * FROM unnest(?::bigint[], ?::int[]) AS r(product_id, qty)
+            ),
+            locked AS (
+                SELECT p.id, p.stock_quantity, p.active
+                  FROM products p
+                  JOIN req r ON r.product_id = p.id
+                 ORDER BY p.id
+                   FOR UPDATE OF p
+            ),
+            ok AS (
+                SELECT COUNT(*) = (SELECT COUNT(*) FROM req)
+                       AND COALESCE(BOOL_AND(l.active AND l.stock_quantity >= r.qty), false) AS all_lines
+                  FROM req r
+                  JOIN locked l ON l.id = r.product_id
+            ),
+            upd AS (
+                UPDATE products p
+                   SET stock_quantity = p.stock_quantity - r.qty
+                  FROM req r
+                 WHERE p.id = r.product_id
+                   AND p.stock_quantity >= r.qty
+                   AND (SELECT all_lines FROM ok)
+                RETURNING p.id, p.category_id
+            ),
+            ins AS (
+                INSERT INTO stock_reservations
+                    (order_id, product_id, quantity, status, expires_at, created_at)
+                SELECT ?, r.product_id, r.qty, 'HELD', ?, ?
+                  FROM req r
+                  JOIN upd u ON u.id = r.product_id
+                RETURNING order_id, product_id, quantity, created_at
+            ),
+            mov AS (
+                INSERT INTO stock_movements (product_id, delta, type, order_id, created_at)
+                SELECT product_id, -quantity, 'RESERVATION', order_id, created_at FROM ins
+            )
+            SELECT r.product_id, u.id IS NOT NULL
+              FROM req r
+              LEFT JOIN upd u ON u.id = r.product_id
+            """;
+
+    // Stock after reserve: read once the statement above has committed its changes
+    private static final String DETAILS_SQL = "SELECT " + PRODUCT_COLUMNS + """
+              FROM products p
+              JOIN categories c ON c.id = p.category_id
+             WHERE p.id = ANY(?::bigint[])
+            """;
+
+    /*
+     * Hand stock back for the reservations picked by the first %s (which
+     * must lock them), recorded in the ledger as the second %s. Product
+     * rows are locked in id order before any is updated, like reserve().
+     */
+    private static final String RELEASE_SQL_TEMPLATE = """
+            WITH picked AS (
+                %s
+            ),
+            released AS (
+                UPDATE stock_reservations s
+                   SET status = 'RELEASED', updated_at = ?
+                  FROM picked
+                 WHERE s.id = picked.id
+                RETURNING s.order_id, s.product_id, s.quantity, s.updated_at
+            ),
+            mov AS (
+                INSERT INTO stock_movements (product_id, delta, type, order_id, created_at)
+                SELECT product_id, quantity, '%s', order_id, updated_at FROM released
+            ),
+            agg AS (
+                SELECT product_id, SUM(quantity) AS qty FROM released GROUP BY product_id
+            ),
+            locked AS (
+                SELECT p.id FROM products p
+                 WHERE p.id IN (SELECT product_id FROM agg)
+                 ORDER BY p.id
+                   FOR UPDATE OF p
+            )
+            UPDATE products p
+               SET stock_quantity = p.stock_quantity + a.qty
+              FROM agg a, categories c
+             WHERE p.id = a.product_id
+               AND c.id = p.category_id
+               AND (SELECT COUNT(*) FROM locked) > 0
+            RETURNING\s""" + PRODUCT_COLUMNS;
+
+    private static final String RELEASE_ORDER_SQL = RELEASE_SQL_TEMPLATE.formatted("""
+                SELECT id FROM stock_reservations
+                 WHERE order_id = ? AND status IN ('HELD', 'COMMITTED') AND flash_sale_id IS NULL
+                   FOR UPDATE
+            """, StockMovementType.CANCELLATION);
+
+    // SKIP LOCKED: several instances can sweep without blocking each other
+    private static final String RELEASE_EXPIRED_SQL = RELEASE_SQL_TEMPLATE.formatted("""
+                SELECT id FROM stock_reservations
+                 WHERE status = 'HELD' AND flash_sale_id IS NULL AND expires_at < ?
+                 ORDER BY id
+                 LIMIT ?
+                   FOR UPDATE SKIP LOCKED
+            """, StockMovementType.EXPIRY);
+
+    private static final String COMMIT_SQL = """
+            UPDATE stock_reservations
+               SET status = 'COMMITTED', updated_at = ?
+             WHERE order_id = ? AND status = 'HELD'
+            """;
+
+    private static final String RELEASED_LINES_SQL = """
+            SELECT product_id, SUM(quantity)
+              FROM stock_reservations
+             WHERE order_id = ?
+             GROUP BY product_id
+            HAVING BOOL_AND(status = 'RELEASED')
+            """;
+
+    private final long ttlMinutes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    public StockReservationService(@Value("${app.inventory.reservation-ttl-minutes:30}") long ttlMinutes) {
+        this.ttlMinutes = ttlMinutes;
+    }
+
+    // =================================================
+    // 🔒 RESERVE (CHECKOUT)
+    // =================================================
+
+    /**
+     * Reserve every line of an order or none of them.
+     * quantities: product id → units. productNames is used for the error message only.
+     *
+     * @throws InsufficientStockException naming the lines that didn't fit
+     */
+    @Transactional
+    public void reserve(Long orderId, Map<Long, Integer> quantities, Map<Long, String> productNames) {
+
+        List<Long> shortIds = tryReserve(orderId, quantities);
+        if (!shortIds.isEmpty()) {
+            List<String> names = shortIds.stream()
+                    .map(id -> productNames.getOrDefault(id, "Product " + id))
+                    .toList();
+            throw new InsufficientStockException(
+                    "Not enough stock for: " + String.join(", ", names), shortIds);
+        }
+    }
+
+    // Empty when every line was reserved, else the short lines (nothing reserved)
+    private List<Long> tryReserve(Long orderId, Map<Long, Integer> quantities) {
+
+        // Sorted ids: the same order for every caller
+        Map<Long, Integer> lines = new TreeMap<>(quantities);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(ttlMinutes);
+
+        // ⚡ Products in a flash sale come from memory, the rest from their rows
+        FlashSaleService.Claim claim = flashSaleService.claim(lines);
+        if (claim.isShort()) {
+            return claim.shortIds();
+        }
+        lines.keySet().removeAll(claim.units().keySet());
+
+        if (!lines.isEmpty() && !reserveRows(orderId, lines, expiresAt, now)) {
+            flashSaleService.cancel(claim);
+            return shortLines(lines);
+        }
+
+        // Rows are locked: a sale that started meanwhile has committed and would overwrite them
+        if (!lines.isEmpty() && flashSaleService.startedDuring(lines.keySet())) {
+            throw new IllegalStateException("A flash sale just started for a product in this order, please retry");
+        }
+
+        flashSaleService.record(orderId, claim, expiresAt, now);
+        return List.of();
+    }
+
+    private boolean reserveRows(Long orderId, Map<Long, Integer> lines, LocalDateTime expiresAt, LocalDateTime now) {
+
+        Long[] ids = lines.keySet().toArray(new Long[0]);
+        Integer[] qtys = lines.values().toArray(new Integer[0]);
+
+        boolean reserved = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+
+            try (PreparedStatement ps = connection.prepareStatement(RESERVE_SQL)) {
+                ps.setArray(1, connection.createArrayOf("bigint", ids));
+                ps.setArray(2, connection.createArrayOf("integer", qtys));
+                ps.setLong(3, orderId);
+                ps.setTimestamp(4, Timestamp.valueOf(expiresAt));
+                ps.setTimestamp(5, Timestamp.valueOf(now));
+
+                boolean all = true;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        all &= rs.getBoolean(2);
+                    }
+                }
+                return all;
+            }
+        }));
+
+        if (reserved) {
+            refreshAfterCommit(jdbcTemplate.execute((ConnectionCallback<List<ProductDetailResponse>>) connection -> {
+                try (PreparedStatement ps = connection.prepareStatement(DETAILS_SQL)) {
+                    ps.setArray(1, connection.createArrayOf("bigint", ids));
+                    return readProducts(ps);
+                }
+            }));
+        }
+        return reserved;
+    }
+
+    // Which lines are short right now (for the error message only)
+    private List<Long> shortLines(Map<Long, Integer> quantities) {
+
+        List<Long> shortIds = new ArrayList<>();
+        quantities.forEach((productId, qty) -> {
+            Integer stock = jdbcTemplate.query(
+                    "SELECT stock_quantity FROM products WHERE id = ? AND active",
+                    rs -> rs.next() ? rs.getInt(1) : null,
+                    productId
+            );
+            if (stock == null || stock < qty) {
+                shortIds.add(productId);
+            }
+        });
+        return shortIds;
+    }
+
+    // =================================================
+    // ✅ COMMIT (PAID / COD CONFIRMED)
+    // =================================================
+
+    @Transactional
+    public void commit(Long orderId) {
+
+        int committed = jdbcTemplate.update(COMMIT_SQL, Timestamp.valueOf(LocalDateTime.now()), orderId);
+        if (committed > 0) {
+            return;
+        }
+
+        // Paid after the hold expired: take the stock again if it's still there
+        Map<Long, Integer> released = new TreeMap<>();
+        jdbcTemplate.query(RELEASED_LINES_SQL, rs -> {
+            released.put(rs.getLong(1), rs.getInt(2));
+        }, orderId);
+
+        if (released.isEmpty()) {
+            return;
+        }
+
+        if (tryReserve(orderId, released).isEmpty()) {
+            jdbcTemplate.update(COMMIT_SQL, Timestamp.valueOf(LocalDateTime.now()), orderId);
+        } else {
+            log.warn("Order {} was paid after its stock reservation expired and stock is no longer available", orderId);
+        }
+    }
+
+    // =================================================
+    // ↩ RELEASE (CANCELLED / PAYMENT FAILED)
+    // =================================================
+
+    @Transactional
+    public void release(Long orderId) {
+
+        flashSaleService.releaseOrder(orderId);
+
+        List<ProductDetailResponse> restored = jdbcTemplate.execute((ConnectionCallback<List<ProductDetailResponse>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(RELEASE_ORDER_SQL)) {
+                ps.setLong(1, orderId);
+                ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                return readProducts(ps);
+            }
+        });
+
+        refreshAfterCommit(restored);
+    }
+
+    // =================================================
+    // ⏱ EXPIRY SWEEP
+    // =================================================
+
+    @Scheduled(initialDelay = 30_000, fixedDelayString = "${app.inventory.sweep-interval-ms:60000}")
+    public void releaseExpired() {
+
+        int total = 0;
+        int batch;
+
+        do {
+            List<ProductDetailResponse> restored = transactionTemplate.execute(status ->
+                    jdbcTemplate.execute((ConnectionCallback<List<ProductDetailResponse>>) connection -> {
+                        try (PreparedStatement ps = connection.prepareStatement(RELEASE_EXPIRED_SQL)) {
+                            LocalDateTime now = LocalDateTime.now();
+                            ps.setTimestamp(1, Timestamp.valueOf(now));
+                            ps.setInt(2, SWEEP_BATCH_SIZE);
+                            ps.setTimestamp(3, Timestamp.valueOf(now));
+                            return readProducts(ps);
+                        }
+                    })
+            );
+
+            productService.onStockChanged(restored);
+            batch = restored.size();
+            total += batch;
+
+        } while (batch > 0);
+
+        int flashHolds = 0;
+        while ((batch = flashSaleService.releaseExpired(SWEEP_BATCH_SIZE)) > 0) {
+            flashHolds += batch;
+        }
+
+        if (total > 0 || flashHolds > 0) {
+            log.info("Released expired stock reservations: {} products, {} flash-sale holds", total, flashHolds);
+        }
+    }
+
+    // =================================================
+    // 🔧 HELPERS
+    // =================================================
+
+    private List<ProductDetailResponse> readProducts(PreparedStatement ps) throws SQLException {
+
+        List<ProductDetailResponse> products = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                products.add(new ProductDetailResponse(
+                        rs.getLong(1),
+                        rs.getString(2),
+                        rs.getString(3),
+                        rs.getBigDecimal(4),
+                        rs.getInt(5),
+                        rs.getString(6),
+                        rs.getBoolean(7),
+                        rs.getLong(8),
+                        rs.getString(9)
+                ));
+            }
+        }
+        return products;
+    }
+
+    // Stock changed: refresh cache / search / facets once the change is visible
+    private void refreshAfterCommit(List<ProductDetailResponse> products) {
+
+        if (products.isEmpty()) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productService.onStockChanged(products);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productService.onStockChanged(products);
+            }
+        });
+    }
+}
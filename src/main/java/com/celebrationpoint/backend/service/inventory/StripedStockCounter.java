@@ -0,0 +1,147 @@
+package com.celebrationpoint.backend.service.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock of one flash-sale product, split over shards so concurrent
+ * checkouts CAS different cache lines instead of one hot counter.
+ *
+ * A shard never goes below zero, so the units handed out can never
+ * exceed the units put in. A checkout takes from its home shard (picked
+ * by thread). When that shard can't cover it, half of the fullest shard
+ * is moved over, and as a last resort units are gathered from all
+ * shards and put back if they still fall short.
+ */
+public class StripedStockCounter {
+
+    // 8 longs = 64 bytes: one shard per cache line
+    private static final int PAD = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    public StripedStockCounter(int shardCount, long units) {
+
+        int shards = 1;
+        while (shards < shardCount) {
+            shards <<= 1;
+        }
+
+        this.cells = new AtomicLongArray(shards * PAD);
+        this.mask = shards - 1;
+
+        for (int i = 0; i < shards; i++) {
+            cells.set(i * PAD, units / shards + (i < units % shards ? 1 : 0));
+        }
+    }
+
+    // =================================================
+    // ✏ TAKE / GIVE BACK
+    // =================================================
+
+    // All or nothing
+    public boolean tryTake(int units) {
+
+        if (units <= 0) {
+            throw new IllegalArgumentException("Units must be positive");
+        }
+
+        int home = home();
+
+        if (takeExactly(home, units)) {
+            return true;
+        }
+
+        if (rebalance(home, units) && takeExactly(home, units)) {
+            return true;
+        }
+
+        // Units in transit between shards can make one pass come up short
+        for (int attempt = 0; attempt < 2 && available() >= units; attempt++) {
+            long gathered = 0;
+            for (int i = 0; i <= mask && gathered < units; i++) {
+                gathered += takeUpTo((home + i) & mask, units - gathered);
+            }
+            if (gathered == units) {
+                return true;
+            }
+            cells.addAndGet(home * PAD, gathered);
+        }
+        return false;
+    }
+
+    public void add(int units) {
+        cells.addAndGet(home() * PAD, units);
+    }
+
+    // Exact only while no take is running
+    public long available() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += cells.get(i * PAD);
+        }
+        return total;
+    }
+
+    // =================================================
+    // 🔧 SHARDS
+    // =================================================
+
+    private boolean takeExactly(int shard, int units) {
+        int index = shard * PAD;
+        while (true) {
+            long current = cells.get(index);
+            if (current < units) {
+                return false;
+            }
+            if (cells.compareAndSet(index, current, current - units)) {
+                return true;
+            }
+        }
+    }
+
+    private long takeUpTo(int shard, long units) {
+        int index = shard * PAD;
+        while (true) {
+            long current = cells.get(index);
+            if (current == 0) {
+                return 0;
+            }
+            long taken = Math.min(current, units);
+            if (cells.compareAndSet(index, current, current - taken)) {
+                return taken;
+            }
+        }
+    }
+
+    // Move half of the fullest shard (at least what's needed) to home
+    private boolean rebalance(int home, int needed) {
+
+        int donor = -1;
+        long most = 0;
+        for (int i = 0; i <= mask; i++) {
+            long value = cells.get(i * PAD);
+            if (i != home && value > most) {
+                donor = i;
+                most = value;
+            }
+        }
+
+        if (donor < 0) {
+            return false;
+        }
+
+        long moved = takeUpTo(donor, Math.max(needed, most / 2));
+        if (moved == 0) {
+            return false;
+        }
+        cells.addAndGet(home * PAD, moved);
+        return true;
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
@@ -4,6 +4,7 @@ import com.celebrationpoint.backend.entity.Order;
 import com.celebrationpoint.backend.entity.OrderStatus;
 import com.celebrationpoint.backend.exception.ResourceNotFoundException;
 import com.celebrationpoint.backend.repository.OrderRepository;
+import com.celebrationpoint.backend.service.inventory.StockReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,6 +15,9 @@ public class OrderCancelService {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     /**
      * ✅ USER CANCEL ORDER
      */
@@ -34,6 +38,8 @@ public class OrderCancelService {
 
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+
+        stockReservationService.release(order.getId());
     }
 
     /**
@@ -45,7 +51,13 @@ public class OrderCancelService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
+        boolean restock = order.getStatus().isBeforeShipment();
+
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+
+        if (restock) {
+            stockReservationService.release(order.getId());
+        }
     }
 }
@@ -1,15 +1,29 @@
 package com.celebrationpoint.backend.service.order;
 
+import com.celebrationpoint.backend.dto.CartQuote;
+import com.celebrationpoint.backend.dto.CartQuoteLine;
 import com.celebrationpoint.backend.entity.*;
 import com.celebrationpoint.backend.exception.ResourceNotFoundException;
 import com.celebrationpoint.backend.repository.*;
 import com.celebrationpoint.backend.service.audit.AuditLogService;
+import com.celebrationpoint.backend.service.cart.CartPricingService;
+import com.celebrationpoint.backend.service.cart.CartService;
+import com.celebrationpoint.backend.service.cart.CartWriteBehindStore;
+import com.celebrationpoint.backend.service.inventory.StockReservationService;
+import com.celebrationpoint.backend.service.ranking.ProductRankingService;
+import com.celebrationpoint.backend.service.ranking.ProductSale;
+import com.celebrationpoint.backend.service.recommendation.ProductRecommendationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class OrderService {
@@ -18,10 +32,7 @@ public class OrderService {
     private UserRepository userRepository;
 
     @Autowired
-    private CartRepository cartRepository;
-
-    @Autowired
-    private CartItemRepository cartItemRepository;
+    private ProductRepository productRepository;
 
     @Autowired
     private OrderRepository orderRepository;
@@ -32,12 +43,31 @@ public class OrderService {
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private ProductRankingService productRankingService;
+
+    @Autowired
+    private ProductRecommendationService productRecommendationService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private CartWriteBehindStore cartWriteBehindStore;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartPricingService cartPricingService;
+
     // =================================================
     // 🛒 PLACE ORDER
     // =================================================
     @Transactional
     public Order placeOrder(
             Long userId,
+            String userEmail,
             String fullName,
             String phone,
             String addressLine,
@@ -47,22 +77,29 @@ public class OrderService {
             String pincode
     ) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        // Write-behind: edits still in memory are written now, the order is built from the rows.
+        // First, before the cart row is locked; the cart stays pinned until this transaction ends.
+        cartWriteBehindStore.detach(userId);
 
-        Cart cart = cartRepository.findByUser(user)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
+        // Id and email come from the verified token; a reference is enough for the FK
+        User user = userRepository.getReferenceById(userId);
 
-        List<CartItem> cartItems = cartItemRepository.findByCart(cart);
+        // 💰 REVALIDATED QUOTE (current prices; the cached one when nothing changed since it was shown)
+        CartQuote quote = cartPricingService.quoteForCheckout(userId);
+        List<CartQuoteLine> cartLines = quote.getLines();
 
-        if (cartItems.isEmpty()) {
+        if (cartLines.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
 
-        BigDecimal totalAmount = cartItems.stream()
-                .map(item -> item.getPrice()
-                        .multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (quote.getUnavailableCount() > 0) {
+            throw new IllegalStateException("No longer available: " + String.join(", ", cartLines.stream()
+                    .filter(line -> line.getStatus() == CartQuoteLine.Status.UNAVAILABLE)
+                    .map(CartQuoteLine::getProductName)
+                    .toList()));
+        }
+
+        BigDecimal totalAmount = quote.getSubtotal();
 
         Order order = new Order();
         order.setUser(user);
@@ -80,18 +117,49 @@ public class OrderService {
 
         order = orderRepository.save(order);
 
-        for (CartItem item : cartItems) {
+        // 🔒 RESERVE STOCK (all lines or none; rolls the order back when short)
+        Map<Long, Integer> quantities = new HashMap<>();
+        Map<Long, String> productNames = new HashMap<>();
+        for (CartQuoteLine line : cartLines) {
+            quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+            productNames.put(line.getProductId(), line.getProductName());
+        }
+        stockReservationService.reserve(order.getId(), quantities, productNames);
+
+        List<ProductSale> sales = new ArrayList<>(cartLines.size());
+
+        for (CartQuoteLine line : cartLines) {
             OrderItem orderItem = new OrderItem(
                     order,
-                    item.getProduct(),
-                    item.getProduct().getName(),
-                    item.getPrice(),
-                    item.getQuantity()
+                    productRepository.getReferenceById(line.getProductId()),
+                    line.getProductName(),
+                    line.getCurrentPrice(),
+                    line.getQuantity()
             );
             orderItemRepository.save(orderItem);
+
+            sales.add(new ProductSale(
+                    line.getProductId(),
+                    line.getCategoryId(),
+                    line.getQuantity(),
+                    order.getCreatedAt()
+            ));
         }
 
-        cartItemRepository.deleteByCart(cart);
+        cartService.clearCart(userId);
+
+        // 🏆 BEST-SELLER RANKING + CO-PURCHASES (only once the order is really stored)
+        Long orderId = order.getId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productRankingService.onOrderPlaced(sales);
+                productRecommendationService.onOrderPlaced(
+                        orderId,
+                        sales.stream().map(ProductSale::productId).toList()
+                );
+            }
+        });
 
         // 📝 AUDIT LOG
         auditLogService.logAction(
@@ -100,7 +168,7 @@ public class OrderService {
                 order.getId(),
                 null,
                 OrderStatus.PENDING.name(),
-                user.getEmail(),
+                userEmail,
                 "USER"
         );
 
@@ -113,8 +181,7 @@ public class OrderService {
     @Transactional(readOnly = true)
     public List<Order> getOrdersByUser(Long userId) {
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        User user = userRepository.getReferenceById(userId);
 
         return orderRepository.findByUserOrderByCreatedAtDesc(user);
     }
@@ -132,11 +199,17 @@ public class OrderService {
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
 
-        String oldStatus = order.getStatus().name();
+        OrderStatus previous = order.getStatus();
+        String oldStatus = previous.name();
 
         order.setStatus(newStatus);
         orderRepository.save(order);
 
+        // Shipped units are gone; only a pre-shipment cancel restocks
+        if (newStatus == OrderStatus.CANCELLED && previous.isBeforeShipment()) {
+            stockReservationService.release(order.getId());
+        }
+
         // 📝 AUDIT LOG
         auditLogService.logAction(
                 "ORDER_STATUS_CHANGED",
@@ -155,7 +228,7 @@ public class OrderService {
     // ❌ USER: CANCEL ORDER
     // =================================================
     @Transactional
-    public void cancelOrder(Long orderId, Long userId) {
+    public void cancelOrder(Long orderId, Long userId, String userEmail) {
 
         Order order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
@@ -175,6 +248,8 @@ public class OrderService {
         order.setStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
 
+        stockReservationService.release(order.getId());
+
         // 📝 AUDIT LOG
         auditLogService.logAction(
                 "ORDER_CANCELLED",
@@ -182,7 +257,7 @@ public class OrderService {
                 order.getId(),
                 oldStatus,
                 OrderStatus.CANCELLED.name(),
-                order.getUser().getEmail(),
+                userEmail,
                 "USER"
         );
     }
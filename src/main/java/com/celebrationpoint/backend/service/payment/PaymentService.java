@@ -5,6 +5,7 @@ import com.celebrationpoint.backend.exception.ResourceNotFoundException;
 import com.celebrationpoint.backend.repository.OrderRepository;
 import com.celebrationpoint.backend.repository.PaymentRepository;
 import com.celebrationpoint.backend.service.audit.AuditLogService;
+import com.celebrationpoint.backend.service.inventory.StockReservationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,6 +24,9 @@ public class PaymentService {
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     // =================================================
     // 💳 ONLINE PAYMENT INITIATION
     // =================================================
@@ -64,7 +68,7 @@ public class PaymentService {
     // 💵 CASH ON DELIVERY PAYMENT
     // =================================================
     @Transactional
-    public void createCodPayment(Order order) {
+    public void createCodPayment(Order order, String userEmail) {
 
         paymentRepository.findByOrder(order).ifPresent(p -> {
             throw new RuntimeException("Payment already exists for this order");
@@ -84,6 +88,9 @@ public class PaymentService {
         order.setStatus(OrderStatus.CONFIRMED);
         orderRepository.save(order);
 
+        // Confirmed COD order: the held stock is sold
+        stockReservationService.commit(order.getId());
+
         // AUDIT LOG
         auditLogService.logAction(
                 "COD_PAYMENT_CREATED",
@@ -91,7 +98,7 @@ public class PaymentService {
                 payment.getId(),
                 null,
                 PaymentStatus.COD_PENDING.name(),
-                order.getUser().getEmail(),
+                userEmail,
                 "USER"
         );
     }
@@ -127,6 +134,8 @@ public class PaymentService {
         order.setStatus(OrderStatus.CONFIRMED);
         orderRepository.save(order);
 
+        stockReservationService.commit(order.getId());
+
         // 📝 AUDIT LOG — PAYMENT
         auditLogService.logAction(
                 "PAYMENT_SUCCESS",
@@ -168,6 +177,9 @@ public class PaymentService {
         payment.setStatus(PaymentStatus.FAILED);
         paymentRepository.save(payment);
 
+        // Hand the stock back; a later successful payment takes it again if it's still there
+        stockReservationService.release(payment.getOrder().getId());
+
         // 📝 AUDIT LOG
         auditLogService.logAction(
                 "PAYMENT_FAILED",
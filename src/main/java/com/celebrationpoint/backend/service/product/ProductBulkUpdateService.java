@@ -0,0 +1,264 @@
+package com.celebrationpoint.backend.service.product;
+
+import com.celebrationpoint.backend.dto.BulkUpdateSummaryResponse;
+import com.celebrationpoint.backend.dto.ProductBulkUpdateItem;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.service.inventory.FlashSaleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk price / stock update.
+ *
+ * Each chunk of up to CHUNK_SIZE tuples is one set-based statement:
+ * the tuples are passed as three parallel arrays, unnested into a
+ * derived table and joined to products. Every chunk is its own
+ * transaction. Rows that would not change are filtered out in SQL, so
+ * they are neither written nor re-indexed.
+ *
+ * Caches and indexes are refreshed from the RETURNING rows, and the
+ * catalog version is bumped once per committed chunk.
+ */
+@Service
+public class ProductBulkUpdateService {
+
+    public static final int CHUNK_SIZE = 1000;
+    public static final int MAX_ITEMS = 50_000;
+    private static final int MAX_REPORTED = 200;
+
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    // Stock changes are written to the ledger as ADJUSTMENT movements (old value read under the row lock)
+    private static final String UPDATE_SQL = """
+            WITH u AS (
+                SELECT * FROM unnest(?::bigint[], ?::numeric[], ?::int[]) AS u(id, price, stock)
+            ),
+            old AS (
+                SELECT p.id, p.stock_quantity
+                  FROM products p
+                  JOIN u ON u.id = p.id
+                 ORDER BY p.id
+                   FOR UPDATE OF p
+            ),
+            upd AS (
+                UPDATE products p
+                   SET price = COALESCE(u.price, p.price),
+                       stock_quantity = COALESCE(u.stock, p.stock_quantity)
+                  FROM u, old o, categories c
+                 WHERE p.id = u.id
+                   AND o.id = p.id
+                   AND c.id = p.category_id
+                   AND (SELECT COUNT(*) FROM old) > 0
+                   AND (p.price <> COALESCE(u.price, p.price)
+                        OR p.stock_quantity <> COALESCE(u.stock, p.stock_quantity))
+                RETURNING p.id, p.name, p.description, p.price, p.stock_quantity,
+                          p.image_url, p.active, c.id AS category_id, c.name AS category_name,
+                          o.stock_quantity AS old_stock
+            ),
+            mov AS (
+                INSERT INTO stock_movements (product_id, delta, type, note, created_at)
+                SELECT id, stock_quantity - old_stock, 'ADJUSTMENT', 'Bulk update', now()
+                  FROM upd
+                 WHERE stock_quantity <> old_stock
+            )
+            SELECT id, name, description, price, stock_quantity,
+                   image_url, active, category_id, category_name
+              FROM upd
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private FlashSaleService flashSaleService;
+
+    public BulkUpdateSummaryResponse apply(List<ProductBulkUpdateItem> items) {
+
+        long start = System.currentTimeMillis();
+
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("No rows to update");
+        }
+        if (items.size() > MAX_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_ITEMS + " rows per request");
+        }
+
+        Outcome outcome = new Outcome();
+
+        // Validate + de-duplicate (last tuple for a product wins)
+        Map<Long, ProductBulkUpdateItem> updates = new LinkedHashMap<>();
+
+        for (ProductBulkUpdateItem item : items) {
+
+            String error = validate(item);
+            if (error != null) {
+                outcome.fail(item == null ? null : item.getProductId(), error);
+                continue;
+            }
+            if (item.getPrice() == null && item.getStockQuantity() == null) {
+                outcome.skip(item.getProductId());
+                continue;
+            }
+            if (item.getStockQuantity() != null && flashSaleService.isActive(item.getProductId())) {
+                outcome.fail(item.getProductId(), "Product is in a flash sale: end the sale before changing its stock");
+                continue;
+            }
+            if (updates.put(item.getProductId(), item) != null) {
+                outcome.skip(item.getProductId());
+            }
+        }
+
+        List<ProductBulkUpdateItem> pending = new ArrayList<>(updates.values());
+        int batches = 0;
+
+        for (int from = 0; from < pending.size(); from += CHUNK_SIZE) {
+            applyChunk(pending.subList(from, Math.min(pending.size(), from + CHUNK_SIZE)), outcome);
+            batches++;
+        }
+
+        return new BulkUpdateSummaryResponse(
+                items.size(),
+                outcome.applied,
+                outcome.skipped,
+                outcome.failed,
+                batches,
+                System.currentTimeMillis() - start,
+                outcome.skippedIds,
+                outcome.failures
+        );
+    }
+
+    // =================================================
+    // 💾 ONE CHUNK = ONE STATEMENT = ONE TRANSACTION
+    // =================================================
+
+    private void applyChunk(List<ProductBulkUpdateItem> chunk, Outcome outcome) {
+
+        Long[] ids = new Long[chunk.size()];
+        BigDecimal[] prices = new BigDecimal[chunk.size()];
+        Integer[] stocks = new Integer[chunk.size()];
+
+        for (int i = 0; i < chunk.size(); i++) {
+            ProductBulkUpdateItem item = chunk.get(i);
+            ids[i] = item.getProductId();
+            prices[i] = item.getPrice() == null ? null : item.getPrice().setScale(2, RoundingMode.HALF_UP);
+            stocks[i] = item.getStockQuantity();
+        }
+
+        List<ProductDetailResponse> updated;
+
+        try {
+            updated = transactionTemplate.execute(status ->
+                    jdbcTemplate.execute((ConnectionCallback<List<ProductDetailResponse>>) connection -> {
+
+                        try (PreparedStatement ps = connection.prepareStatement(UPDATE_SQL)) {
+                            ps.setArray(1, connection.createArrayOf("bigint", ids));
+                            ps.setArray(2, connection.createArrayOf("numeric", prices));
+                            ps.setArray(3, connection.createArrayOf("integer", stocks));
+
+                            List<ProductDetailResponse> rows = new ArrayList<>(chunk.size());
+                            try (ResultSet rs = ps.executeQuery()) {
+                                while (rs.next()) {
+                                    rows.add(new ProductDetailResponse(
+                                            rs.getLong(1),
+                                            rs.getString(2),
+                                            rs.getString(3),
+                                            rs.getBigDecimal(4),
+                                            rs.getInt(5),
+                                            rs.getString(6),
+                                            rs.getBoolean(7),
+                                            rs.getLong(8),
+                                            rs.getString(9)
+                                    ));
+                                }
+                            }
+                            return rows;
+                        }
+                    })
+            );
+
+        } catch (DataAccessException e) {
+            String error = "Batch failed: " + e.getMostSpecificCause().getMessage();
+            chunk.forEach(item -> outcome.fail(item.getProductId(), error));
+            return;
+        }
+
+        productService.onProductsBulkSaved(updated);
+
+        // Not returned → unknown id or values already current
+        Set<Long> changed = new HashSet<>();
+        updated.forEach(p -> changed.add(p.getId()));
+
+        for (Long id : ids) {
+            if (changed.contains(id)) {
+                outcome.applied++;
+            } else {
+                outcome.skip(id);
+            }
+        }
+    }
+
+    private String validate(ProductBulkUpdateItem item) {
+
+        if (item == null || item.getProductId() == null) {
+            return "productId is required";
+        }
+        if (item.getPrice() != null && item.getPrice().signum() <= 0) {
+            return "Price must be greater than 0";
+        }
+        if (item.getPrice() != null && item.getPrice().compareTo(MAX_PRICE) > 0) {
+            return "Price is above " + MAX_PRICE;
+        }
+        if (item.getStockQuantity() != null && item.getStockQuantity() < 0) {
+            return "Stock quantity cannot be negative";
+        }
+        return null;
+    }
+
+    private static class Outcome {
+
+        private int applied;
+        private int skipped;
+        private int failed;
+        private final List<Long> skippedIds = new ArrayList<>();
+        private final List<Map<String, Object>> failures = new ArrayList<>();
+
+        void skip(Long productId) {
+            skipped++;
+            if (skippedIds.size() < MAX_REPORTED && productId != null) {
+                skippedIds.add(productId);
+            }
+        }
+
+        void fail(Long productId, String error) {
+            failed++;
+            if (failures.size() < MAX_REPORTED) {
+                Map<String, Object> failure = new LinkedHashMap<>();
+                failure.put("productId", productId);
+                failure.put("error", error);
+                failures.add(failure);
+            }
+        }
+    }
+}
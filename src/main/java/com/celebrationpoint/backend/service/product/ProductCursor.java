@@ -0,0 +1,136 @@
+package com.celebrationpoint.backend.service.product;
+
+import com.celebrationpoint.backend.constants.ProductSort;
+import com.celebrationpoint.backend.dto.ProductSummaryResponse;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Opaque keyset cursor for the product listing.
+ *
+ * Encodes the sort order plus the sort key of the last row on a page
+ * ("PRICE_ASC|42|199.00") as URL-safe Base64, so the next page can
+ * continue with a WHERE (price, id) > (199.00, 42) seek instead of OFFSET.
+ */
+public class ProductCursor {
+
+    private final ProductSort sort;
+    private final Long id;
+    private final BigDecimal price;
+    private final String name;
+
+    private ProductCursor(ProductSort sort, Long id, BigDecimal price, String name) {
+        this.sort = sort;
+        this.id = id;
+        this.price = price;
+        this.name = name;
+    }
+
+    // ✅ CURSOR POINTING AFTER THE GIVEN PRODUCT
+    public static ProductCursor after(ProductSort sort, ProductSummaryResponse product) {
+        return new ProductCursor(sort, product.getId(), product.getPrice(), product.getName());
+    }
+
+    public String encode() {
+
+        String value = switch (sort) {
+            case PRICE_ASC, PRICE_DESC -> price.toPlainString();
+            case NAME_ASC -> name;
+            case NEWEST -> "";
+        };
+
+        String raw = sort.name() + "|" + id + "|" + value;
+
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ✅ DECODE + CHECK IT BELONGS TO THE REQUESTED SORT
+    public static ProductCursor decode(String token, ProductSort expectedSort) {
+
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+
+        ProductCursor cursor;
+
+        try {
+            String raw = new String(
+                    Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8
+            );
+
+            String[] parts = raw.split("\\|", 3);
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            Long id = Long.valueOf(parts[1]);
+
+            cursor = switch (sort) {
+                case PRICE_ASC, PRICE_DESC -> new ProductCursor(sort, id, new BigDecimal(parts[2]), null);
+                case NAME_ASC -> new ProductCursor(sort, id, null, parts[2]);
+                case NEWEST -> new ProductCursor(sort, id, null, null);
+            };
+
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+
+        if (cursor.getSort() != expectedSort) {
+            throw new IllegalArgumentException("Cursor does not match sort " + expectedSort);
+        }
+
+        return cursor;
+    }
+
+    // ✅ IN-MEMORY ORDER MATCHING THE SQL ORDER BY OF EACH SORT
+    public static Comparator<ProductSummaryResponse> comparator(ProductSort sort) {
+
+        Comparator<ProductSummaryResponse> byId = Comparator.comparing(ProductSummaryResponse::getId);
+
+        return switch (sort) {
+            case NEWEST -> byId.reversed();
+            case PRICE_ASC -> Comparator.comparing(ProductSummaryResponse::getPrice).thenComparing(byId);
+            case PRICE_DESC -> Comparator.comparing(ProductSummaryResponse::getPrice).thenComparing(byId).reversed();
+            case NAME_ASC -> Comparator.comparing(ProductSummaryResponse::getName).thenComparing(byId);
+        };
+    }
+
+    /**
+     * True when the product sorts strictly after this cursor,
+     * i.e. it belongs on the next page.
+     */
+    public boolean isBefore(ProductSummaryResponse product) {
+
+        int cmp = switch (sort) {
+            case NEWEST -> Long.compare(product.getId(), id);
+            case PRICE_ASC -> compareThenId(price.compareTo(product.getPrice()), product);
+            case PRICE_DESC -> -compareThenId(price.compareTo(product.getPrice()), product);
+            case NAME_ASC -> compareThenId(name.compareTo(product.getName()), product);
+        };
+
+        return cmp < 0;
+    }
+
+    private int compareThenId(int keyCompare, ProductSummaryResponse product) {
+        return keyCompare != 0 ? keyCompare : Long.compare(id, product.getId());
+    }
+
+    public ProductSort getSort() {
+        return sort;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,138 @@
+package com.celebrationpoint.backend.service.product;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress + report of one bulk import.
+ * Updated by the importing request thread, read by the progress endpoint.
+ */
+public class ProductImportJob {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final String format;
+    private final long totalBytes;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicInteger rowsRead = new AtomicInteger();
+    private final AtomicInteger imported = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+
+    ProductImportJob(String format, long totalBytes) {
+        this.format = format;
+        this.totalBytes = totalBytes;
+    }
+
+    // =================================================
+    // ✏ UPDATES (importer thread)
+    // =================================================
+
+    void onBytesRead(long count) {
+        bytesRead.addAndGet(count);
+    }
+
+    void onRowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void onImported(int count) {
+        imported.addAndGet(count);
+    }
+
+    // Every failure is counted, only the first MAX_REPORTED_ERRORS are kept
+    void onRowFailed(int line, String error) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(Map.of("line", line, "error", error));
+            }
+        }
+    }
+
+    void finish(Status status, String message) {
+        this.status = status;
+        this.message = message;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    // =================================================
+    // 📖 GETTERS (progress endpoint)
+    // =================================================
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    // -1 when the upload had no Content-Length
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public Integer getPercent() {
+        if (status != Status.RUNNING) {
+            return 100;
+        }
+        return totalBytes > 0 ? (int) Math.min(99, bytesRead.get() * 100 / totalBytes) : null;
+    }
+
+    public int getRowsRead() {
+        return rowsRead.get();
+    }
+
+    public int getImported() {
+        return imported.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public List<Map<String, Object>> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    public boolean isErrorsTruncated() {
+        return failed.get() > MAX_REPORTED_ERRORS;
+    }
+}
@@ -0,0 +1,217 @@
+package com.celebrationpoint.backend.service.product;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pulls one raw import row at a time from an upload stream.
+ *
+ * Both formats produce the same shape: lower-cased field name → raw
+ * string value, plus the line the row started on for error reports.
+ * Nothing is buffered beyond the current row.
+ */
+public abstract class ProductImportReader {
+
+    // Set by a reader when a row could not even be parsed
+    public static final String INVALID_ROW = "__invalid";
+
+    public record Row(int line, Map<String, String> fields) {
+    }
+
+    // null at end of input
+    public abstract Row next() throws IOException;
+
+    public static ProductImportReader csv(Reader reader) {
+        return new Csv(reader);
+    }
+
+    public static ProductImportReader ndjson(Reader reader, ObjectMapper objectMapper) {
+        return new NdJson(reader, objectMapper);
+    }
+
+    // =================================================
+    // CSV (RFC 4180: header row, quoted fields, "" escapes)
+    // =================================================
+
+    private static class Csv extends ProductImportReader {
+
+        private final Reader in;
+        private List<String> header;
+        private int line = 1;
+        private int pushback = -2;
+
+        Csv(Reader reader) {
+            this.in = reader instanceof BufferedReader ? reader : new BufferedReader(reader, 64 * 1024);
+        }
+
+        @Override
+        public Row next() throws IOException {
+
+            if (header == null) {
+                List<String> names = nextRecord();
+                if (names == null) {
+                    return null;
+                }
+                header = names.stream()
+                        .map(name -> name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+                        .toList();
+            }
+
+            while (true) {
+                int startLine = line;
+                List<String> values = nextRecord();
+
+                if (values == null) {
+                    return null;
+                }
+                if (values.size() == 1 && values.get(0).isBlank()) {
+                    continue;
+                }
+
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                return new Row(startLine, fields);
+            }
+        }
+
+        private List<String> nextRecord() throws IOException {
+
+            List<String> values = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+
+            while (true) {
+                int c = read();
+
+                if (c == -1) {
+                    if (!any) {
+                        return null;
+                    }
+                    values.add(field.toString());
+                    return values;
+                }
+                any = true;
+
+                if (quoted) {
+                    if (c == '"') {
+                        int peek = read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            unread(peek);
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                    continue;
+                }
+
+                switch (c) {
+                    case '"' -> quoted = true;
+                    case ',' -> {
+                        values.add(field.toString());
+                        field.setLength(0);
+                    }
+                    case '\r' -> {
+                        int peek = read();
+                        if (peek != '\n') {
+                            unread(peek);
+                        }
+                        line++;
+                        values.add(field.toString());
+                        return values;
+                    }
+                    case '\n' -> {
+                        line++;
+                        values.add(field.toString());
+                        return values;
+                    }
+                    default -> field.append((char) c);
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushback != -2) {
+                int c = pushback;
+                pushback = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private void unread(int c) {
+            pushback = c;
+        }
+    }
+
+    // =================================================
+    // NDJSON (one JSON object per line)
+    // =================================================
+
+    private static class NdJson extends ProductImportReader {
+
+        private final BufferedReader in;
+        private final ObjectMapper objectMapper;
+        private int line = 0;
+
+        NdJson(Reader reader, ObjectMapper objectMapper) {
+            this.in = new BufferedReader(reader, 64 * 1024);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public Row next() throws IOException {
+
+            String text;
+            do {
+                text = in.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+
+            Map<String, String> fields = new HashMap<>();
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (RuntimeException e) {
+                // Surfaced as a row error by the validator
+                fields.put(INVALID_ROW, "Invalid JSON");
+                return new Row(line, fields);
+            }
+
+            if (!node.isObject()) {
+                fields.put(INVALID_ROW, "Expected a JSON object");
+                return new Row(line, fields);
+            }
+
+            for (Map.Entry<String, JsonNode> entry : node.properties()) {
+                JsonNode value = entry.getValue();
+                fields.put(
+                        entry.getKey().toLowerCase(Locale.ROOT),
+                        value.isNull() ? null : value.asString()
+                );
+            }
+            return new Row(line, fields);
+        }
+    }
+}
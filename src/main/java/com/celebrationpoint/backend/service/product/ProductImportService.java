@@ -0,0 +1,383 @@
+package com.celebrationpoint.backend.service.product;
+
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.entity.Category;
+import com.celebrationpoint.backend.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming bulk product import (CSV or NDJSON).
+ *
+ * - The upload is read row by row straight off the request stream
+ * - Categories are resolved from a map loaded once per import
+ * - Valid rows are inserted with one JDBC batch per CHUNK_SIZE rows,
+ *   each chunk in its own transaction, so a bad chunk doesn't undo
+ *   the rest of the file
+ * - Search / facet indexes and the catalog version are updated once
+ *   per committed chunk
+ *
+ * Columns (CSV header or JSON keys, case-insensitive):
+ * name, description, price, stockQuantity, categoryId or category (name),
+ * imageUrl, active
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    public static final int CHUNK_SIZE = 1000;
+    private static final int MAX_KEPT_JOBS = 20;
+
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
+    private static final String INSERT_SQL = """
+            INSERT INTO products
+                (name, description, price, stock_quantity, image_url, active, category_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Insertion ordered: the oldest finished jobs are dropped first
+    private final Map<String, ProductImportJob> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // =================================================
+    // 🚚 IMPORT
+    // =================================================
+
+    public ProductImportJob importProducts(InputStream body, String format, long contentLength) {
+
+        ProductImportJob job = new ProductImportJob(format, contentLength);
+        register(job);
+
+        CategoryLookup categories = new CategoryLookup(categoryRepository.findAll());
+        InputStreamReader reader = new InputStreamReader(new CountingInputStream(body, job), StandardCharsets.UTF_8);
+
+        ProductImportReader rows = "ndjson".equals(format)
+                ? ProductImportReader.ndjson(reader, objectMapper)
+                : ProductImportReader.csv(reader);
+
+        List<ValidRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        try {
+            ProductImportReader.Row row;
+            while ((row = rows.next()) != null) {
+                job.onRowRead();
+
+                ValidRow valid = validate(row, categories, job);
+                if (valid == null) {
+                    continue;
+                }
+
+                chunk.add(valid);
+                if (chunk.size() == CHUNK_SIZE) {
+                    insertChunk(chunk, job);
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                insertChunk(chunk, job);
+            }
+
+            job.finish(ProductImportJob.Status.COMPLETED,
+                    job.getImported() + " imported, " + job.getFailed() + " failed");
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Product import {} aborted after {} rows", job.getJobId(), job.getRowsRead(), e);
+            job.finish(ProductImportJob.Status.FAILED, "Import aborted: " + e.getMessage());
+        }
+
+        return job;
+    }
+
+    public ProductImportJob getJob(String jobId) {
+        synchronized (jobs) {
+            return jobs.get(jobId);
+        }
+    }
+
+    public List<ProductImportJob> getRecentJobs() {
+        synchronized (jobs) {
+            List<ProductImportJob> recent = new ArrayList<>(jobs.values());
+            Collections.reverse(recent);
+            return recent;
+        }
+    }
+
+    // =================================================
+    // ✅ ROW VALIDATION (same rules as single create)
+    // =================================================
+
+    private ValidRow validate(ProductImportReader.Row row, CategoryLookup categories, ProductImportJob job) {
+
+        Map<String, String> f = row.fields();
+
+        if (f.containsKey(ProductImportReader.INVALID_ROW)) {
+            job.onRowFailed(row.line(), f.get(ProductImportReader.INVALID_ROW));
+            return null;
+        }
+
+        String name = trim(f.get("name"));
+        if (name == null || name.isEmpty()) {
+            job.onRowFailed(row.line(), "Product name is required");
+            return null;
+        }
+        if (name.length() > 255) {
+            job.onRowFailed(row.line(), "Product name is longer than 255 characters");
+            return null;
+        }
+
+        String description = trim(f.get("description"));
+        if (description != null && description.length() > 1000) {
+            job.onRowFailed(row.line(), "Description is longer than 1000 characters");
+            return null;
+        }
+
+        String imageUrl = trim(f.get("imageurl"));
+        if (imageUrl != null && imageUrl.length() > 1000) {
+            job.onRowFailed(row.line(), "Image URL is longer than 1000 characters");
+            return null;
+        }
+
+        BigDecimal price;
+        try {
+            price = new BigDecimal(trim(f.get("price"))).setScale(2, RoundingMode.HALF_UP);
+        } catch (NullPointerException | NumberFormatException e) {
+            job.onRowFailed(row.line(), "Price is missing or not a number");
+            return null;
+        }
+        if (price.signum() <= 0) {
+            job.onRowFailed(row.line(), "Price must be greater than 0");
+            return null;
+        }
+        if (price.compareTo(MAX_PRICE) > 0) {
+            job.onRowFailed(row.line(), "Price is above " + MAX_PRICE);
+            return null;
+        }
+
+        int stockQuantity;
+        try {
+            stockQuantity = Integer.parseInt(trim(f.get("stockquantity")));
+        } catch (NumberFormatException e) {
+            job.onRowFailed(row.line(), "Stock quantity is missing or not a whole number");
+            return null;
+        }
+        if (stockQuantity < 0) {
+            job.onRowFailed(row.line(), "Stock quantity cannot be negative");
+            return null;
+        }
+
+        Category category = categories.resolve(trim(f.get("categoryid")), trim(f.get("category")));
+        if (category == null) {
+            job.onRowFailed(row.line(), "Category not found");
+            return null;
+        }
+
+        String active = trim(f.get("active"));
+        boolean isActive = active == null || active.isEmpty() || Boolean.parseBoolean(active);
+
+        return new ValidRow(
+                row.line(),
+                name,
+                description != null ? description : "",
+                price,
+                stockQuantity,
+                imageUrl != null ? imageUrl : "",
+                isActive,
+                category
+        );
+    }
+
+    // =================================================
+    // 💾 BATCH INSERT
+    // =================================================
+
+    private void insertChunk(List<ValidRow> chunk, ProductImportJob job) {
+
+        List<Long> ids;
+
+        try {
+            ids = transactionTemplate.execute(status ->
+                    jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+
+                        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+
+                            for (ValidRow row : chunk) {
+                                ps.setString(1, row.name());
+                                ps.setString(2, row.description());
+                                ps.setBigDecimal(3, row.price());
+                                ps.setInt(4, row.stockQuantity());
+                                ps.setString(5, row.imageUrl());
+                                ps.setBoolean(6, row.active());
+                                ps.setLong(7, row.category().getId());
+                                ps.addBatch();
+                            }
+                            ps.executeBatch();
+
+                            List<Long> generated = new ArrayList<>(chunk.size());
+                            try (ResultSet keys = ps.getGeneratedKeys()) {
+                                while (keys.next()) {
+                                    generated.add(keys.getLong(1));
+                                }
+                            }
+                            return generated;
+                        }
+                    })
+            );
+
+        } catch (DataAccessException e) {
+            String error = "Batch insert failed: " + e.getMostSpecificCause().getMessage();
+            chunk.forEach(row -> job.onRowFailed(row.line(), error));
+            return;
+        }
+
+        List<ProductDetailResponse> imported = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            ValidRow row = chunk.get(i);
+            imported.add(new ProductDetailResponse(
+                    ids.get(i),
+                    row.name(),
+                    row.description(),
+                    row.price(),
+                    row.stockQuantity(),
+                    row.imageUrl(),
+                    row.active(),
+                    row.category().getId(),
+                    row.category().getName()
+            ));
+        }
+
+        productService.onProductsBulkSaved(imported);
+        job.onImported(imported.size());
+    }
+
+    // =================================================
+    // 🔧 HELPERS
+    // =================================================
+
+    private void register(ProductImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getJobId(), job);
+
+            Iterator<ProductImportJob> it = jobs.values().iterator();
+            while (jobs.size() > MAX_KEPT_JOBS && it.hasNext()) {
+                if (it.next().getStatus() != ProductImportJob.Status.RUNNING) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private record ValidRow(
+            int line,
+            String name,
+            String description,
+            BigDecimal price,
+            int stockQuantity,
+            String imageUrl,
+            boolean active,
+            Category category
+    ) {
+    }
+
+    // Categories by id and by (case-insensitive) name, loaded once per import
+    private static class CategoryLookup {
+
+        private final Map<Long, Category> byId = new HashMap<>();
+        private final Map<String, Category> byName = new HashMap<>();
+
+        CategoryLookup(Collection<Category> categories) {
+            for (Category category : categories) {
+                byId.put(category.getId(), category);
+                byName.put(category.getName().trim().toLowerCase(Locale.ROOT), category);
+            }
+        }
+
+        Category resolve(String id, String name) {
+
+            if (id != null && !id.isEmpty()) {
+                try {
+                    return byId.get(Long.valueOf(id));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+
+            return name == null ? null : byName.get(name.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    // Feeds upload progress (bytes consumed) into the job
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final ProductImportJob job;
+
+        CountingInputStream(InputStream in, ProductImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.onBytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                job.onBytesRead(n);
+            }
+            return n;
+        }
+    }
+}
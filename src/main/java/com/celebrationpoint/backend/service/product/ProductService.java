@@ -1,27 +1,75 @@
 package com.celebrationpoint.backend.service.product;
 
+import com.celebrationpoint.backend.constants.ProductSort;
+import com.celebrationpoint.backend.constants.PriceBand;
+import com.celebrationpoint.backend.constants.RankingWindow;
+import com.celebrationpoint.backend.dto.CategorySummaryResponse;
+import com.celebrationpoint.backend.dto.CursorPageResponse;
+import com.celebrationpoint.backend.dto.FacetCountsResponse;
+import com.celebrationpoint.backend.dto.FacetOptionResponse;
+import com.celebrationpoint.backend.dto.ProductBatchResponse;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.dto.ProductSummaryResponse;
 import com.celebrationpoint.backend.entity.Category;
 import com.celebrationpoint.backend.entity.Product;
 import com.celebrationpoint.backend.exception.ResourceNotFoundException;
 import com.celebrationpoint.backend.repository.CategoryRepository;
 import com.celebrationpoint.backend.repository.ProductRepository;
+import com.celebrationpoint.backend.service.catalog.CatalogCacheService;
+import com.celebrationpoint.backend.service.catalog.CatalogVersionService;
+import com.celebrationpoint.backend.service.facet.FacetIndexService;
+import com.celebrationpoint.backend.service.facet.ProductFilter;
+import com.celebrationpoint.backend.service.ranking.ProductRankingService;
+import com.celebrationpoint.backend.service.recommendation.ProductRecommendationService;
+import com.celebrationpoint.backend.service.search.ProductSearchIndex;
+import com.celebrationpoint.backend.service.search.ProductSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_SEARCH_RESULTS = 50;
+    public static final int MAX_BEST_SELLERS = 50;
+    public static final int MAX_RELATED = 24;
+    public static final int MAX_BATCH_IDS = 200;
+
     @Autowired
     private ProductRepository productRepository;
 
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private CatalogCacheService catalogCacheService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private ProductSearchService productSearchService;
+
+    @Autowired
+    private FacetIndexService facetIndexService;
+
+    @Autowired
+    private ProductRankingService productRankingService;
+
+    @Autowired
+    private ProductRecommendationService productRecommendationService;
+
     // ✅ CREATE PRODUCT
-    public Product createProduct(
+    public ProductDetailResponse createProduct(
             String name,
             String description,
             BigDecimal price,
@@ -42,38 +90,370 @@ public class ProductService {
         product.setCategory(category);
         product.setActive(true);
 
-        return productRepository.save(product);
+        return saveProduct(product, null);
     }
 
-    // ✅ GET ALL ACTIVE PRODUCTS
-    public List<Product> getAllActiveProducts() {
-        return productRepository.findByActiveTrue();
+    // ✅ GET ACTIVE PRODUCTS (KEYSET PAGINATED, OPTIONAL FACET FILTER)
+    public CursorPageResponse<ProductSummaryResponse> getActiveProducts(
+            ProductFilter filter,
+            ProductSort sort,
+            String cursor,
+            int limit
+    ) {
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ProductCursor after = ProductCursor.decode(cursor, sort);
+
+        List<ProductSummaryResponse> rows = fetchPage(filter, sort, after, pageSize + 1);
+
+        // One extra row tells us whether another page exists
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductSummaryResponse> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasMore
+                ? ProductCursor.after(sort, items.get(items.size() - 1)).encode()
+                : null;
+
+        return new CursorPageResponse<>(items, nextCursor, hasMore);
     }
 
-    // ✅ GET PRODUCTS BY CATEGORY
-    public List<Product> getProductsByCategory(Long categoryId) {
+    // ✅ FACET COUNTS FOR THE CURRENT FILTER (FROM BITMAPS, NO SQL)
+    public FacetCountsResponse getFacetCounts(ProductFilter filter) {
+
+        FacetIndexService.FacetCounts counts = facetIndexService.counts(filter);
 
-        if (!categoryRepository.existsById(categoryId)) {
-            throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+        Map<Long, String> categoryNames = getActiveCategories()
+                .stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+
+        List<FacetOptionResponse> categories = new ArrayList<>();
+        counts.categories().forEach((categoryId, count) -> {
+            String name = categoryNames.get(categoryId);
+            if (name != null) {
+                categories.add(new FacetOptionResponse(categoryId.toString(), name, count));
+            }
+        });
+
+        List<FacetOptionResponse> priceBands = new ArrayList<>();
+        for (PriceBand band : PriceBand.values()) {
+            priceBands.add(new FacetOptionResponse(
+                    band.name(), band.getLabel(), counts.priceBands().getOrDefault(band, 0)
+            ));
         }
 
-        return productRepository.findByCategoryIdAndActiveTrue(categoryId);
+        List<FacetOptionResponse> stock = List.of(
+                new FacetOptionResponse("true", "In stock", counts.inStock()),
+                new FacetOptionResponse("false", "Out of stock", counts.outOfStock())
+        );
+
+        return new FacetCountsResponse(counts.total(), categories, priceBands, stock);
     }
 
-    // ✅ GET PRODUCT BY ID
-    public Product getProductById(Long productId) {
+    // ✅ GET PRODUCT BY ID (READ-THROUGH CACHE)
+    public ProductDetailResponse getProductById(Long productId) {
 
-        return productRepository.findById(productId)
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Product not found with id: " + productId)
-                );
+        ProductDetailResponse product = cachedDetail(productId);
+
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + productId);
+        }
+
+        return product;
+    }
+
+    // ✅ MULTI-GET (CACHE FIRST, ONE QUERY FOR ALL MISSES)
+    public ProductBatchResponse getProductsByIds(List<Long> ids) {
+
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("At least one product id is required");
+        }
+
+        // Duplicates collapse to their first position
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+
+        if (requested.size() > MAX_BATCH_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_IDS + " product ids per request");
+        }
+
+        Map<Long, ProductDetailResponse> found = cachedDetails(requested);
+
+        List<ProductDetailResponse> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+
+        for (Long id : requested) {
+            ProductDetailResponse product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return new ProductBatchResponse(products, missingIds);
+    }
+
+    // ✅ FULL-TEXT SEARCH (RANKED, HYDRATED FROM THE CATALOG CACHE)
+    public List<ProductSummaryResponse> searchProducts(String query, int limit) {
+
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+
+        List<Long> ids = productSearchService.search(query, size)
+                .stream()
+                .map(ProductSearchIndex.Hit::productId)
+                .toList();
+
+        return activeSummaries(ids);
+    }
+
+    // ✅ AUTOCOMPLETE TERMS
+    public List<String> suggestSearchTerms(String prefix, int limit) {
+        return productSearchService.suggest(prefix, Math.max(1, Math.min(limit, 20)));
+    }
+
+    // ✅ BEST SELLERS (IN-MEMORY RANKING, OPTIONAL CATEGORY)
+    public List<ProductSummaryResponse> getBestSellers(RankingWindow window, Long categoryId, int limit) {
+
+        int size = Math.max(1, Math.min(limit, MAX_BEST_SELLERS));
+
+        // A little extra for products since disabled or moved to another category
+        List<Long> ids = productRankingService.topProductIds(window, categoryId, size * 2);
+
+        return activeSummaries(ids)
+                .stream()
+                .filter(product -> categoryId == null || categoryId.equals(product.getCategoryId()))
+                .limit(size)
+                .toList();
+    }
+
+    // ✅ CUSTOMERS ALSO BOUGHT (IN-MEMORY CO-PURCHASE MATRIX)
+    public List<ProductSummaryResponse> getRelatedProducts(Long productId, int limit) {
+
+        int size = Math.max(1, Math.min(limit, MAX_RELATED));
+
+        // A little extra for products since disabled or deleted
+        List<Long> ids = productRecommendationService.relatedProductIds(productId, size * 2);
+
+        return activeSummaries(ids)
+                .stream()
+                .limit(size)
+                .toList();
+    }
+
+    // ✅ GET ACTIVE CATEGORIES (READ-THROUGH CACHE)
+    public List<Category> getActiveCategories() {
+        return catalogCacheService.getActiveCategories(categoryRepository::findByActiveTrue);
+    }
+
+    // ✅ ACTIVE CATEGORIES WITH ACTIVE PRODUCT COUNTS (FROM FACET BITMAPS, NO SQL)
+    public List<CategorySummaryResponse> getCategorySummaries() {
+
+        Map<Long, Integer> counts = facetIndexService.categoryCounts();
+
+        return getActiveCategories()
+                .stream()
+                .map(category -> new CategorySummaryResponse(
+                        category.getId(),
+                        category.getName(),
+                        category.getDescription(),
+                        counts.getOrDefault(category.getId(), 0)
+                ))
+                .toList();
     }
 
     // ✅ SOFT DELETE PRODUCT
     public void disableProduct(Long productId) {
 
-        Product product = getProductById(productId);
+        // Load a fresh entity: cached instances are shared and must not be mutated
+        Product product = productRepository.findById(productId)
+                .orElseThrow(() ->
+                        new ResourceNotFoundException("Product not found with id: " + productId)
+                );
+
         product.setActive(false);
-        productRepository.save(product);
+        saveProduct(product, product.getCategory().getId());
+    }
+
+    // =================================================
+    // ✏ WRITE PATHS (KEEP CACHE, SEARCH + FACET INDEXES IN SYNC)
+    // =================================================
+
+    /**
+     * Persist a product, refresh the catalog cache, search and facet
+     * indexes, and bump the catalog version (invalidates client ETags).
+     * previousCategoryId is the category before the edit (null for new products).
+     */
+    public ProductDetailResponse saveProduct(Product product, Long previousCategoryId) {
+
+        ProductDetailResponse saved = ProductDetailResponse.from(productRepository.save(product));
+
+        catalogCacheService.onProductSaved(saved, previousCategoryId);
+        productSearchService.onProductSaved(saved);
+        facetIndexService.onProductSaved(saved);
+        catalogVersionService.bump();
+        return saved;
+    }
+
+    public void deleteProduct(Product product) {
+
+        productRepository.delete(product);
+        catalogCacheService.onProductDeleted(product.getId(), product.getCategory().getId());
+        productSearchService.onProductDeleted(product.getId());
+        facetIndexService.onProductDeleted(product.getId());
+        catalogVersionService.bump();
+    }
+
+    /**
+     * Products inserted or updated in bulk (already committed).
+     * One cache pass and a single version bump for the whole chunk.
+     */
+    public void onProductsBulkSaved(List<ProductDetailResponse> products) {
+
+        if (refresh(products)) {
+            catalogVersionService.bump();
+        }
+    }
+
+    /**
+     * Stock of these products moved (reservations, releases, restocks;
+     * already committed). Same refresh, but only the stock counter moves:
+     * prices and availability are unchanged, so the catalog version isn't bumped.
+     */
+    public void onStockChanged(List<ProductDetailResponse> products) {
+
+        if (refresh(products)) {
+            catalogVersionService.bumpStock();
+        }
+    }
+
+    public void onCategoryChanged(Long categoryId) {
+        catalogCacheService.onCategoryChanged(categoryId);
+        catalogVersionService.bump();
+    }
+
+    // =================================================
+    // 🔧 HELPERS
+    // =================================================
+
+    // false when there was nothing to refresh
+    private boolean refresh(List<ProductDetailResponse> products) {
+
+        if (products.isEmpty()) {
+            return false;
+        }
+
+        for (ProductDetailResponse product : products) {
+            productSearchService.onProductSaved(product);
+            facetIndexService.onProductSaved(product);
+        }
+
+        catalogCacheService.onProductsBulkSaved(products);
+        return true;
+    }
+
+    /**
+     * Picks the cheapest source for a listing page:
+     * - plain single category → cached, pre-sorted category list
+     * - other filters, newest first → walk the facet bitmap downwards from the cursor
+     * - other filters, other sorts → keyset SQL with the same predicates
+     */
+    private List<ProductSummaryResponse> fetchPage(
+            ProductFilter filter,
+            ProductSort sort,
+            ProductCursor after,
+            int limit
+    ) {
+
+        if (filter.isEmpty()) {
+            return productRepository.findActivePage(null, sort, after, limit);
+        }
+
+        Long categoryId = filter.singleCategoryOnly();
+        if (categoryId != null) {
+            return pageCategoryFromCache(categoryId, sort, after, limit);
+        }
+
+        if (sort == ProductSort.NEWEST) {
+            return activeSummaries(
+                    facetIndexService.newestIds(filter, after == null ? null : after.getId(), limit)
+            );
+        }
+
+        return productRepository.findActivePage(filter, sort, after, limit);
+    }
+
+    private ProductDetailResponse cachedDetail(Long productId) {
+        return catalogCacheService.getProduct(
+                productId,
+                id -> productRepository.findDetailById(id).orElse(null)
+        );
+    }
+
+    // Cache first; all misses in one query
+    private Map<Long, ProductDetailResponse> cachedDetails(Collection<Long> ids) {
+        return catalogCacheService.getProducts(
+                ids,
+                misses -> productRepository.findDetailsByIdIn(new ArrayList<>(misses))
+                        .stream()
+                        .collect(Collectors.toMap(ProductDetailResponse::getId, product -> product))
+        );
+    }
+
+    // Ids → listing rows in the same order, skipping anything gone or inactive
+    private List<ProductSummaryResponse> activeSummaries(List<Long> ids) {
+
+        Map<Long, ProductDetailResponse> found = cachedDetails(ids);
+
+        List<ProductSummaryResponse> products = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductDetailResponse product = found.get(id);
+            if (product != null && product.isActive()) {
+                products.add(product.toSummary());
+            }
+        }
+        return products;
+    }
+
+    // Page a category from its cached, pre-sorted product list
+    private List<ProductSummaryResponse> pageCategoryFromCache(
+            Long categoryId,
+            ProductSort sort,
+            ProductCursor after,
+            int limit
+    ) {
+
+        CatalogCacheService.CategoryListing listing = catalogCacheService.getCategoryListing(
+                categoryId,
+                () -> {
+                    if (!categoryRepository.existsById(categoryId)) {
+                        throw new ResourceNotFoundException("Category not found with id: " + categoryId);
+                    }
+                    return productRepository.findActiveSummariesByCategoryId(categoryId);
+                }
+        );
+
+        List<ProductSummaryResponse> sorted = listing.sortedBy(sort);
+        int from = after == null ? 0 : firstIndexAfter(sorted, after);
+        int to = Math.min(sorted.size(), from + limit);
+
+        return sorted.subList(from, to);
+    }
+
+    // Binary search for the first product that sorts after the cursor
+    private int firstIndexAfter(List<ProductSummaryResponse> sorted, ProductCursor after) {
+
+        int low = 0;
+        int high = sorted.size();
+
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (after.isBefore(sorted.get(mid))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        return low;
     }
 }
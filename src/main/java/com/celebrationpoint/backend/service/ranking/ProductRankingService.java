@@ -0,0 +1,298 @@
+package com.celebrationpoint.backend.service.ranking;
+
+import com.celebrationpoint.backend.constants.RankingWindow;
+import com.celebrationpoint.backend.repository.OrderItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Best-seller rankings (units sold) for three windows: all time,
+ * the last 7 days and the last 24 hours.
+ *
+ * Recent sales are also kept in a ring of hourly buckets. When an hour
+ * leaves the 24h / 7d window, its bucket is subtracted from that window's
+ * ranking, so windows slide by whole hours and never need re-aggregating.
+ *
+ * Each ranking keeps products ordered by units sold, overall and per
+ * category, so top-N is a walk over the first N entries.
+ *
+ * Rebuilt at startup from order_items, then fed by placed orders.
+ */
+@Service
+public class ProductRankingService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductRankingService.class);
+
+    private static final long HOUR_MILLIS = 3_600_000L;
+    private static final int RING_HOURS = RankingWindow.WEEK.getHours();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Ranking allTime = new Ranking();
+    private Ranking week = new Ranking();
+    private Ranking day = new Ranking();
+
+    // Slot = hour % RING_HOURS
+    private final HourBucket[] ring = new HourBucket[RING_HOURS];
+    private long currentHour = currentHour();
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // =================================================
+    // 🚀 STARTUP REBUILD (STREAMING SCAN)
+    // =================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+
+        long start = System.currentTimeMillis();
+        long[] rows = new long[1];
+
+        // Held for the whole scan so orders placed meanwhile are applied after it
+        lock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<ProductSale> sales = orderItemRepository.streamAllSales()) {
+                    sales.forEach(sale -> {
+                        record(sale);
+                        rows[0]++;
+                    });
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Product ranking built: {} order lines, {} products in {} ms",
+                rows[0], allTime.size(), System.currentTimeMillis() - start);
+    }
+
+    // =================================================
+    // ✏ INCREMENTAL UPDATES
+    // =================================================
+
+    // Call after the order has committed
+    public void onOrderPlaced(List<ProductSale> sales) {
+
+        lock.writeLock().lock();
+        try {
+            advanceTo(currentHour());
+            sales.forEach(this::record);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Slide the 24h / 7d windows even when no orders come in
+    @Scheduled(cron = "0 0 * * * *")
+    public void rotate() {
+
+        lock.writeLock().lock();
+        try {
+            advanceTo(currentHour());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // =================================================
+    // 🔍 QUERIES
+    // =================================================
+
+    /**
+     * Best-selling product ids, most units first.
+     * categoryId = null ranks the whole catalog.
+     */
+    public List<Long> topProductIds(RankingWindow window, Long categoryId, int limit) {
+
+        lock.readLock().lock();
+        try {
+            Ranking ranking = switch (window) {
+                case ALL_TIME -> allTime;
+                case WEEK -> week;
+                case DAY -> day;
+            };
+            return ranking.top(categoryId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // =================================================
+    // 🔧 WINDOW BOOKKEEPING (CALL UNDER THE WRITE LOCK)
+    // =================================================
+
+    private void record(ProductSale sale) {
+
+        if (sale.quantity() <= 0) {
+            return;
+        }
+
+        allTime.add(sale.productId(), sale.categoryId(), sale.quantity());
+
+        long age = currentHour - hourOf(sale.orderedAt());
+        if (age >= RING_HOURS) {
+            return;
+        }
+
+        long hour = currentHour - Math.max(0, age);
+        int slot = (int) (hour % RING_HOURS);
+        if (ring[slot] == null || ring[slot].hour != hour) {
+            ring[slot] = new HourBucket(hour);
+        }
+        ring[slot].units.merge(sale.productId(), (long) sale.quantity(), Long::sum);
+
+        week.add(sale.productId(), sale.categoryId(), sale.quantity());
+        if (age < RankingWindow.DAY.getHours()) {
+            day.add(sale.productId(), sale.categoryId(), sale.quantity());
+        }
+    }
+
+    private void advanceTo(long hour) {
+
+        if (hour <= currentHour) {
+            return;
+        }
+
+        // Idle for longer than the week: every bucket has expired
+        if (hour - currentHour > RING_HOURS) {
+            week = new Ranking();
+            day = new Ranking();
+            Arrays.fill(ring, null);
+            currentHour = hour;
+            return;
+        }
+
+        while (currentHour < hour) {
+            currentHour++;
+
+            HourBucket leavingDay = bucket(currentHour - RankingWindow.DAY.getHours());
+            if (leavingDay != null) {
+                leavingDay.units.forEach((productId, units) -> day.add(productId, null, -units));
+            }
+
+            HourBucket leavingWeek = bucket(currentHour - RING_HOURS);
+            if (leavingWeek != null) {
+                leavingWeek.units.forEach((productId, units) -> week.add(productId, null, -units));
+                ring[(int) (leavingWeek.hour % RING_HOURS)] = null;
+            }
+        }
+    }
+
+    private HourBucket bucket(long hour) {
+        HourBucket bucket = ring[(int) (hour % RING_HOURS)];
+        return bucket != null && bucket.hour == hour ? bucket : null;
+    }
+
+    private static long currentHour() {
+        return System.currentTimeMillis() / HOUR_MILLIS;
+    }
+
+    // Order timestamps are server-local LocalDateTime.now()
+    private static long hourOf(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / HOUR_MILLIS;
+    }
+
+    private static class HourBucket {
+
+        private final long hour;
+        private final Map<Long, Long> units = new HashMap<>();
+
+        HourBucket(long hour) {
+            this.hour = hour;
+        }
+    }
+
+    // =================================================
+    // 📊 ONE WINDOW: UNITS PER PRODUCT, KEPT SORTED
+    // =================================================
+
+    private static class Ranking {
+
+        private static final Comparator<Score> ORDER = Comparator
+                .comparingLong(Score::units).reversed()
+                .thenComparing(Comparator.comparingLong(Score::productId).reversed());
+
+        private final Map<Long, Score> scores = new HashMap<>();
+        private final Map<Long, Long> categoryOf = new HashMap<>();
+        private final TreeSet<Score> overall = new TreeSet<>(ORDER);
+        private final Map<Long, TreeSet<Score>> byCategory = new HashMap<>();
+
+        int size() {
+            return scores.size();
+        }
+
+        // categoryId = null keeps the category the product was last seen in
+        void add(Long productId, Long categoryId, long delta) {
+
+            Score previous = scores.remove(productId);
+            Long previousCategory = categoryOf.get(productId);
+
+            if (previous != null) {
+                overall.remove(previous);
+                TreeSet<Score> set = byCategory.get(previousCategory);
+                if (set != null) {
+                    set.remove(previous);
+                    if (set.isEmpty()) {
+                        byCategory.remove(previousCategory);
+                    }
+                }
+            }
+
+            long units = (previous == null ? 0 : previous.units()) + delta;
+            Long category = categoryId != null ? categoryId : previousCategory;
+
+            if (units <= 0 || category == null) {
+                categoryOf.remove(productId);
+                return;
+            }
+
+            Score score = new Score(units, productId);
+            scores.put(productId, score);
+            categoryOf.put(productId, category);
+            overall.add(score);
+            byCategory.computeIfAbsent(category, c -> new TreeSet<>(ORDER)).add(score);
+        }
+
+        List<Long> top(Long categoryId, int limit) {
+
+            TreeSet<Score> set = categoryId == null ? overall : byCategory.get(categoryId);
+            List<Long> ids = new ArrayList<>(limit);
+            if (set == null) {
+                return ids;
+            }
+
+            Iterator<Score> it = set.iterator();
+            while (ids.size() < limit && it.hasNext()) {
+                ids.add(it.next().productId());
+            }
+            return ids;
+        }
+    }
+
+    private record Score(long units, long productId) {
+    }
+}
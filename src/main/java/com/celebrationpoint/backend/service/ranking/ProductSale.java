@@ -0,0 +1,10 @@
+package com.celebrationpoint.backend.service.ranking;
+
+import java.time.LocalDateTime;
+
+/**
+ * One order line as seen by the ranking: which product, in which
+ * category, how many units and when the order was placed.
+ */
+public record ProductSale(Long productId, Long categoryId, int quantity, LocalDateTime orderedAt) {
+}
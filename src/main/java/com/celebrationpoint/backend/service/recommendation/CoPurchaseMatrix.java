@@ -0,0 +1,271 @@
+package com.celebrationpoint.backend.service.recommendation;
+
+/**
+ * Sparse, symmetric product × product co-purchase counts.
+ *
+ * count(a, b) = number of orders that contained both a and b.
+ * Every product has one row: an open-addressing int → int table of the
+ * products it was bought with. The rows hang off another open-addressing
+ * table keyed by product id. There are no boxed keys and no entry
+ * objects, about 8-16 bytes per non-zero cell.
+ *
+ * Product ids must be positive ints (0 marks an empty slot).
+ * Not thread-safe: the owning service guards it.
+ */
+public class CoPurchaseMatrix {
+
+    private static final int MIN_CAPACITY = 4;
+
+    // product id → row
+    private int[] keys = new int[1024];
+    private Row[] rows = new Row[1024];
+    private int size;
+
+    private long cells;
+
+    // =================================================
+    // ✏ UPDATES
+    // =================================================
+
+    /**
+     * Count one order. productIds must be distinct.
+     */
+    public void addBasket(int[] productIds) {
+
+        for (int i = 0; i < productIds.length; i++) {
+            for (int j = i + 1; j < productIds.length; j++) {
+                increment(productIds[i], productIds[j]);
+                increment(productIds[j], productIds[i]);
+            }
+        }
+    }
+
+    private void increment(int product, int other) {
+        if (row(product, true).increment(other)) {
+            cells++;
+        }
+    }
+
+    // =================================================
+    // 🔍 QUERIES
+    // =================================================
+
+    /**
+     * Up to k products most often bought with productId, highest count
+     * first (ties: lower id first). A bounded min-heap over the row.
+     */
+    public int[] topRelated(int productId, int k) {
+
+        Row row = row(productId, false);
+        if (row == null || k <= 0) {
+            return new int[0];
+        }
+
+        int[] heapIds = new int[k];
+        int[] heapCounts = new int[k];
+        int heapSize = 0;
+
+        for (int slot = 0; slot < row.keys.length; slot++) {
+            int other = row.keys[slot];
+            if (other == 0) {
+                continue;
+            }
+            int count = row.counts[slot];
+
+            if (heapSize < k) {
+                heapIds[heapSize] = other;
+                heapCounts[heapSize] = count;
+                siftUp(heapIds, heapCounts, heapSize++);
+            } else if (better(count, other, heapCounts[0], heapIds[0])) {
+                heapIds[0] = other;
+                heapCounts[0] = count;
+                siftDown(heapIds, heapCounts, heapSize);
+            }
+        }
+
+        // Drain the min-heap from the back: best ends up first
+        int[] result = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            result[i] = heapIds[0];
+            heapIds[0] = heapIds[i];
+            heapCounts[0] = heapCounts[i];
+            siftDown(heapIds, heapCounts, i);
+        }
+        return result;
+    }
+
+    public int productCount() {
+        return size;
+    }
+
+    // Non-zero cells (each pair counts twice)
+    public long cellCount() {
+        return cells;
+    }
+
+    // =================================================
+    // 🔧 OUTER TABLE (PRODUCT ID → ROW)
+    // =================================================
+
+    private Row row(int productId, boolean create) {
+
+        int mask = keys.length - 1;
+        int slot = mix(productId) & mask;
+
+        while (keys[slot] != 0) {
+            if (keys[slot] == productId) {
+                return rows[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (!create) {
+            return null;
+        }
+
+        if ((size + 1) * 2 > keys.length) {
+            growRows();
+            return row(productId, true);
+        }
+
+        Row row = new Row();
+        keys[slot] = productId;
+        rows[slot] = row;
+        size++;
+        return row;
+    }
+
+    private void growRows() {
+
+        int[] oldKeys = keys;
+        Row[] oldRows = rows;
+
+        keys = new int[oldKeys.length * 2];
+        rows = new Row[oldKeys.length * 2];
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) {
+                continue;
+            }
+            int slot = mix(oldKeys[i]) & mask;
+            while (keys[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[i];
+            rows[slot] = oldRows[i];
+        }
+    }
+
+    // =================================================
+    // 🔧 HEAP (MIN AT 0: WORST OF THE CURRENT TOP-K)
+    // =================================================
+
+    private static boolean better(int countA, int idA, int countB, int idB) {
+        return countA > countB || (countA == countB && idA < idB);
+    }
+
+    private static void siftUp(int[] ids, int[] counts, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(counts[parent], ids[parent], counts[i], ids[i])) {
+                break;
+            }
+            swap(ids, counts, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] ids, int[] counts, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(counts[worst], ids[worst], counts[right], ids[right])) {
+                worst = right;
+            }
+            if (!better(counts[i], ids[i], counts[worst], ids[worst])) {
+                return;
+            }
+            swap(ids, counts, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(int[] ids, int[] counts, int a, int b) {
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        int count = counts[a];
+        counts[a] = counts[b];
+        counts[b] = count;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    // =================================================
+    // 📊 ONE ROW (OTHER PRODUCT ID → COUNT)
+    // =================================================
+
+    private static class Row {
+
+        private int[] keys = new int[MIN_CAPACITY];
+        private int[] counts = new int[MIN_CAPACITY];
+        private int size;
+
+        // true when a new cell was created
+        boolean increment(int key) {
+
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+
+            while (keys[slot] != 0) {
+                if (keys[slot] == key) {
+                    counts[slot]++;
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            // Load factor 3/4 keeps small rows small
+            if ((size + 1) * 4 > keys.length * 3) {
+                grow();
+                return increment(key);
+            }
+
+            keys[slot] = key;
+            counts[slot] = 1;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+
+            int[] oldKeys = keys;
+            int[] oldCounts = counts;
+
+            keys = new int[oldKeys.length * 2];
+            counts = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == 0) {
+                    continue;
+                }
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.celebrationpoint.backend.service.recommendation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Customers also bought": top-k products that appear in the same orders.
+ *
+ * Built at startup by scanning order_items in order-id ranges. Several
+ * workers fetch ranges in parallel and group them into baskets, and the
+ * baskets are folded into one CoPurchaseMatrix. Only one chunk per
+ * worker is in memory at a time, so the build heap is the matrix itself.
+ *
+ * After that every placed order adds its basket. Until the build is done
+ * (from startup on, since orders can arrive before it begins) baskets are
+ * held back; the scan stops at MAX(order_id) read before it starts, and
+ * only held-back orders above that id are replayed, so no order is
+ * counted twice or dropped with the old matrix.
+ */
+@Service
+public class ProductRecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductRecommendationService.class);
+
+    private static final String RANGE_SQL = """
+            SELECT order_id, product_id
+              FROM order_items
+             WHERE order_id > ? AND order_id <= ?
+             ORDER BY order_id
+            """;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CoPurchaseMatrix matrix = new CoPurchaseMatrix();
+
+    private record PendingBasket(long orderId, int[] products) {
+    }
+
+    // Non-null until the startup build has been swapped in
+    private List<PendingBasket> pendingBaskets = new ArrayList<>();
+
+    private final int maxBasketSize;
+    private final int buildThreads;
+    private final int ordersPerChunk;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public ProductRecommendationService(
+            @Value("${app.recommendations.max-basket-size:50}") int maxBasketSize,
+            @Value("${app.recommendations.build-threads:4}") int buildThreads,
+            @Value("${app.recommendations.orders-per-chunk:5000}") int ordersPerChunk
+    ) {
+        this.maxBasketSize = maxBasketSize;
+        this.buildThreads = buildThreads;
+        this.ordersPerChunk = ordersPerChunk;
+    }
+
+    // =================================================
+    // 🚀 STARTUP BUILD (PARALLEL, CHUNKED BY ORDER ID)
+    // =================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildMatrix() {
+
+        long start = System.currentTimeMillis();
+
+        // Everything up to here is scanned; anything later is replayed
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(order_id) FROM order_items", Long.class);
+        long maxOrderId = max != null ? max : 0;
+
+        long[] orders = new long[1];
+        CoPurchaseMatrix built = scanOrderHistory(maxOrderId, orders);
+
+        lock.writeLock().lock();
+        try {
+            for (PendingBasket pending : pendingBaskets) {
+                if (pending.orderId() > maxOrderId) {
+                    built.addBasket(pending.products());
+                }
+            }
+            pendingBaskets = null;
+            matrix = built;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Co-purchase matrix built: {} orders, {} products, {} cells in {} ms",
+                orders[0], built.productCount(), built.cellCount(), System.currentTimeMillis() - start);
+    }
+
+    private CoPurchaseMatrix scanOrderHistory(long maxOrderId, long[] orders) {
+
+        CoPurchaseMatrix built = new CoPurchaseMatrix();
+
+        if (maxOrderId == 0) {
+            return built;
+        }
+
+        AtomicLong nextFrom = new AtomicLong(0);
+        ExecutorService workers = Executors.newFixedThreadPool(buildThreads);
+
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < buildThreads; i++) {
+                results.add(workers.submit(() -> scanRanges(nextFrom, maxOrderId, built)));
+            }
+            for (Future<Long> result : results) {
+                orders[0] += result.get();
+            }
+            return built;
+
+        } catch (Exception e) {
+            log.warn("Co-purchase matrix build failed, starting empty", e);
+            return new CoPurchaseMatrix();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    // One worker: claim order-id ranges until past maxOrderId. Returns baskets added.
+    private long scanRanges(AtomicLong nextFrom, long maxOrderId, CoPurchaseMatrix target) {
+
+        long orders = 0;
+        long from;
+
+        while ((from = nextFrom.getAndAdd(ordersPerChunk)) < maxOrderId) {
+
+            List<int[]> baskets = new ArrayList<>();
+            BasketBuilder current = new BasketBuilder();
+
+            jdbcTemplate.query(RANGE_SQL, (RowCallbackHandler) rs -> {
+                long orderId = rs.getLong(1);
+                if (orderId != current.orderId) {
+                    current.flushInto(baskets);
+                    current.orderId = orderId;
+                }
+                current.add(Math.toIntExact(rs.getLong(2)));
+            }, from, Math.min(from + ordersPerChunk, maxOrderId));
+
+            current.flushInto(baskets);
+
+            synchronized (target) {
+                for (int[] basket : baskets) {
+                    target.addBasket(basket);
+                }
+            }
+            orders += baskets.size();
+        }
+        return orders;
+    }
+
+    // =================================================
+    // ✏ INCREMENTAL UPDATES
+    // =================================================
+
+    // Call after the order has committed
+    public void onOrderPlaced(Long orderId, Collection<Long> productIds) {
+
+        int[] basket = basket(productIds.stream().mapToInt(Math::toIntExact).toArray());
+        if (basket.length < 2) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (pendingBaskets != null) {
+                pendingBaskets.add(new PendingBasket(orderId, basket));
+            } else {
+                matrix.addBasket(basket);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // =================================================
+    // 🔍 QUERIES
+    // =================================================
+
+    public List<Long> relatedProductIds(Long productId, int limit) {
+
+        int[] ids;
+
+        lock.readLock().lock();
+        try {
+            ids = matrix.topRelated(Math.toIntExact(productId), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add((long) id);
+        }
+        return result;
+    }
+
+    // =================================================
+    // 🔧 HELPERS
+    // =================================================
+
+    /**
+     * Distinct product ids of one order. Very large orders (bulk or B2B
+     * buys) are skipped: they add n² cells and say little about taste.
+     */
+    private int[] basket(int[] productIds) {
+        int[] distinct = Arrays.stream(productIds).distinct().toArray();
+        return distinct.length > maxBasketSize ? new int[0] : distinct;
+    }
+
+    private class BasketBuilder {
+
+        private long orderId = -1;
+        private int[] products = new int[8];
+        private int size;
+
+        void add(int productId) {
+            if (size == products.length) {
+                products = Arrays.copyOf(products, size * 2);
+            }
+            products[size++] = productId;
+        }
+
+        void flushInto(List<int[]> baskets) {
+            if (size > 1) {
+                int[] basket = basket(Arrays.copyOf(products, size));
+                if (basket.length > 1) {
+                    baskets.add(basket);
+                }
+            }
+            size = 0;
+        }
+    }
+}
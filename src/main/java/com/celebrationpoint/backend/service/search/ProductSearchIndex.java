@@ -0,0 +1,576 @@
+package com.celebrationpoint.backend.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name + description.
+ *
+ * - Postings are primitive arrays (doc slot → field-weighted term frequency)
+ * - The vocabulary is a sorted map, so the last query token can be
+ *   expanded as a prefix (autocomplete)
+ * - Unknown tokens fall back to bounded edit distance (1 edit for 4-7
+ *   chars, 2 for longer) against terms of similar length sharing the first
+ *   or second letter, in either position (so "vallon" still finds "balloon")
+ * - Ranking is BM25 with name matches weighted above description matches
+ *
+ * Documents are added / replaced / removed one at a time; nothing is ever
+ * rebuilt. Reads share a read lock, writes take the write lock.
+ */
+public class ProductSearchIndex {
+
+    private static final int NAME_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final float PREFIX_QUALITY = 0.7f;
+    private static final float FUZZY_QUALITY = 0.5f;
+
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "of", "for", "with", "in", "on", "to", "by"
+    );
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term → postings
+    private final TreeMap<String, Postings> vocabulary = new TreeMap<>();
+
+    // "<position>:<char>:<length>" → terms, for the first two chars; used to find typo candidates
+    private final Map<String, List<String>> fuzzyBuckets = new HashMap<>();
+
+    // doc slot tables
+    private final Map<Long, Integer> slotByProduct = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private long[] productIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private String[][] docTerms = new String[1024][];
+    private int nextSlot = 0;
+    private long totalLength = 0;
+
+    // =================================================
+    // ✏ INDEX MAINTENANCE
+    // =================================================
+
+    public void put(long productId, String name, String description) {
+
+        Map<String, Integer> weights = new HashMap<>();
+        addTokens(weights, name, NAME_WEIGHT);
+        addTokens(weights, description, DESCRIPTION_WEIGHT);
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+
+            int slot = allocateSlot();
+            int length = 0;
+            String[] terms = new String[weights.size()];
+            int i = 0;
+
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                String term = entry.getKey();
+                Postings postings = vocabulary.get(term);
+                if (postings == null) {
+                    postings = new Postings();
+                    vocabulary.put(term, postings);
+                    for (String key : bucketKeys(term)) {
+                        fuzzyBuckets.computeIfAbsent(key, k -> new ArrayList<>()).add(term);
+                    }
+                }
+                postings.add(slot, entry.getValue());
+                length += entry.getValue();
+                terms[i++] = term;
+            }
+
+            productIds[slot] = productId;
+            docLengths[slot] = length;
+            docTerms[slot] = terms;
+            totalLength += length;
+            slotByProduct.put(productId, slot);
+
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+
+        lock.readLock().lock();
+        try {
+            return slotByProduct.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // =================================================
+    // 🔍 QUERY
+    // =================================================
+
+    /**
+     * Every query token must match (exactly, as a prefix for the last
+     * token, or within the typo budget). Results are ordered by score.
+     *
+     * Tokens are evaluated rarest first: the first one fixes the candidate
+     * set and later tokens only score documents still in it, so work is
+     * bounded by the most selective token rather than the catalog size.
+     */
+    public List<Hit> search(String query, int limit) {
+
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int docCount = slotByProduct.size();
+            if (docCount == 0) {
+                return List.of();
+            }
+
+            List<Expansion> expansions = new ArrayList<>(tokens.size());
+            for (int t = 0; t < tokens.size(); t++) {
+                Map<String, Float> terms = expand(tokens.get(t), t == tokens.size() - 1);
+                if (terms.isEmpty()) {
+                    return List.of();
+                }
+                int postingCount = 0;
+                for (String term : terms.keySet()) {
+                    postingCount += vocabulary.get(term).size;
+                }
+                expansions.add(new Expansion(terms, postingCount));
+            }
+            expansions.sort((a, b) -> Integer.compare(a.postingCount, b.postingCount));
+
+            float avgLength = (float) totalLength / docCount;
+            Candidates candidates = new Candidates(expansions.get(0).postingCount);
+
+            for (int round = 0; round < expansions.size(); round++) {
+
+                for (Map.Entry<String, Float> term : expansions.get(round).terms.entrySet()) {
+                    Postings postings = vocabulary.get(term.getKey());
+                    float idf = idf(docCount, postings.size);
+                    float quality = term.getValue();
+
+                    for (int p = 0; p < postings.size; p++) {
+                        int slot = postings.slots[p];
+                        int c = round == 0 ? candidates.addIfAbsent(slot) : candidates.indexOf(slot);
+                        if (c < 0 || candidates.matched[c] != round) {
+                            continue;
+                        }
+
+                        float tf = postings.weights[p];
+                        float norm = K1 * (1 - B + B * docLengths[slot] / avgLength);
+                        float score = quality * idf * tf * (K1 + 1) / (tf + norm);
+
+                        // Best expansion per token, so many prefix hits don't stack
+                        candidates.best[c] = Math.max(candidates.best[c], score);
+                    }
+                }
+
+                candidates.endRound(round);
+            }
+
+            return topHits(candidates, expansions.size(), limit);
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Autocomplete: indexed terms starting with the last token of the
+     * input, most common first.
+     */
+    public List<String> suggest(String prefix, int limit) {
+
+        List<String> tokens = tokenize(prefix);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        String last = tokens.get(tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Map.Entry<String, Postings>> best = new PriorityQueue<>(
+                    (a, b) -> Integer.compare(a.getValue().size, b.getValue().size)
+            );
+
+            int scanned = 0;
+            for (Map.Entry<String, Postings> entry : prefixRange(last).entrySet()) {
+                best.offer(entry);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                if (++scanned >= MAX_PREFIX_EXPANSIONS * 8) {
+                    break;
+                }
+            }
+
+            List<String> result = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                result.add(best.poll().getKey());
+            }
+            Collections.reverse(result);
+            return result;
+
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // =================================================
+    // 🔧 QUERY HELPERS
+    // =================================================
+
+    // Index terms a query token may stand for, with a match quality factor
+    private Map<String, Float> expand(String token, boolean allowPrefix) {
+
+        Map<String, Float> expansions = new HashMap<>();
+
+        if (vocabulary.containsKey(token)) {
+            expansions.put(token, 1.0f);
+        }
+
+        if (allowPrefix && token.length() >= MIN_PREFIX_LENGTH) {
+            int count = 0;
+            for (String term : prefixRange(token).keySet()) {
+                expansions.putIfAbsent(term, PREFIX_QUALITY);
+                if (++count >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+            }
+        }
+
+        if (expansions.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = token.length() >= 8 ? 2 : 1;
+
+            // One edit leaves the first or the second char in place, or shifts one onto the other
+            char first = token.charAt(0);
+            char second = token.charAt(1);
+            Set<String> candidates = new HashSet<>();
+
+            for (int len = token.length() - maxEdits; len <= token.length() + maxEdits; len++) {
+                for (String key : List.of(
+                        bucketKey(0, first, len), bucketKey(1, second, len),
+                        bucketKey(1, first, len), bucketKey(0, second, len))) {
+                    candidates.addAll(fuzzyBuckets.getOrDefault(key, List.of()));
+                }
+            }
+
+            for (String term : candidates) {
+                int distance = boundedDistance(token, term, maxEdits);
+                if (distance <= maxEdits) {
+                    expansions.put(term, FUZZY_QUALITY / distance);
+                }
+            }
+        }
+
+        return expansions;
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String prefix) {
+        return vocabulary.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private List<Hit> topHits(Candidates candidates, int required, int limit) {
+
+        PriorityQueue<Hit> heap = new PriorityQueue<>((a, b) -> Float.compare(a.score(), b.score()));
+
+        for (int c = 0; c < candidates.size; c++) {
+            if (candidates.matched[c] < required) {
+                continue;
+            }
+            float score = candidates.total[c];
+            if (heap.size() < limit) {
+                heap.offer(new Hit(productIds[candidates.slots[c]], score));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.offer(new Hit(productIds[candidates.slots[c]], score));
+            }
+        }
+
+        Hit[] hits = heap.toArray(new Hit[0]);
+        Arrays.sort(hits, (a, b) -> Float.compare(b.score(), a.score()));
+        return List.of(hits);
+    }
+
+    private static float idf(int docCount, int docFrequency) {
+        return (float) Math.log(1 + (docCount - docFrequency + 0.5) / (docFrequency + 0.5));
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein + adjacent
+     * transpositions). Stops early and returns max + 1 once every
+     * cell in a row exceeds the budget.
+     */
+    static int boundedDistance(String a, String b, int max) {
+
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+
+                if (i > 1 && j > 1
+                        && a.charAt(i - 1) == b.charAt(j - 2)
+                        && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+
+            if (rowMin > max) {
+                return max + 1;
+            }
+
+            int[] recycled = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = recycled;
+        }
+
+        return prev[b.length()];
+    }
+
+    // =================================================
+    // 🔧 INDEX HELPERS
+    // =================================================
+
+    private void removeInternal(long productId) {
+
+        Integer slot = slotByProduct.remove(productId);
+        if (slot == null) {
+            return;
+        }
+
+        for (String term : docTerms[slot]) {
+            Postings postings = vocabulary.get(term);
+            postings.remove(slot);
+            if (postings.size == 0) {
+                vocabulary.remove(term);
+                for (String key : bucketKeys(term)) {
+                    List<String> bucket = fuzzyBuckets.get(key);
+                    bucket.remove(term);
+                    if (bucket.isEmpty()) {
+                        fuzzyBuckets.remove(key);
+                    }
+                }
+            }
+        }
+
+        totalLength -= docLengths[slot];
+        docTerms[slot] = null;
+        docLengths[slot] = 0;
+        freeSlots.push(slot);
+    }
+
+    private int allocateSlot() {
+
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+
+        if (nextSlot == productIds.length) {
+            int capacity = productIds.length * 2;
+            productIds = Arrays.copyOf(productIds, capacity);
+            docLengths = Arrays.copyOf(docLengths, capacity);
+            docTerms = Arrays.copyOf(docTerms, capacity);
+        }
+
+        return nextSlot++;
+    }
+
+    private static List<String> bucketKeys(String term) {
+        return term.length() < 2
+                ? List.of(bucketKey(0, term.charAt(0), 1))
+                : List.of(bucketKey(0, term.charAt(0), term.length()), bucketKey(1, term.charAt(1), term.length()));
+    }
+
+    private static String bucketKey(int position, char c, int length) {
+        return position + ":" + c + ":" + length;
+    }
+
+    private static void addTokens(Map<String, Integer> weights, String text, int weight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, weight, Integer::sum);
+        }
+    }
+
+    // Lowercase, strip accents, split on anything that isn't a letter or digit
+    static List<String> tokenize(String text) {
+
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        String normalized = Normalizer.normalize(text.toLowerCase(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty() && !STOP_WORDS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Growable parallel arrays of (doc slot, weighted tf).
+     * Order does not matter, so removal swaps in the last entry.
+     */
+    private static class Postings {
+
+        private int[] slots = new int[4];
+        private int[] weights = new int[4];
+        private int size = 0;
+
+        void add(int slot, int weight) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            slots[size] = slot;
+            weights[size] = weight;
+            size++;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    size--;
+                    slots[i] = slots[size];
+                    weights[i] = weights[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    // Index terms one query token expands to, plus their combined postings length
+    private static class Expansion {
+
+        private final Map<String, Float> terms;
+        private final int postingCount;
+
+        Expansion(Map<String, Float> terms, int postingCount) {
+            this.terms = terms;
+            this.postingCount = postingCount;
+        }
+    }
+
+    /**
+     * Per-query scratch table of candidate docs, sized by the rarest
+     * token's postings. Open addressing on slot → candidate index keeps
+     * lookups allocation-free while later tokens are scored.
+     */
+    private static class Candidates {
+
+        private final int[] keys;
+        private final int[] index;
+        private final int mask;
+
+        private final int[] slots;
+        private final float[] total;
+        private final float[] best;
+        private final int[] matched;
+        private int size = 0;
+
+        Candidates(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(expected, 8) * 2 - 1) << 1;
+            keys = new int[capacity];
+            index = new int[capacity];
+            mask = capacity - 1;
+
+            slots = new int[expected];
+            total = new float[expected];
+            best = new float[expected];
+            matched = new int[expected];
+        }
+
+        int addIfAbsent(int slot) {
+            int h = probe(slot);
+            if (keys[h] == 0) {
+                keys[h] = slot + 1;
+                index[h] = size;
+                slots[size] = slot;
+                return size++;
+            }
+            return index[h];
+        }
+
+        int indexOf(int slot) {
+            int h = probe(slot);
+            return keys[h] == 0 ? -1 : index[h];
+        }
+
+        // Fold this token's best score into the total of every doc it matched
+        void endRound(int round) {
+            for (int c = 0; c < size; c++) {
+                if (matched[c] == round && best[c] > 0f) {
+                    total[c] += best[c];
+                    matched[c]++;
+                }
+                best[c] = 0f;
+            }
+        }
+
+        private int probe(int slot) {
+            int h = (slot * 0x9E3779B9) & mask;
+            while (keys[h] != 0 && keys[h] != slot + 1) {
+                h = (h + 1) & mask;
+            }
+            return h;
+        }
+    }
+
+    public record Hit(long productId, float score) {
+    }
+}
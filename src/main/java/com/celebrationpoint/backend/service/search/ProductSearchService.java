@@ -0,0 +1,77 @@
+package com.celebrationpoint.backend.service.search;
+
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import com.celebrationpoint.backend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Owns the product search index.
+ *
+ * The index is built once at startup (active products, read in id-keyset
+ * chunks so the whole catalog is never loaded at once) and then kept
+ * current by ProductService on every product write.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchService.class);
+
+    private static final int BUILD_CHUNK_SIZE = 1000;
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // =================================================
+    // 🚀 STARTUP BUILD
+    // =================================================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+
+        long start = System.currentTimeMillis();
+
+        productRepository.forEachActiveChunk(BUILD_CHUNK_SIZE, chunk -> chunk.forEach(this::onProductSaved));
+
+        log.info("Product search index built: {} products in {} ms",
+                index.size(), System.currentTimeMillis() - start);
+    }
+
+    // =================================================
+    // 🔍 QUERIES
+    // =================================================
+
+    public List<ProductSearchIndex.Hit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return index.suggest(prefix, limit);
+    }
+
+    // =================================================
+    // ✏ INCREMENTAL UPDATES
+    // =================================================
+
+    // Only active products are searchable
+    public void onProductSaved(ProductDetailResponse product) {
+
+        if (product.isActive()) {
+            index.put(product.getId(), product.getName(), product.getDescription());
+        } else {
+            index.remove(product.getId());
+        }
+    }
+
+    public void onProductDeleted(Long productId) {
+        index.remove(productId);
+    }
+}
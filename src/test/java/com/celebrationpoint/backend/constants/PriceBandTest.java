@@ -0,0 +1,55 @@
+package com.celebrationpoint.backend.constants;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceBandTest {
+
+    private static PriceBand of(String price) {
+        return PriceBand.of(new BigDecimal(price));
+    }
+
+    @Test
+    void lowerBoundIsInclusiveUpperBoundExclusive() {
+        assertThat(of("0")).isEqualTo(PriceBand.UNDER_500);
+        assertThat(of("499.99")).isEqualTo(PriceBand.UNDER_500);
+        assertThat(of("500")).isEqualTo(PriceBand.FROM_500_TO_999);
+        assertThat(of("999.99")).isEqualTo(PriceBand.FROM_500_TO_999);
+        assertThat(of("1000")).isEqualTo(PriceBand.FROM_1000_TO_2499);
+        assertThat(of("2499.99")).isEqualTo(PriceBand.FROM_1000_TO_2499);
+        assertThat(of("2500")).isEqualTo(PriceBand.FROM_2500_TO_4999);
+        assertThat(of("4999.99")).isEqualTo(PriceBand.FROM_2500_TO_4999);
+        assertThat(of("5000")).isEqualTo(PriceBand.ABOVE_5000);
+        assertThat(of("250000")).isEqualTo(PriceBand.ABOVE_5000);
+    }
+
+    @Test
+    void scaleDoesNotMatter() {
+        assertThat(of("500.00")).isEqualTo(PriceBand.FROM_500_TO_999);
+        assertThat(of("5E+3")).isEqualTo(PriceBand.ABOVE_5000);
+        assertThat(of("499.999")).isEqualTo(PriceBand.UNDER_500);
+    }
+
+    @Test
+    void bandsCoverEveryPriceWithoutGaps() {
+        PriceBand[] bands = PriceBand.values();
+
+        assertThat(bands[0].getMin()).isNull();
+        assertThat(bands[bands.length - 1].getMax()).isNull();
+        for (int i = 1; i < bands.length; i++) {
+            assertThat(bands[i].getMin()).isEqualByComparingTo(bands[i - 1].getMax());
+        }
+    }
+
+    @Test
+    void fromParsesNamesCaseInsensitively() {
+        assertThat(PriceBand.from(" under_500 ")).isEqualTo(PriceBand.UNDER_500);
+        assertThatThrownBy(() -> PriceBand.from("cheap"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown price band: cheap");
+    }
+}
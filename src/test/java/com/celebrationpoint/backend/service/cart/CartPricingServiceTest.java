@@ -0,0 +1,80 @@
+package com.celebrationpoint.backend.service.cart;
+
+import com.celebrationpoint.backend.dto.CartQuote;
+import com.celebrationpoint.backend.dto.CartQuoteLine;
+import com.celebrationpoint.backend.entity.Category;
+import com.celebrationpoint.backend.entity.Product;
+import com.celebrationpoint.backend.entity.User;
+import com.celebrationpoint.backend.repository.CategoryRepository;
+import com.celebrationpoint.backend.repository.ProductRepository;
+import com.celebrationpoint.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the configured database; every test rolls back.
+ */
+@SpringBootTest
+@Transactional
+class CartPricingServiceTest {
+
+    @Autowired
+    private CartPricingService cartPricingService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Long userId;
+    private Long balloons;
+
+    @BeforeEach
+    void setUp() {
+        long nonce = System.nanoTime();
+        userId = userRepository.saveAndFlush(
+                new User("Pricing test", "pricing-" + nonce + "@test.local", "x")).getId();
+
+        Category category = categoryRepository.saveAndFlush(new Category("Pricing test " + nonce, ""));
+        balloons = productRepository.saveAndFlush(
+                new Product("Balloons", "", new BigDecimal("99"), 5, category)).getId();
+    }
+
+    @Test
+    void quoteOfTheEmptyCartIsNotReusedOnceTheCartExists() {
+
+        CartQuote empty = cartPricingService.quote(userId);
+        assertThat(empty.getLines()).isEmpty();
+
+        cartService.addToCart(userId, balloons, 2);
+
+        CartQuote quote = cartPricingService.quote(userId);
+        assertThat(quote.getCartVersion()).isNotEqualTo(empty.getCartVersion());
+        assertThat(quote.getLines()).extracting(CartQuoteLine::getProductId).containsExactly(balloons);
+    }
+
+    @Test
+    void checkoutAfterTheFirstAddDoesNotSeeTheEmptyQuote() {
+
+        cartPricingService.quote(userId);
+        cartService.addToCart(userId, balloons, 2);
+
+        assertThat(cartPricingService.quoteForCheckout(userId).getLines())
+                .extracting(CartQuoteLine::getQuantity)
+                .containsExactly(2);
+    }
+}
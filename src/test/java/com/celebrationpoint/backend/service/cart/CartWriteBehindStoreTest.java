@@ -0,0 +1,228 @@
+package com.celebrationpoint.backend.service.cart;
+
+import com.celebrationpoint.backend.entity.Category;
+import com.celebrationpoint.backend.entity.Product;
+import com.celebrationpoint.backend.entity.User;
+import com.celebrationpoint.backend.repository.CartItemRepository;
+import com.celebrationpoint.backend.repository.CartRepository;
+import com.celebrationpoint.backend.repository.CategoryRepository;
+import com.celebrationpoint.backend.repository.ProductRepository;
+import com.celebrationpoint.backend.repository.UserRepository;
+import com.celebrationpoint.backend.service.product.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs against the configured database with its own enabled store.
+ * Other threads and the store's own transactions must see the rows,
+ * so tests commit and clean up after themselves.
+ */
+@SpringBootTest
+class CartWriteBehindStoreTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private CartWriteBehindStore store;
+    private CartService cartService;
+    private TransactionTemplate checkout;
+
+    private Long userId;
+    private Long categoryId;
+    private Long balloons;
+    private Long candles;
+
+    @BeforeEach
+    void setUp() {
+        store = new CartWriteBehindStore(true, 100, 500, transactionManager);
+        ReflectionTestUtils.setField(store, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(store, "cartItemRepository", cartItemRepository);
+        ReflectionTestUtils.setField(store, "productService", productService);
+
+        cartService = new CartService(cartRepository, cartItemRepository, productRepository, jdbcTemplate, store);
+        checkout = new TransactionTemplate(transactionManager);
+
+        long nonce = System.nanoTime();
+        userId = userRepository.saveAndFlush(
+                new User("Write-behind test", "write-behind-" + nonce + "@test.local", "x")).getId();
+
+        Category category = categoryRepository.saveAndFlush(new Category("Write-behind test " + nonce, ""));
+        categoryId = category.getId();
+        balloons = productRepository.saveAndFlush(
+                new Product("Balloons", "", new BigDecimal("99"), 50, category)).getId();
+        candles = productRepository.saveAndFlush(
+                new Product("Candles", "", new BigDecimal("199"), 50, category)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.flushOnShutdown();
+        jdbcTemplate.update(
+                "DELETE FROM cart_items WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM products WHERE category_id = ?", categoryId);
+        jdbcTemplate.update("DELETE FROM categories WHERE id = ?", categoryId);
+        jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    // productId → quantity, as stored
+    private Map<Long, Integer> rows() {
+        Map<Long, Integer> lines = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT ci.product_id, ci.quantity
+                          FROM cart_items ci JOIN carts c ON c.id = ci.cart_id
+                         WHERE c.user_id = ?""",
+                rs -> {
+                    lines.put(rs.getLong(1), rs.getInt(2));
+                },
+                userId);
+        return lines;
+    }
+
+    private void lockCartRow() {
+        jdbcTemplate.queryForList("SELECT version FROM carts WHERE user_id = ? FOR UPDATE", Long.class, userId);
+    }
+
+    // =================================================
+    // 🔓 DETACH DURING A CONCURRENT EDIT
+    // =================================================
+
+    @Test
+    void editDuringCheckoutWaitsAndLandsOnTheClearedCart() throws Exception {
+
+        store.add(userId, balloons, 1);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch editStarted = new CountDownLatch(1);
+        AtomicBoolean editDoneBeforeCommit = new AtomicBoolean();
+        AtomicReference<CompletableFuture<Void>> edit = new AtomicReference<>();
+
+        // Same steps as placeOrder: detach, lock the cart row, clear the cart
+        CompletableFuture<Void> order = CompletableFuture.runAsync(() -> checkout.executeWithoutResult(status -> {
+            store.detach(userId);
+            lockCartRow();
+            locked.countDown();
+            try {
+                editStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cartService.clearCart(userId);
+            editDoneBeforeCommit.set(edit.get().isDone());
+        }));
+
+        assertThat(locked.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        edit.set(CompletableFuture.runAsync(() -> store.add(userId, candles, 2)));
+        editStarted.countDown();
+
+        order.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        edit.get().get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(editDoneBeforeCommit).isFalse();
+        assertThat(rows()).isEmpty();
+
+        store.detach(userId);
+        assertThat(rows()).containsOnly(Map.entry(candles, 2));
+    }
+
+    @Test
+    void failedCheckoutReleasesTheCartWithItsEdits() throws Exception {
+
+        store.add(userId, balloons, 3);
+
+        CompletableFuture.runAsync(() -> checkout.executeWithoutResult(status -> {
+            store.detach(userId);
+            lockCartRow();
+            status.setRollbackOnly();
+        })).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertThat(rows()).containsOnly(Map.entry(balloons, 3));
+        assertThat(store.getItems(userId)).singleElement()
+                .satisfies(item -> assertThat(item.getQuantity()).isEqualTo(3));
+    }
+
+    // =================================================
+    // 💾 FLUSH / DETACH ORDERING
+    // =================================================
+
+    @Test
+    void detachWritesEditsMadeAfterTheLastFlush() {
+
+        store.add(userId, balloons, 1);
+        store.flush();
+        store.add(userId, balloons, 1);
+        long version = store.getVersion(userId);
+
+        store.detach(userId);
+
+        assertThat(rows()).containsOnly(Map.entry(balloons, 2));
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT version FROM carts WHERE user_id = ?", Long.class, userId)).isEqualTo(version);
+    }
+
+    @Test
+    void flushWhileCheckoutHoldsTheCartNeitherWaitsNorRestoresIt() throws Exception {
+
+        store.add(userId, balloons, 1);
+        store.flush();
+        store.add(userId, candles, 1);
+
+        checkout.executeWithoutResult(status -> {
+            store.detach(userId);
+            lockCartRow();
+            try {
+                CompletableFuture.runAsync(store::flush).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            cartService.clearCart(userId);
+        });
+
+        store.flush();
+
+        assertThat(rows()).isEmpty();
+        assertThat(store.getItems(userId)).isEmpty();
+    }
+}
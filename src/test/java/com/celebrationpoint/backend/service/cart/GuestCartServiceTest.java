@@ -0,0 +1,178 @@
+package com.celebrationpoint.backend.service.cart;
+
+import com.celebrationpoint.backend.dto.CartItemResponse;
+import com.celebrationpoint.backend.dto.CartOperation;
+import com.celebrationpoint.backend.dto.ProductBatchResponse;
+import com.celebrationpoint.backend.service.product.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GuestCartServiceTest {
+
+    private static final String SECRET = "test-secret";
+
+    private GuestCartService service;
+
+    @BeforeEach
+    void setUp() {
+        service = guestCarts(SECRET);
+    }
+
+    private static GuestCartService guestCarts(String secret) {
+        GuestCartService service = new GuestCartService();
+        ReflectionTestUtils.setField(service, "secret", secret);
+        ReflectionTestUtils.setField(service, "ttlDays", 30);
+        ReflectionTestUtils.setField(service, "maxLines", 50);
+        return service;
+    }
+
+    // Same format as the service, with any payload
+    private static String signed(String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(bytes) + "." + encoder.encodeToString(mac.doFinal(bytes));
+    }
+
+    // =================================================
+    // 🔐 SIGN / VERIFY
+    // =================================================
+
+    @Test
+    void encodedLinesDecodeInOrder() {
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        lines.put(42L, 2);
+        lines.put(7L, 1);
+
+        assertThat(service.decode(service.encode(lines))).containsExactly(Map.entry(42L, 2), Map.entry(7L, 1));
+        assertThat(service.decode(service.encode(Map.of()))).isEmpty();
+    }
+
+    @Test
+    void missingTokenIsAnEmptyCart() {
+        assertThat(service.decode(null)).isEmpty();
+        assertThat(service.decode("  ")).isEmpty();
+    }
+
+    @Test
+    void tokenOlderThanTheTtlIsAnEmptyCart() throws Exception {
+        long issuedAt = Instant.now().minus(Duration.ofDays(31)).getEpochSecond();
+
+        assertThat(service.decode(signed("v1|" + issuedAt + "|42:2"))).isEmpty();
+    }
+
+    // =================================================
+    // 🚫 TAMPERING
+    // =================================================
+
+    @Test
+    void editedPayloadIsRejected() {
+        String token = service.encode(Map.of(42L, 1));
+        String payload = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))),
+                StandardCharsets.UTF_8);
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.replace("42:1", "42:9").getBytes(StandardCharsets.UTF_8))
+                + token.substring(token.indexOf('.'));
+
+        assertThatThrownBy(() -> service.decode(forged))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid guest cart");
+    }
+
+    @Test
+    void tokenSignedWithAnotherSecretIsRejected() {
+        String token = guestCarts("other-secret").encode(Map.of(42L, 1));
+
+        assertThatThrownBy(() -> service.decode(token)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedTokensAreRejectedNotThrownThrough() throws Exception {
+        assertThatThrownBy(() -> service.decode("no-dot")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.decode("!!!.???")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.decode(signed("v2|0|42:1"))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.decode(signed("v1|" + Instant.now().getEpochSecond() + "|42")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid guest cart");
+    }
+
+    @Test
+    void blankSecretFailsStartup() {
+        assertThatThrownBy(() -> guestCarts(" ").checkSecret()).isInstanceOf(IllegalStateException.class);
+    }
+
+    // =================================================
+    // 🔀 MERGE
+    // =================================================
+
+    // Cart already holding these lines; every product exists
+    private CartService cartHolding(CartItemResponse... items) {
+        ProductService productService = mock(ProductService.class);
+        when(productService.getProductsByIds(anyList())).thenReturn(new ProductBatchResponse(List.of(), List.of()));
+
+        CartService cartService = mock(CartService.class);
+        when(cartService.getCartItems(42L)).thenReturn(List.of(items));
+
+        ReflectionTestUtils.setField(service, "productService", productService);
+        ReflectionTestUtils.setField(service, "cartService", cartService);
+        return cartService;
+    }
+
+    private static CartItemResponse line(long productId, int quantity) {
+        return new CartItemResponse(productId * 10, productId, "Product " + productId, BigDecimal.ONE, quantity);
+    }
+
+    @Test
+    void mergeKeepsTheLargerQuantity() {
+        CartService cartService = cartHolding(line(1, 1), line(2, 5));
+        Map<Long, Integer> guest = new LinkedHashMap<>();
+        guest.put(1L, 3);
+        guest.put(2L, 2);
+        guest.put(3L, 4);
+
+        service.mergeInto(42L, service.encode(guest));
+
+        ArgumentCaptor<List<CartOperation>> operations = ArgumentCaptor.captor();
+        verify(cartService).applyOperations(eq(42L), operations.capture());
+
+        assertThat(operations.getValue())
+                .extracting(CartOperation::getOp, CartOperation::getProductId, CartOperation::getQuantity)
+                .containsExactly(
+                        tuple(CartOperation.Type.SET, 1L, 3),
+                        tuple(CartOperation.Type.SET, 3L, 4));
+    }
+
+    @Test
+    void mergingTheSameTokenAgainChangesNothing() {
+        CartService cartService = cartHolding(line(1, 3), line(3, 4));
+
+        service.mergeInto(42L, service.encode(Map.of(1L, 3, 3L, 4)));
+
+        verify(cartService, never()).applyOperations(any(), anyList());
+    }
+}
@@ -0,0 +1,134 @@
+package com.celebrationpoint.backend.service.facet;
+
+import com.celebrationpoint.backend.constants.PriceBand;
+import com.celebrationpoint.backend.dto.ProductDetailResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetIndexServiceTest {
+
+    private static final long BALLOONS = 1L;
+    private static final long CANDLES = 2L;
+
+    private FacetIndexService index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndexService();
+        //                id  category  price    stock
+        save(1, BALLOONS, "199", 10);
+        save(2, BALLOONS, "799", 0);
+        save(3, BALLOONS, "1200", 5);
+        save(4, CANDLES, "299", 3);
+        save(5, CANDLES, "650", 2);
+        save(6, CANDLES, "7000", 0);
+    }
+
+    private void save(long id, long categoryId, String price, int stock) {
+        save(id, categoryId, price, stock, true);
+    }
+
+    private void save(long id, long categoryId, String price, int stock, boolean active) {
+        index.onProductSaved(new ProductDetailResponse(
+                id, "Product " + id, "", new BigDecimal(price), stock, "", active, categoryId, "Category"));
+    }
+
+    private static ProductFilter filter(List<Long> categories, List<String> bands, Boolean inStock) {
+        return ProductFilter.of(categories, bands, inStock);
+    }
+
+    // =================================================
+    // 🔍 FILTERS (OR WITHIN A FACET, AND ACROSS)
+    // =================================================
+
+    @Test
+    void optionsOfOneFacetAreOredFacetsAreAnded() {
+        ProductFilter filter = filter(List.of(BALLOONS, CANDLES), List.of("UNDER_500", "FROM_500_TO_999"), true);
+
+        assertThat(index.count(filter)).isEqualTo(3);
+        assertThat(index.newestIds(filter, null, 10)).containsExactly(5L, 4L, 1L);
+    }
+
+    @Test
+    void newestIdsPagesDownwardsFromTheCursor() {
+        ProductFilter all = filter(null, null, null);
+
+        assertThat(index.newestIds(all, null, 2)).containsExactly(6L, 5L);
+        assertThat(index.newestIds(all, 5L, 2)).containsExactly(4L, 3L);
+        assertThat(index.newestIds(all, 2L, 10)).containsExactly(1L);
+    }
+
+    // =================================================
+    // 📊 DISJUNCTIVE COUNTS
+    // =================================================
+
+    @Test
+    void facetCountsIgnoreTheirOwnSelection() {
+        FacetIndexService.FacetCounts counts = index.counts(filter(List.of(BALLOONS), null, null));
+
+        assertThat(counts.total()).isEqualTo(3);
+        // Picking balloons doesn't zero out candles
+        assertThat(counts.categories()).containsEntry(BALLOONS, 3).containsEntry(CANDLES, 3);
+        // ...but bands and stock are counted within balloons only
+        assertThat(counts.priceBands())
+                .containsEntry(PriceBand.UNDER_500, 1)
+                .containsEntry(PriceBand.FROM_500_TO_999, 1)
+                .containsEntry(PriceBand.FROM_1000_TO_2499, 1)
+                .containsEntry(PriceBand.ABOVE_5000, 0);
+        assertThat(counts.inStock()).isEqualTo(2);
+        assertThat(counts.outOfStock()).isEqualTo(1);
+    }
+
+    @Test
+    void everyFacetIsCountedUnderTheOtherFacetsSelections() {
+        FacetIndexService.FacetCounts counts = index.counts(
+                filter(List.of(CANDLES), List.of("UNDER_500", "FROM_500_TO_999"), true));
+
+        assertThat(counts.total()).isEqualTo(2);
+        // categories: price + stock applied → balloons 1 (id 1), candles 2 (ids 4, 5)
+        assertThat(counts.categories()).containsEntry(BALLOONS, 1).containsEntry(CANDLES, 2);
+        // bands: candles + in stock applied → ids 4, 5
+        assertThat(counts.priceBands())
+                .containsEntry(PriceBand.UNDER_500, 1)
+                .containsEntry(PriceBand.FROM_500_TO_999, 1)
+                .containsEntry(PriceBand.ABOVE_5000, 0);
+        // stock: candles + bands applied → ids 4, 5 in stock, none out
+        assertThat(counts.inStock()).isEqualTo(2);
+        assertThat(counts.outOfStock()).isZero();
+    }
+
+    @Test
+    void categoriesWithoutMatchesAreLeftOut() {
+        FacetIndexService.FacetCounts counts = index.counts(filter(null, List.of("ABOVE_5000"), null));
+
+        assertThat(counts.categories()).containsOnlyKeys(CANDLES);
+    }
+
+    // =================================================
+    // ✏ INCREMENTAL UPDATES
+    // =================================================
+
+    @Test
+    void updatesMoveProductsBetweenBitmaps() {
+        save(2, CANDLES, "5200", 4);
+
+        assertThat(index.count(filter(List.of(BALLOONS), null, null))).isEqualTo(2);
+        assertThat(index.count(filter(List.of(CANDLES), List.of("ABOVE_5000"), true))).isEqualTo(1);
+        assertThat(index.count(filter(null, List.of("FROM_500_TO_999"), null))).isEqualTo(1);
+    }
+
+    @Test
+    void deactivatedAndDeletedProductsDisappear() {
+        save(1, BALLOONS, "199", 10, false);
+        index.onProductDeleted(4L);
+
+        assertThat(index.count(filter(null, null, null))).isEqualTo(4);
+        assertThat(index.categoryCounts()).containsEntry(BALLOONS, 2).containsEntry(CANDLES, 2);
+        assertThat(index.count(filter(null, List.of("UNDER_500"), null))).isZero();
+    }
+}
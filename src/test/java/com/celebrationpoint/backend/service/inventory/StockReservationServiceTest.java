@@ -0,0 +1,128 @@
+package com.celebrationpoint.backend.service.inventory;
+
+import com.celebrationpoint.backend.entity.Category;
+import com.celebrationpoint.backend.entity.Product;
+import com.celebrationpoint.backend.exception.InsufficientStockException;
+import com.celebrationpoint.backend.repository.CategoryRepository;
+import com.celebrationpoint.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs against the configured database; every test rolls back.
+ */
+@SpringBootTest
+@Transactional
+class StockReservationServiceTest {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long orderId;
+    private Long balloons;
+    private Long candles;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.saveAndFlush(
+                new Category("Reservation test " + System.nanoTime(), ""));
+
+        balloons = productRepository.saveAndFlush(
+                new Product("Balloons", "", new BigDecimal("99"), 5, category)).getId();
+        candles = productRepository.saveAndFlush(
+                new Product("Candles", "", new BigDecimal("199"), 1, category)).getId();
+
+        // No foreign key on order_id; a negative id never meets a real order
+        orderId = -System.nanoTime();
+    }
+
+    private int stock(Long productId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT stock_quantity FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private int reservations(String status) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_reservations WHERE order_id = ? AND status = ?",
+                Integer.class, orderId, status);
+    }
+
+    // =================================================
+    // 🔒 ALL OR NOTHING
+    // =================================================
+
+    @Test
+    void oneShortLineReservesNothing() {
+
+        assertThatThrownBy(() -> stockReservationService.reserve(
+                orderId, Map.of(balloons, 2, candles, 3), Map.of(candles, "Candles")))
+                .isInstanceOf(InsufficientStockException.class)
+                .hasMessage("Not enough stock for: Candles")
+                .satisfies(e -> assertThat(((InsufficientStockException) e).getProductIds())
+                        .containsExactly(candles));
+
+        assertThat(stock(balloons)).isEqualTo(5);
+        assertThat(stock(candles)).isEqualTo(1);
+        assertThat(reservations("HELD")).isZero();
+    }
+
+    @Test
+    void inactiveProductReservesNothing() {
+
+        jdbcTemplate.update("UPDATE products SET active = false WHERE id = ?", candles);
+
+        assertThatThrownBy(() -> stockReservationService.reserve(
+                orderId, Map.of(balloons, 1, candles, 1), Map.of()))
+                .isInstanceOf(InsufficientStockException.class);
+
+        assertThat(stock(balloons)).isEqualTo(5);
+        assertThat(reservations("HELD")).isZero();
+    }
+
+    @Test
+    void everyLineFitsEveryLineIsHeld() {
+
+        stockReservationService.reserve(orderId, Map.of(balloons, 5, candles, 1), Map.of());
+
+        assertThat(stock(balloons)).isZero();
+        assertThat(stock(candles)).isZero();
+        assertThat(reservations("HELD")).isEqualTo(2);
+    }
+
+    // =================================================
+    // ↩ RELEASE
+    // =================================================
+
+    @Test
+    void releaseHandsEveryLineBackOnce() {
+
+        stockReservationService.reserve(orderId, Map.of(balloons, 2, candles, 1), Map.of());
+        stockReservationService.commit(orderId);
+
+        stockReservationService.release(orderId);
+        stockReservationService.release(orderId);
+
+        assertThat(stock(balloons)).isEqualTo(5);
+        assertThat(stock(candles)).isEqualTo(1);
+        assertThat(reservations("RELEASED")).isEqualTo(2);
+    }
+}
@@ -0,0 +1,108 @@
+package com.celebrationpoint.backend.service.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StripedStockCounterTest {
+
+    // =================================================
+    // ✏ SINGLE THREAD
+    // =================================================
+
+    @Test
+    void unitsAreSpreadOverShardsWithoutLoss() {
+        // 3 shards round up to 4; 10 units don't divide evenly
+        assertThat(new StripedStockCounter(3, 10).available()).isEqualTo(10);
+        assertThat(new StripedStockCounter(16, 0).available()).isZero();
+    }
+
+    @Test
+    void takeGathersFromOtherShardsAllOrNothing() {
+        StripedStockCounter counter = new StripedStockCounter(8, 10);
+
+        // More than any single shard holds
+        assertThat(counter.tryTake(7)).isTrue();
+        assertThat(counter.available()).isEqualTo(3);
+
+        assertThat(counter.tryTake(4)).isFalse();
+        assertThat(counter.available()).isEqualTo(3);
+
+        assertThat(counter.tryTake(3)).isTrue();
+        assertThat(counter.available()).isZero();
+        assertThat(counter.tryTake(1)).isFalse();
+    }
+
+    @Test
+    void givenBackUnitsCanBeTakenAgain() {
+        StripedStockCounter counter = new StripedStockCounter(4, 2);
+
+        assertThat(counter.tryTake(2)).isTrue();
+        counter.add(2);
+
+        assertThat(counter.available()).isEqualTo(2);
+        assertThat(counter.tryTake(2)).isTrue();
+    }
+
+    @Test
+    void nonPositiveTakeIsRejected() {
+        StripedStockCounter counter = new StripedStockCounter(4, 2);
+
+        assertThatThrownBy(() -> counter.tryTake(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> counter.tryTake(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // =================================================
+    // 🧵 CONCURRENT (NEVER OVERSELLS)
+    // =================================================
+
+    @Test
+    void concurrentTakesNeverExceedTheStock() throws Exception {
+        int threads = 16;
+        StripedStockCounter counter = new StripedStockCounter(16, 10_000);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch go = new CountDownLatch(1);
+
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int size = 1 + t % 3;
+                results.add(pool.submit(() -> {
+                    go.await();
+                    long taken = 0;
+                    // Keep trying until the stock is gone; some gives back along the way
+                    for (int i = 0; i < 5_000; i++) {
+                        if (counter.tryTake(size)) {
+                            taken += size;
+                            if (i % 10 == 0) {
+                                counter.add(size);
+                                taken -= size;
+                            }
+                        }
+                    }
+                    return taken;
+                }));
+            }
+            go.countDown();
+
+            long taken = 0;
+            for (Future<Long> result : results) {
+                taken += result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(taken).isLessThanOrEqualTo(10_000);
+            assertThat(taken + counter.available()).isEqualTo(10_000);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.celebrationpoint.backend.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoPurchaseMatrixTest {
+
+    // =================================================
+    // 🔍 TOP-K
+    // =================================================
+
+    @Test
+    void topRelatedOrdersByCountThenLowerId() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix();
+        matrix.addBasket(new int[]{1, 2, 3});
+        matrix.addBasket(new int[]{1, 2});
+        matrix.addBasket(new int[]{1, 5});
+        matrix.addBasket(new int[]{1, 4});
+
+        // 2 twice; 3, 4 and 5 once each, ties broken by id
+        assertThat(matrix.topRelated(1, 10)).containsExactly(2, 3, 4, 5);
+        assertThat(matrix.topRelated(1, 2)).containsExactly(2, 3);
+    }
+
+    @Test
+    void countsAreSymmetric() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix();
+        matrix.addBasket(new int[]{7, 9});
+        matrix.addBasket(new int[]{9, 8, 7});
+
+        assertThat(matrix.topRelated(7, 5)).containsExactly(9, 8);
+        assertThat(matrix.topRelated(8, 5)).containsExactly(7, 9);
+        assertThat(matrix.productCount()).isEqualTo(3);
+        assertThat(matrix.cellCount()).isEqualTo(6);
+    }
+
+    @Test
+    void unknownProductOrNonPositiveKIsEmpty() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix();
+        matrix.addBasket(new int[]{1, 2});
+
+        assertThat(matrix.topRelated(3, 5)).isEmpty();
+        assertThat(matrix.topRelated(1, 0)).isEmpty();
+        assertThat(matrix.topRelated(1, -1)).isEmpty();
+    }
+
+    @Test
+    void topRelatedMatchesAFullSortAcrossTableGrowth() {
+        Random random = new Random(7);
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix();
+        Map<Integer, Integer> withOne = new HashMap<>();
+
+        // Enough products to grow both the outer table and row 1
+        for (int order = 0; order < 20_000; order++) {
+            int other = 2 + (int) (Math.pow(random.nextDouble(), 3) * 3000);
+            int third = 3003 + random.nextInt(5000);
+            matrix.addBasket(new int[]{1, other, third});
+            withOne.merge(other, 1, Integer::sum);
+            withOne.merge(third, 1, Integer::sum);
+        }
+
+        int[] expected = withOne.entrySet().stream()
+                .sorted(Comparator.<Map.Entry<Integer, Integer>>comparingInt(Map.Entry::getValue).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(25)
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+
+        assertThat(matrix.topRelated(1, 25)).containsExactly(expected);
+        assertThat(matrix.topRelated(1, 100_000)).hasSize(withOne.size());
+    }
+}
@@ -0,0 +1,267 @@
+package com.celebrationpoint.backend.service.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private static List<Long> ids(List<ProductSearchIndex.Hit> hits) {
+        return hits.stream().map(ProductSearchIndex.Hit::productId).toList();
+    }
+
+    // =================================================
+    // 🏆 BM25 RANKING
+    // =================================================
+
+    @Test
+    void nameMatchOutranksDescriptionMatch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Party hat", "Comes with a red balloon");
+        index.put(2, "Red balloon", "Party decoration");
+
+        assertThat(ids(index.search("balloon", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void shorterDocumentOutranksLongerOneWithSameTermFrequency() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Balloon pump with long hose carry bag and spare nozzles", "");
+        index.put(2, "Balloon pump", "");
+
+        assertThat(ids(index.search("pump", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void rareTermWeighsMoreThanCommonTerm() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Gold gold silver", "");
+        index.put(2, "Gold silver silver", "");
+        index.put(3, "Gold ribbon", "");
+        index.put(4, "Gold banner", "");
+        index.put(5, "Gold cake", "");
+
+        // Same length, mirrored frequencies: more of the rare term wins
+        assertThat(ids(index.search("gold silver", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void everyTokenMustMatch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Red balloon", "");
+        index.put(2, "Blue balloon", "");
+        index.put(3, "Red ribbon", "");
+
+        assertThat(ids(index.search("red balloon", 10))).containsExactly(1L);
+        assertThat(index.search("green balloon", 10)).isEmpty();
+    }
+
+    @Test
+    void limitKeepsTheBestHits() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Candle", "candle candle");
+        index.put(2, "Candle", "");
+        index.put(3, "Holder", "for a candle");
+
+        List<ProductSearchIndex.Hit> hits = index.search("candle", 2);
+
+        assertThat(ids(hits)).containsExactly(1L, 2L);
+        assertThat(hits.get(0).score()).isGreaterThanOrEqualTo(hits.get(1).score());
+    }
+
+    // =================================================
+    // 🔤 PREFIX (AUTOCOMPLETE)
+    // =================================================
+
+    @Test
+    void lastTokenMatchesAsPrefix() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Red balloon", "");
+        index.put(2, "Red ribbon", "");
+
+        assertThat(ids(index.search("red ball", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void onlyTheLastTokenIsAPrefix() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Red balloon", "");
+
+        assertThat(index.search("ballo red", 10)).isEmpty();
+    }
+
+    @Test
+    void exactMatchOutranksPrefixMatch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Balloon", "");
+        index.put(2, "Ball", "");
+
+        assertThat(ids(index.search("ball", 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void suggestReturnsMostCommonCompletionsFirst() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Balloon", "");
+        index.put(2, "Balloon arch", "");
+        index.put(3, "Ballet shoes", "");
+
+        assertThat(index.suggest("bal", 10)).containsExactly("balloon", "ballet");
+        assertThat(index.suggest("bal", 1)).containsExactly("balloon");
+    }
+
+    // =================================================
+    // 🔡 TYPO TOLERANCE
+    // =================================================
+
+    @Test
+    void oneTypoIsCorrected() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Balloon", "");
+
+        assertThat(ids(index.search("baloon", 10))).containsExactly(1L);
+        assertThat(ids(index.search("ballooon", 10))).containsExactly(1L);
+        assertThat(ids(index.search("blaloon", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void typoInTheFirstLetterIsCorrected() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Balloon", "");
+
+        // substitution, deletion, insertion and transposition at the front
+        assertThat(ids(index.search("valloon", 10))).containsExactly(1L);
+        assertThat(ids(index.search("alloon", 10))).containsExactly(1L);
+        assertThat(ids(index.search("vballoon", 10))).containsExactly(1L);
+        assertThat(ids(index.search("ablloon", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void longTokensAllowTwoEditsShortOnesNone() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Decorations", "");
+        index.put(2, "Cake", "");
+
+        assertThat(ids(index.search("decorashuns", 10))).isEmpty();
+        assertThat(ids(index.search("decoratoins", 10))).containsExactly(1L);
+        assertThat(ids(index.search("decaratoins", 10))).containsExactly(1L);
+        assertThat(index.search("cek", 10)).isEmpty();
+    }
+
+    @Test
+    void exactMatchOutranksTypoMatch() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Candle", "");
+        index.put(2, "Candles", "");
+
+        // "candles" is only a prefix hit; no fuzzy expansion once a token matches
+        assertThat(ids(index.search("candle", 10))).containsExactly(1L, 2L);
+    }
+
+    // =================================================
+    // ✏ INCREMENTAL UPDATES
+    // =================================================
+
+    @Test
+    void replaceAndRemoveUpdateTheIndex() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.put(1, "Red balloon", "");
+        index.put(1, "Blue balloon", "");
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.search("red", 10)).isEmpty();
+        assertThat(ids(index.search("blue", 10))).containsExactly(1L);
+
+        index.remove(1);
+
+        assertThat(index.size()).isZero();
+        assertThat(index.search("balloon", 10)).isEmpty();
+        assertThat(index.search("baloon", 10)).isEmpty();
+        assertThat(index.suggest("bal", 10)).isEmpty();
+    }
+
+    @Test
+    void tokenizeLowercasesStripsAccentsAndStopWords() {
+        assertThat(ProductSearchIndex.tokenize("Décor for THE Kids' Party-Hat"))
+                .containsExactly("decor", "kids", "party", "hat");
+    }
+
+    @Test
+    void boundedDistanceCountsTranspositionsAsOneEdit() {
+        assertThat(ProductSearchIndex.boundedDistance("balloon", "balloon", 2)).isZero();
+        assertThat(ProductSearchIndex.boundedDistance("ablloon", "balloon", 2)).isEqualTo(1);
+        assertThat(ProductSearchIndex.boundedDistance("ribbon", "balloon", 2)).isGreaterThan(2);
+    }
+
+    // =================================================
+    // ⏱ 100K-PRODUCT LATENCY (mvn test -Dsearch.benchmark=true)
+    // =================================================
+
+    @Test
+    @EnabledIfSystemProperty(named = "search.benchmark", matches = "true")
+    void queriesOn100kProductsStaySubMillisecond() {
+
+        Random random = new Random(42);
+        String[] words = new String[5000];
+        for (int i = 0; i < words.length; i++) {
+            char[] chars = new char[4 + random.nextInt(6)];
+            for (int c = 0; c < chars.length; c++) {
+                chars[c] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new String(chars);
+        }
+
+        ProductSearchIndex index = new ProductSearchIndex();
+        List<String> names = new ArrayList<>();
+        for (int id = 0; id < 100_000; id++) {
+            // skewed word choice, like a real catalog vocabulary
+            String name = word(words, random) + " " + word(words, random) + " " + word(words, random);
+            names.add(name);
+            index.put(id, name, word(words, random) + " " + word(words, random));
+        }
+
+        List<String> queries = new ArrayList<>();
+        for (int q = 0; q < 2000; q++) {
+            String[] tokens = names.get(random.nextInt(names.size())).split(" ");
+            switch (q % 3) {
+                case 0 -> queries.add(tokens[0] + " " + tokens[1]);
+                case 1 -> queries.add(tokens[0] + " " + tokens[1].substring(0, 2));
+                default -> queries.add(typo(tokens[2], random));
+            }
+        }
+
+        queries.subList(0, 500).forEach(query -> index.search(query, 20));
+
+        long[] nanos = new long[queries.size()];
+        for (int q = 0; q < queries.size(); q++) {
+            long start = System.nanoTime();
+            index.search(queries.get(q), 20);
+            nanos[q] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+
+        long median = nanos[nanos.length / 2];
+
+        assertThat(median)
+                .as("search over 100k products: p50 %d us, p99 %d us",
+                        median / 1000, nanos[nanos.length * 99 / 100] / 1000)
+                .isLessThan(1_000_000L);
+    }
+
+    private static String word(String[] words, Random random) {
+        double skewed = Math.pow(random.nextDouble(), 2);
+        return words[(int) (skewed * words.length)];
+    }
+
+    private static String typo(String token, Random random) {
+        int at = random.nextInt(token.length());
+        char replacement = (char) ('a' + random.nextInt(26));
+        return token.substring(0, at) + replacement + token.substring(at + 1);
+    }
+}